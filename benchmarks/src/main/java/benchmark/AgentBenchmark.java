@@ -0,0 +1,95 @@
+package benchmark;
+
+import main.Direction;
+import main.building.Building;
+import main.building.Floor;
+import main.passenger.AgentPassengerGenerator;
+import main.passenger.PassengerGenerator;
+import main.passenger.Passenger;
+import main.passenger.traffic.ResidentialTraffic;
+import main.simulation.SimulationClock;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Every invocation starts agentCount passenger agents on virtual threads, all waiting at once, and a platform thread
+// standing in for the elevators carries them to their destination. agents is the number of finished journeys per
+// second. busyCarrierMillis is the CPU time the virtual thread scheduler's carrier threads used per second, so 1000
+// times the number of carriers means they never idled. Run with -jvmArgsAppend -Djdk.tracePinnedThreads=full to check
+// that no agent pins its carrier.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AgentBenchmark {
+
+    private static final int FLOOR_COUNT = 50;
+    private static final String CARRIER_THREAD_CLASS = "jdk.internal.misc.CarrierThread";
+
+    @Param({"1000", "10000", "100000"})
+    int agentCount;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final SplittableRandom random = new SplittableRandom(BenchmarkSupport.SEED);
+    private Building building;
+    private AgentPassengerGenerator generator;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long agents;
+        public long busyCarrierMillis;
+    }
+
+    @Setup
+    public void setUp() {
+        building = new Building(FLOOR_COUNT);
+        // Passengers are created by the benchmark, the generator's own arrivals never run
+        generator = new AgentPassengerGenerator(building, BenchmarkSupport.silentLogger(), new SplittableRandom(BenchmarkSupport.SEED),
+                SimulationClock.SYSTEM, new ResidentialTraffic(FLOOR_COUNT, PassengerGenerator.GENERATION_INTERVAL));
+    }
+
+    @Benchmark
+    public long startAndCarryAgents(Counters counters) {
+        long finishedBefore = generator.getFinishedAgentCount();
+        long carrierCpuBefore = getCarrierCpuNanos();
+        for (int i = 0; i < agentCount; i++) {
+            generator.createPassenger(1 + random.nextInt(FLOOR_COUNT));
+        }
+        long finishedAfter = finishedBefore + agentCount;
+        while (generator.getFinishedAgentCount() < finishedAfter) {
+            carryWaitingPassengers();
+        }
+        counters.agents += agentCount;
+        counters.busyCarrierMillis += TimeUnit.NANOSECONDS.toMillis(getCarrierCpuNanos() - carrierCpuBefore);
+        return generator.getFinishedAgentCount();
+    }
+
+    // Boards and drops off everyone waiting right away, so the agents' own threads are all that is measured
+    private void carryWaitingPassengers() {
+        long now = System.currentTimeMillis();
+        for (Floor floor : building.getFloors()) {
+            for (Direction direction : Direction.values()) {
+                Passenger passenger;
+                while ((passenger = floor.pollWaitingPassenger(direction)) != null) {
+                    floor.getButton(direction).release();
+                    passenger.board(now);
+                    passenger.alight(now);
+                }
+            }
+        }
+        Thread.onSpinWait();
+    }
+
+    private long getCarrierCpuNanos() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getClass().getName().equals(CARRIER_THREAD_CLASS))
+                .mapToLong(thread -> Math.max(0, threadMXBean.getThreadCpuTime(thread.threadId())))
+                .sum();
+    }
+}
@@ -0,0 +1,38 @@
+package benchmark;
+
+import main.Direction;
+import main.building.Building;
+import main.customLogger.CustomLogger;
+import main.customLogger.LogLevel;
+import main.elevator.Elevator;
+
+import java.util.Random;
+
+final class BenchmarkSupport {
+    static final long SEED = 42;
+
+    private BenchmarkSupport() {
+    }
+
+    // Console output would dominate every measurement
+    static CustomLogger silentLogger() {
+        CustomLogger logger = new CustomLogger();
+        logger.setLevel(LogLevel.OFF);
+        return logger;
+    }
+
+    // Roughly one floor in ten has a hall call
+    static void pressHallCalls(Building building, Random random) {
+        building.getFloors().forEach(floor -> {
+            if (random.nextInt(10) == 0) {
+                floor.getButton(random.nextBoolean() ? Direction.UP : Direction.DOWN).press();
+            }
+        });
+    }
+
+    static void pressCarCalls(Elevator elevator, int count, int floorCount, Random random) {
+        for (int i = 0; i < count; i++) {
+            elevator.getElevatorButton(1 + random.nextInt(floorCount)).press();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package benchmark;
+
+import main.building.Building;
+import main.building.Floor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildingBenchmark {
+
+    @Param({"5", "50", "200", "500"})
+    int floorCount;
+
+    private Building building;
+    private int nextFloorNumber = 1;
+
+    @Setup
+    public void setUp() {
+        building = new Building(floorCount);
+    }
+
+    // Cycles through every floor, so lookups near the top of the building are measured as well
+    @Benchmark
+    public Floor getFloorByNumber() {
+        Floor floor = building.getFloorByNumber(nextFloorNumber);
+        nextFloorNumber = nextFloorNumber == floorCount ? 1 : nextFloorNumber + 1;
+        return floor;
+    }
+}
@@ -0,0 +1,47 @@
+package benchmark;
+
+import main.building.Building;
+import main.building.FloorButton;
+import main.elevator.ButtonReader;
+import main.elevator.Elevator;
+import main.elevator.ElevatorButton;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ButtonReaderBenchmark {
+
+    @Param({"5", "50", "500"})
+    int floorCount;
+
+    private final ButtonReader buttonReader = new ButtonReader();
+    private Building building;
+    private Elevator elevator;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkSupport.SEED);
+        building = new Building(floorCount);
+        elevator = new Elevator(6, building, 1, BenchmarkSupport.silentLogger());
+        BenchmarkSupport.pressHallCalls(building, random);
+        BenchmarkSupport.pressCarCalls(elevator, 3, floorCount, random);
+    }
+
+    @Benchmark
+    public Set<FloorButton> detectPressedFloorButtons() {
+        return buttonReader.detectPressedFloorButtons(building);
+    }
+
+    @Benchmark
+    public Set<ElevatorButton> detectPressedElevatorButtons() {
+        return buttonReader.detectPressedElevatorButtons(elevator);
+    }
+}
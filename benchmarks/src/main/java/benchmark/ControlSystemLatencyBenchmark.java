@@ -0,0 +1,119 @@
+package benchmark;
+
+import main.Direction;
+import main.building.Building;
+import main.button.Button;
+import main.elevator.Elevator;
+import main.elevator.ElevatorGroupControlSystem;
+import main.elevator.dispatch.EstimatedTimeOfArrivalDispatchStrategy;
+import main.metrics.LatencyHistogram;
+import main.simulation.SimulationClock;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+// The real-time group control system, woken by button changes. Measures the time from pressing a hall button to the
+// control thread sending the elevator there, and the CPU the control thread burns while nothing happens. The elevator
+// thread is not started, so the car stays put and every press is answered by one round of decisions.
+// ./gradlew :benchmarks:jmh -PjmhArgs="ControlSystemLatency"
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControlSystemLatencyBenchmark {
+
+    private static final int FLOOR_COUNT = 10;
+    private static final long IDLE_MILLIS = 1000;
+
+    private Building building;
+    private ElevatorGroupControlSystem groupControlSystem;
+    private Thread controlThread;
+    private Elevator elevator;
+    private LatencyHistogram decisionRounds;
+
+    // Presses alternate between two floors, so every press changes the destination. After each press, waits for the
+    // round that answered it to end, then releases the button and waits for that round too, so the next press finds
+    // the control thread asleep.
+    @State(Scope.Thread)
+    public static class Presses {
+        private final Button[] buttons = new Button[2];
+        private int next = 0;
+        private long roundsBeforePress;
+
+        @Setup
+        public void setUp(ControlSystemLatencyBenchmark system) {
+            buttons[0] = system.building.getFloorByNumber(FLOOR_COUNT / 2).getButton(Direction.UP);
+            buttons[1] = system.building.getFloorByNumber(FLOOR_COUNT).getButton(Direction.DOWN);
+        }
+
+        @Setup(Level.Invocation)
+        public void beforePress(ControlSystemLatencyBenchmark system) {
+            roundsBeforePress = system.decisionRounds.getTotalCount();
+        }
+
+        @TearDown(Level.Invocation)
+        public void afterPress(ControlSystemLatencyBenchmark system) {
+            system.awaitRoundsAfter(roundsBeforePress);
+            long roundsBeforeRelease = system.decisionRounds.getTotalCount();
+            buttons[next].release();
+            system.awaitRoundsAfter(roundsBeforeRelease);
+            next = 1 - next;
+        }
+    }
+
+    // Control thread CPU time per idle second, reported next to the time of the single shot
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class IdleCpu {
+        public long controlThreadCpuMicros;
+    }
+
+    @Setup
+    public void setUp() {
+        building = new Building(FLOOR_COUNT);
+        groupControlSystem = ElevatorGroupControlSystem.create(building, 1, 6, new EstimatedTimeOfArrivalDispatchStrategy(),
+                SimulationClock.SYSTEM, BenchmarkSupport.silentLogger());
+        elevator = groupControlSystem.getElevators().get(0);
+        decisionRounds = groupControlSystem.getDecisionLatencies();
+        controlThread = new Thread(groupControlSystem, "GroupControl");
+        controlThread.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        groupControlSystem.stop();
+        controlThread.join();
+    }
+
+    private void awaitRoundsAfter(long rounds) {
+        while (decisionRounds.getTotalCount() <= rounds) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Integer pressToDestination(Presses presses) {
+        Button button = presses.buttons[presses.next];
+        button.press();
+        while (!button.getFloorNumber().equals(elevator.getDestinationFloorNumber())) {
+            Thread.onSpinWait();
+        }
+        return elevator.getDestinationFloorNumber();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 5)
+    public void idle(IdleCpu idleCpu) throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpuNanosBefore = threads.getThreadCpuTime(controlThread.threadId());
+        Thread.sleep(IDLE_MILLIS);
+        idleCpu.controlThreadCpuMicros += (threads.getThreadCpuTime(controlThread.threadId()) - cpuNanosBefore) / 1000;
+    }
+}
@@ -0,0 +1,49 @@
+package benchmark;
+
+import main.building.Building;
+import main.elevator.DestinationFinder;
+import main.elevator.Elevator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DestinationFinderBenchmark {
+
+    @Param({"5", "50", "500"})
+    int floorCount;
+
+    private final DestinationFinder destinationFinder = new DestinationFinder();
+    private Building building;
+    private Elevator elevator;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkSupport.SEED);
+        building = new Building(floorCount);
+        elevator = new Elevator(6, building, floorCount / 2 + 1, BenchmarkSupport.silentLogger());
+        BenchmarkSupport.pressHallCalls(building, random);
+        BenchmarkSupport.pressCarCalls(elevator, 3, floorCount, random);
+    }
+
+    @Benchmark
+    public int lookUp() {
+        return destinationFinder.lookUp(elevator, elevator.getCarCalls(), building.getHallCalls());
+    }
+
+    @Benchmark
+    public int lookBelow() {
+        return destinationFinder.lookBelow(elevator, elevator.getCarCalls(), building.getHallCalls());
+    }
+
+    @Benchmark
+    public boolean isMoreDestinationsOnTheWay() {
+        return destinationFinder.isMoreDestinationsOnTheWay(elevator, elevator.getCarCalls(), building.getHallCalls());
+    }
+}
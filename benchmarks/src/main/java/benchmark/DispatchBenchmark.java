@@ -0,0 +1,66 @@
+package benchmark;
+
+import main.Direction;
+import main.building.Building;
+import main.elevator.Elevator;
+import main.elevator.ElevatorGroupControlSystem;
+import main.elevator.HallCallAssignments;
+import main.elevator.dispatch.DispatchStrategy;
+import main.elevator.dispatch.EstimatedTimeOfArrivalDispatchStrategy;
+import main.elevator.dispatch.NearestCarDispatchStrategy;
+import main.simulation.SimulationClock;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+    @Param({"5", "50", "500"})
+    int floorCount;
+
+    @Param({"1", "4", "16"})
+    int carCount;
+
+    private final DispatchStrategy nearestCar = new NearestCarDispatchStrategy();
+    private final DispatchStrategy estimatedTimeOfArrival = new EstimatedTimeOfArrivalDispatchStrategy();
+    private final HallCallAssignments hallCallAssignments = new HallCallAssignments();
+    private List<Elevator> elevators;
+    private int hallCallFloorNumber;
+    private Direction hallCallDirection;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkSupport.SEED);
+        Building building = new Building(floorCount);
+        elevators = ElevatorGroupControlSystem.create(building, carCount, 6, nearestCar, SimulationClock.SYSTEM,
+                BenchmarkSupport.silentLogger()).getElevators();
+        for (Elevator elevator : elevators) {
+            BenchmarkSupport.pressCarCalls(elevator, 3, floorCount, random);
+            hallCallAssignments.assign(1 + random.nextInt(floorCount), randomDirection(random), elevator);
+        }
+        hallCallFloorNumber = 1 + random.nextInt(floorCount);
+        hallCallDirection = randomDirection(random);
+    }
+
+    private static Direction randomDirection(Random random) {
+        return random.nextBoolean() ? Direction.UP : Direction.DOWN;
+    }
+
+    @Benchmark
+    public Elevator nearestCar() {
+        return nearestCar.selectElevator(hallCallFloorNumber, hallCallDirection, elevators, hallCallAssignments);
+    }
+
+    @Benchmark
+    public Elevator estimatedTimeOfArrival() {
+        return estimatedTimeOfArrival.selectElevator(hallCallFloorNumber, hallCallDirection, elevators, hallCallAssignments);
+    }
+}
@@ -0,0 +1,88 @@
+package benchmark;
+
+import main.building.Building;
+import main.building.Floor;
+import main.customLogger.CustomLogger;
+import main.elevator.CarOccupancy;
+import main.elevator.Elevator;
+import main.elevator.PassengerManager;
+import main.passenger.Passenger;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Each invocation changes the car and the floor queue, so they are restored before every call. The restore is not
+// part of the measurement, but invocation-level setup makes the numbers for the smallest cases less precise. It puts
+// the same passengers back instead of new ones, so the allocation the GC profiler reports is the stop's own, plus a
+// queue node for every passenger put back in the floor queue.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PassengerManagerBenchmark {
+
+    private static final int ELEVATOR_CAPACITY = 20;
+
+    @Param({"5", "50", "500"})
+    int floorCount;
+
+    @Param({"10", "100", "1000"})
+    int queueDepth;
+
+    private final Random random = new Random(BenchmarkSupport.SEED);
+    private PassengerManager passengerManager;
+    private Elevator elevator;
+    private Floor floor;
+    private Passenger[] riders;
+    // Cycled through, and long enough that a passenger put back in the queue has always left it before
+    private Passenger[] waitingPassengers;
+    private int nextWaitingPassenger = 0;
+
+    @Setup
+    public void setUp() {
+        CustomLogger logger = BenchmarkSupport.silentLogger();
+        Building building = new Building(floorCount);
+        passengerManager = new PassengerManager(logger);
+        elevator = new Elevator(ELEVATOR_CAPACITY, building, 1, passengerManager, logger);
+        floor = building.getFloorByNumber(1);
+        // Half of the riders get off at the current floor
+        riders = new Passenger[ELEVATOR_CAPACITY];
+        for (int i = 0; i < riders.length; i++) {
+            riders[i] = new Passenger(floorCount, i % 2 == 0 ? 1 : randomUpperFloor(), 0);
+        }
+        waitingPassengers = new Passenger[queueDepth + ELEVATOR_CAPACITY];
+        for (int i = 0; i < waitingPassengers.length; i++) {
+            waitingPassengers[i] = new Passenger(1, randomUpperFloor(), 0);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void refill() {
+        CarOccupancy occupancy = elevator.getOccupancy();
+        occupancy.clear();
+        for (Passenger rider : riders) {
+            occupancy.add(rider);
+        }
+        while (floor.getWaitingPassengerCount() < queueDepth) {
+            floor.addWaitingPassenger(waitingPassengers[nextWaitingPassenger]);
+            nextWaitingPassenger = (nextWaitingPassenger + 1) % waitingPassengers.length;
+        }
+    }
+
+    private int randomUpperFloor() {
+        return 2 + random.nextInt(floorCount - 1);
+    }
+
+    @Benchmark
+    public int unloadAndLoadPassengers() {
+        return passengerManager.unloadPassengers(floor, elevator.getOccupancy()) + passengerManager.loadPassengers(floor, elevator);
+    }
+
+    @Benchmark
+    public int unloadPassengers() {
+        return passengerManager.unloadPassengers(floor, elevator.getOccupancy());
+    }
+}
@@ -0,0 +1,114 @@
+package benchmark;
+
+import main.Direction;
+import main.batch.BatchRunner;
+import main.batch.Scenario;
+import main.batch.ScenarioResult;
+import main.building.Building;
+import main.elevator.DoorTiming;
+import main.elevator.Elevator;
+import main.elevator.Kinematics;
+import main.elevator.RoutingStrategies;
+import main.elevator.RoutingStrategy;
+import main.elevator.Zonings;
+import main.elevator.dispatch.DispatchStrategies;
+import main.elevator.parking.ParkingPolicies;
+import main.passenger.Passenger;
+import main.passenger.traffic.TrafficProfiles;
+import main.simulation.SimulationClock;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// decide is one routing decision for an elevator in the middle of the building, with a hall call on one floor in ten
+// and a few passengers queued behind each. waitTime simulates an hour of a bank with one elevator per ten floors and
+// two arrivals per floor and minute, once for each traffic profile, and reports the mean and 99th percentile wait in
+// simulated milliseconds as meanWaitMillis and p99WaitMillis, averaged over the profiles.
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+
+    private static final int PASSENGERS_PER_CALL = 3;
+    private static final List<String> TRAFFICS = List.of(TrafficProfiles.RESIDENTIAL, TrafficProfiles.OFFICE,
+            TrafficProfiles.UP_PEAK, TrafficProfiles.DOWN_PEAK);
+
+    @Param({"20", "100"})
+    int floorCount;
+
+    @Param({RoutingStrategies.SCAN, RoutingStrategies.LOOK_AHEAD})
+    String routing;
+
+    private Building building;
+    private Elevator elevator;
+    private RoutingStrategy routingStrategy;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class WaitTimes {
+        public double meanWaitMillis;
+        public double p99WaitMillis;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            meanWaitMillis = 0;
+            p99WaitMillis = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkSupport.SEED);
+        building = new Building(floorCount);
+        elevator = new Elevator(6, building, floorCount / 2 + 1, BenchmarkSupport.silentLogger());
+        BenchmarkSupport.pressHallCalls(building, random);
+        BenchmarkSupport.pressCarCalls(elevator, 3, floorCount, random);
+        queuePassengers(random);
+        routingStrategy = RoutingStrategies.byName(routing, building, SimulationClock.SYSTEM);
+    }
+
+    // Queued without pressing anything more, so the calls stay as BenchmarkSupport pressed them
+    private void queuePassengers(Random random) {
+        long now = System.currentTimeMillis();
+        building.getFloors().forEach(floor -> floor.getButtons().forEach(button -> {
+            if (!button.isPressed()) {
+                return;
+            }
+            int destination = button.getDirection() == Direction.UP ? floorCount : 1;
+            for (int i = 0; i < PASSENGERS_PER_CALL; i++) {
+                floor.addWaitingPassenger(new Passenger(floor.floorNumber, destination, now - random.nextInt(60_000)));
+            }
+        }));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int decide() {
+        return routingStrategy.selectDestination(elevator, elevator.getCarCalls(), building.getHallCalls());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 1)
+    public long waitTime(WaitTimes waitTimes) {
+        BatchRunner batchRunner = new BatchRunner(1);
+        long delivered = 0;
+        for (String traffic : TRAFFICS) {
+            ScenarioResult result = batchRunner.run(new Scenario(floorCount, floorCount / 10, 6, DoorTiming.STANDARD.minimumDwellMillis(),
+                    Kinematics.STANDARD_FLOOR_HEIGHT_METERS, Kinematics.STANDARD_MAX_SPEED, Kinematics.STANDARD_ACCELERATION,
+                    Kinematics.STANDARD_JERK, DispatchStrategies.ESTIMATED_TIME_OF_ARRIVAL,
+                    routing, Zonings.NONE, ParkingPolicies.NONE, traffic, 2 * floorCount,
+                    BenchmarkSupport.SEED, TimeUnit.HOURS.toMillis(1)));
+            waitTimes.meanWaitMillis += result.averageWaitTimeMillis() / TRAFFICS.size();
+            waitTimes.p99WaitMillis += (double) result.p99WaitTimeMillis() / TRAFFICS.size();
+            delivered += result.deliveredPassengers();
+        }
+        return delivered;
+    }
+}
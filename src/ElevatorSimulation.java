@@ -1,43 +1,309 @@
 import main.Stoppable;
+import main.batch.BatchRunner;
+import main.batch.CampusResult;
+import main.batch.CampusRunner;
+import main.batch.Optimiser;
+import main.batch.Scenario;
+import main.batch.ScenarioMatrix;
+import main.batch.ScenarioResult;
 import main.customLogger.CustomLogger;
 import main.building.Building;
-import main.elevator.Elevator;
-import main.elevator.ElevatorControlSystem;
+import main.elevator.DoorTiming;
+import main.elevator.ElevatorGroupControlSystem;
+import main.elevator.Kinematics;
+import main.elevator.RoutingStrategies;
+import main.elevator.dispatch.DispatchStrategies;
+import main.elevator.parking.ParkingPolicies;
+import main.metrics.MetricsRegistry;
+import main.metrics.PrometheusEndpoint;
+import main.metrics.SimulationMetrics;
+import main.passenger.AgentPassengerGenerator;
+import main.passenger.ArrivalHistogram;
 import main.passenger.PassengerGenerator;
+import main.passenger.TripStatistics;
+import main.passenger.trace.ReplayTraffic;
+import main.passenger.trace.TraceReader;
+import main.passenger.trace.TraceWriter;
+import main.passenger.traffic.TrafficModel;
+import main.passenger.traffic.TrafficProfiles;
+import main.simulation.DiscreteEventSimulation;
+import main.simulation.SimulationClock;
+import main.simulation.VirtualClock;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 public class ElevatorSimulation {
 
-    private static final int NUMBER_OF_FLOORS = 5;
-    private static final int ELEVATOR_CAPACITY = 6;
+    // The building outside batch mode, set with -Dfloors=, -Delevators=, -Dcapacity=, -DdoorDwell=<milliseconds>, and the
+    // motion of the cars with -DfloorHeight=<metres>, -DmaxSpeed=<m/s>, -Dacceleration=<m/s²> and -Djerk=<m/s³>
+    private static final int NUMBER_OF_FLOORS = Integer.getInteger("floors", 5);
+    private static final int NUMBER_OF_ELEVATORS = Integer.getInteger("elevators", 1);
+    private static final int ELEVATOR_CAPACITY = Integer.getInteger("capacity", 6);
+    private static final long DOOR_DWELL_MILLIS = Long.getLong("doorDwell", DoorTiming.STANDARD.minimumDwellMillis());
+    private static final double FLOOR_HEIGHT_METERS = getDouble("floorHeight", Kinematics.STANDARD_FLOOR_HEIGHT_METERS);
+    private static final double MAX_SPEED = getDouble("maxSpeed", Kinematics.STANDARD_MAX_SPEED);
+    private static final double ACCELERATION = getDouble("acceleration", Kinematics.STANDARD_ACCELERATION);
+    private static final double JERK = getDouble("jerk", Kinematics.STANDARD_JERK);
+    private static final String DISCRETE_EVENT_MODE = "--discrete-event";
+    private static final String BATCH_MODE = "--batch";
+    private static final String CAMPUS_MODE = "--campus";
+    private static final String OPTIMISE_MODE = "--optimise";
+    private static final String AGENT_MODE = "--agents";
+    private static final String METRICS_PORT_PROPERTY = "metrics.port";
+    private static final String DISPATCH_PROPERTY = "dispatch";
+    private static final String ROUTING_PROPERTY = "routing";
+    private static final String PARKING_PROPERTY = "parking";
+    private static final String TRAFFIC_PROPERTY = "traffic";
+    private static final String ARRIVAL_RATE_PROPERTY = "arrivalRate";
+    private static final String TRACE_RECORD_PROPERTY = "trace.record";
+    private static final String TRACE_REPLAY_PROPERTY = "trace.replay";
+    private static final String SNAPSHOT_RESTORE_PROPERTY = "snapshot.restore";
+    private static final String SNAPSHOT_SAVE_PROPERTY = "snapshot.save";
+    private static final double DEFAULT_ARRIVALS_PER_MINUTE = (double) TimeUnit.MINUTES.toMillis(1) / PassengerGenerator.GENERATION_INTERVAL;
+    private static final long DEFAULT_SIMULATED_DURATION = TimeUnit.HOURS.toMillis(1);
     private static final CustomLogger logger = new CustomLogger();
 
-    public static void main(String[] args) throws InterruptedException {
+    // Usage: ElevatorSimulation [--agents]
+    //        ElevatorSimulation --discrete-event [seed] [simulated duration in seconds]
+    //        ElevatorSimulation --batch [floors=5,10] [elevators=2,4] [capacity=6] [doorDwell=1000,2000] [dispatch=eta,destination] [routing=scan,lookAhead] [zoning=none,zoned,skyLobby] [parking=none,lobby,demand] [traffic=residential,officeDay] [arrivalRate=60,300] [seeds=1..100] [duration=3600]
+    //        ElevatorSimulation --campus [same parameters as --batch, every combination is one building of the campus]
+    //        ElevatorSimulation --optimise [objective=p95Wait] [samples=27] [reduction=3] [searchSeed=1] [top=10] [same parameters as --batch but seeds, the values to pick from]
+    public static void main(String[] args) throws InterruptedException, IOException {
+        if (args.length > 0 && args[0].equals(BATCH_MODE)) {
+            runBatch(ScenarioMatrix.parse(Arrays.asList(args).subList(1, args.length)));
+        } else if (args.length > 0 && args[0].equals(CAMPUS_MODE)) {
+            runCampus(ScenarioMatrix.parse(Arrays.asList(args).subList(1, args.length)));
+        } else if (args.length > 0 && args[0].equals(OPTIMISE_MODE)) {
+            runOptimiser(Optimiser.parse(Arrays.asList(args).subList(1, args.length)));
+        } else if (args.length > 0 && args[0].equals(DISCRETE_EVENT_MODE)) {
+            long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+            long duration = args.length > 2 ? TimeUnit.SECONDS.toMillis(Long.parseLong(args[2])) : DEFAULT_SIMULATED_DURATION;
+            runDiscreteEvent(seed, duration);
+        } else {
+            runRealTime(args.length > 0 && args[0].equals(AGENT_MODE));
+            // The statistics are logged once more on the way out, the logger is closed after them
+            logger.flush();
+            return;
+        }
+        // Messages are written by a background thread, let it finish before the JVM exits
+        logger.close();
+    }
+
+    // The group dispatches with the strategy picked with -Ddispatch=<one of DispatchStrategies.NAMES>, and every elevator
+    // routes with the one picked with -Drouting=<one of RoutingStrategies.NAMES> outside batch mode
+    private static ElevatorGroupControlSystem createGroupControlSystem(Building building, SimulationClock clock) {
+        String dispatch = System.getProperty(DISPATCH_PROPERTY, DispatchStrategies.ESTIMATED_TIME_OF_ARRIVAL);
+        String routing = System.getProperty(ROUTING_PROPERTY, RoutingStrategies.SCAN);
+        return ElevatorGroupControlSystem.create(building, NUMBER_OF_ELEVATORS, ELEVATOR_CAPACITY,
+                DispatchStrategies.byName(dispatch), () -> RoutingStrategies.byName(routing, building, clock),
+                createKinematics(building), clock, logger);
+    }
+
+    private static Kinematics createKinematics(Building building) {
+        return Kinematics.uniform(building.getFloorCount(), FLOOR_HEIGHT_METERS, MAX_SPEED, ACCELERATION, JERK,
+                DoorTiming.STANDARD.withMinimumDwell(DOOR_DWELL_MILLIS));
+    }
+
+    // Like Long.getLong(), which has no counterpart for doubles
+    private static double getDouble(String property, double defaultValue) {
+        String value = System.getProperty(property);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
 
+    // Idle elevators park as the policy picked with -Dparking=<one of ParkingPolicies.NAMES> decides outside batch mode,
+    // from the arrivals of the passenger generator
+    private static void startParking(ElevatorGroupControlSystem groupControlSystem, PassengerGenerator passengerGenerator,
+                                     SimulationClock clock) {
+        String parking = System.getProperty(PARKING_PROPERTY, ParkingPolicies.NONE);
+        ArrivalHistogram arrivalHistogram = new ArrivalHistogram(groupControlSystem.getBuilding().getFloorCount());
+        passengerGenerator.recordArrivals(arrivalHistogram);
+        groupControlSystem.setParkingPolicy(ParkingPolicies.byName(parking, groupControlSystem.getBuilding(), arrivalHistogram, clock));
+    }
+
+    // Picked with -Dtraffic=<one of TrafficProfiles.NAMES> and -DarrivalRate=<passengers per minute> outside batch mode,
+    // or replayed from the trace file given with -Dtrace.replay=<path>
+    private static TrafficModel createTrafficModel(Building building) throws IOException {
+        String tracePath = System.getProperty(TRACE_REPLAY_PROPERTY);
+        if (tracePath != null) {
+            logger.logMain("Replaying passenger trace %s", tracePath);
+            return new ReplayTraffic(new TraceReader(Path.of(tracePath)), building.getFloorCount());
+        }
+        String traffic = System.getProperty(TRAFFIC_PROPERTY, TrafficProfiles.RESIDENTIAL);
+        String arrivalsPerMinute = System.getProperty(ARRIVAL_RATE_PROPERTY);
+        return TrafficProfiles.byName(traffic, building.getFloorCount(),
+                arrivalsPerMinute != null ? Double.parseDouble(arrivalsPerMinute) : DEFAULT_ARRIVALS_PER_MINUTE);
+    }
+
+    // Only when the trace.record system property is set
+    private static TraceWriter startTraceRecording(Building building, PassengerGenerator passengerGenerator) throws IOException {
+        String tracePath = System.getProperty(TRACE_RECORD_PROPERTY);
+        if (tracePath == null) {
+            return null;
+        }
+        TraceWriter traceWriter = new TraceWriter(Path.of(tracePath), building.getFloorCount());
+        passengerGenerator.recordTrace(traceWriter);
+        logger.logMain("Recording passenger trace to %s", tracePath);
+        return traceWriter;
+    }
+
+    // The trace replayed, if any, and the one recorded
+    private static void closeTraces(TrafficModel trafficModel, TraceWriter traceWriter) {
+        if (trafficModel instanceof ReplayTraffic replayTraffic) {
+            try {
+                replayTraffic.close();
+            } catch (IOException e) {
+                logger.logError(e);
+            }
+        }
+        if (traceWriter == null) {
+            return;
+        }
+        try {
+            traceWriter.close();
+            logger.logMain("Recorded %s passengers", traceWriter.getRecordCount());
+        } catch (IOException e) {
+            logger.logError(e);
+        }
+    }
+
+    private static void runDiscreteEvent(long seed, long durationMillis) throws IOException {
+        VirtualClock clock = new VirtualClock();
         Building building = new Building(NUMBER_OF_FLOORS);
-        Elevator elevator = new Elevator(ELEVATOR_CAPACITY, building, 3, logger);
+        ElevatorGroupControlSystem groupControlSystem = createGroupControlSystem(building, clock);
+        TrafficModel trafficModel = createTrafficModel(building);
+        PassengerGenerator passengerGenerator = new PassengerGenerator(building, logger, new SplittableRandom(seed), clock,
+                trafficModel);
+        startParking(groupControlSystem, passengerGenerator, clock);
+        TraceWriter traceWriter = startTraceRecording(building, passengerGenerator);
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(groupControlSystem, passengerGenerator, clock);
+        restoreSnapshot(simulation);
 
-        List<Stoppable> runnables = Arrays.asList(
-                elevator,
-                new ElevatorControlSystem(elevator, building, logger),
-                new PassengerGenerator(building, logger)
-        );
+        logger.logMain("Discrete-event simulation started, seed: %s", seed);
+        long startTime = System.nanoTime();
+        simulation.run(durationMillis);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        logger.logMain("Simulated %s ms in %s ms", simulation.getSimulatedTimeMillis(), elapsedMillis);
+        // After saving, which takes the position in a replayed trace
+        saveSnapshot(simulation);
+        closeTraces(trafficModel, traceWriter);
+        logReport(groupControlSystem.getTripStatistics());
+    }
+
+    // A run continued from the file given with -Dsnapshot.restore=<path> skips the warm-up from an empty building
+    private static void restoreSnapshot(DiscreteEventSimulation simulation) throws IOException {
+        String snapshotPath = System.getProperty(SNAPSHOT_RESTORE_PROPERTY);
+        if (snapshotPath == null) {
+            return;
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Path.of(snapshotPath)))) {
+            simulation.restoreSnapshot(in);
+        }
+        logger.logMain("Restored snapshot %s at %s ms", snapshotPath, simulation.getSimulatedTimeMillis());
+    }
+
+    // The state at the end of the run is saved to the file given with -Dsnapshot.save=<path>
+    private static void saveSnapshot(DiscreteEventSimulation simulation) throws IOException {
+        String snapshotPath = System.getProperty(SNAPSHOT_SAVE_PROPERTY);
+        if (snapshotPath == null) {
+            return;
+        }
+        try (OutputStream out = Files.newOutputStream(Path.of(snapshotPath))) {
+            simulation.writeSnapshot(out);
+        }
+        logger.logMain("Saved snapshot %s at %s ms", snapshotPath, simulation.getSimulatedTimeMillis());
+    }
+
+    // Summary rows go to standard output as CSV, progress messages to the log
+    private static void runBatch(ScenarioMatrix matrix) {
+        List<Scenario> scenarios = matrix.getScenarios();
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        logger.logMain("Running %s scenarios on %s threads", scenarios.size(), parallelism);
+
+        long startTime = System.nanoTime();
+        List<ScenarioResult> results = new BatchRunner(parallelism).runAll(scenarios);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        System.out.println(ScenarioResult.CSV_HEADER);
+        results.forEach(result -> System.out.println(result.toCsvRow()));
+        logger.logMain("Finished %s scenarios in %s ms", scenarios.size(), elapsedMillis);
+    }
+
+    // Like runBatch(), with the campus-wide statistics logged at the end
+    private static void runCampus(ScenarioMatrix matrix) {
+        List<Scenario> buildings = matrix.getScenarios();
+        int shardCount = Runtime.getRuntime().availableProcessors();
+        logger.logMain("Simulating a campus of %s buildings on %s shards", buildings.size(), shardCount);
+
+        long startTime = System.nanoTime();
+        CampusResult result = new CampusRunner(shardCount).run(buildings);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        System.out.println(ScenarioResult.CSV_HEADER);
+        result.buildingResults().forEach(buildingResult -> System.out.println(buildingResult.toCsvRow()));
+        logger.logMain("Campus: %s", result);
+        logger.logMain("Finished the campus in %s ms", elapsedMillis);
+    }
+
+    // The best configurations go to standard output as a table, ranked by the objective, progress messages to the log
+    private static void runOptimiser(Optimiser optimiser) {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        logger.logMain("Optimising on %s threads", parallelism);
+
+        long startTime = System.nanoTime();
+        List<Optimiser.Candidate> ranking = optimiser.run(new BatchRunner(parallelism));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        System.out.println(Optimiser.Candidate.TABLE_HEADER);
+        for (int i = 0; i < Math.min(optimiser.getTop(), ranking.size()); i++) {
+            System.out.println(ranking.get(i).toTableRow(i + 1));
+        }
+        logger.logMain("Ranked %s configurations in %s ms", ranking.size(), elapsedMillis);
+    }
+
+    // In agent mode every passenger runs on its own virtual thread instead of being moved around by the elevators only
+    private static void runRealTime(boolean agentMode) throws InterruptedException, IOException {
+        Building building = new Building(NUMBER_OF_FLOORS);
+        ElevatorGroupControlSystem groupControlSystem = createGroupControlSystem(building, SimulationClock.SYSTEM);
+        SplittableRandom random = new SplittableRandom();
+        TrafficModel trafficModel = createTrafficModel(building);
+        PassengerGenerator passengerGenerator = agentMode
+                ? new AgentPassengerGenerator(building, logger, random, SimulationClock.SYSTEM, trafficModel)
+                : new PassengerGenerator(building, logger, random, SimulationClock.SYSTEM, trafficModel);
+        startParking(groupControlSystem, passengerGenerator, SimulationClock.SYSTEM);
+        PrometheusEndpoint metricsEndpoint = startMetricsEndpoint(building, groupControlSystem, passengerGenerator);
+        TraceWriter traceWriter = startTraceRecording(building, passengerGenerator);
+        // Real-time runs usually end by being interrupted, the traces are closed on the way out
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> closeTraces(trafficModel, traceWriter)));
+
+        List<Stoppable> runnables = new ArrayList<>(groupControlSystem.getElevators());
+        runnables.add(groupControlSystem);
+        runnables.add(passengerGenerator);
 
         List<Thread> threads = runnables.stream()
                 .map(runnable -> {
                     Thread t = new Thread(runnable);
-                    logger.logMain(String.format("%s: %s", t.getName(), runnable.getClass().getSimpleName()));
+                    logger.logMain("%s: %s", t.getName(), runnable.getClass().getSimpleName());
                     return t;
                 }).toList();
 
         threads.forEach(Thread::start);
 
         logger.logMain("All threads started");
+        startReportOnDemand(groupControlSystem.getTripStatistics());
 
         //noinspection resource
         ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
@@ -53,6 +319,52 @@ public class ElevatorSimulation {
         for (Thread thread : threads) {
             thread.join();
         }
+        if (metricsEndpoint != null) {
+            metricsEndpoint.close();
+        }
+        closeTraces(trafficModel, traceWriter);
         logger.logMain("All threads stopped");
     }
+
+    // Only started when the metrics.port system property is set
+    private static PrometheusEndpoint startMetricsEndpoint(Building building, ElevatorGroupControlSystem groupControlSystem,
+                                                           PassengerGenerator passengerGenerator) {
+        Integer port = Integer.getInteger(METRICS_PORT_PROPERTY);
+        if (port == null) {
+            return null;
+        }
+        MetricsRegistry registry = new MetricsRegistry();
+        SimulationMetrics.register(registry, building, groupControlSystem, passengerGenerator);
+        try {
+            PrometheusEndpoint endpoint = new PrometheusEndpoint(registry, port);
+            logger.logMain("Serving metrics at http://localhost:%s/metrics", endpoint.getPort());
+            return endpoint;
+        } catch (IOException e) {
+            logger.logError(e);
+            return null;
+        }
+    }
+
+    // Pressing Enter prints the statistics collected so far, and they're printed one last time when the process exits
+    private static void startReportOnDemand(TripStatistics tripStatistics) {
+        Thread reader = new Thread(() -> {
+            try (BufferedReader input = new BufferedReader(new InputStreamReader(System.in))) {
+                while (input.readLine() != null) {
+                    logReport(tripStatistics);
+                }
+            } catch (IOException e) {
+                logger.logError(e);
+            }
+        }, "ReportOnDemand");
+        reader.setDaemon(true);
+        reader.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            logReport(tripStatistics);
+            logger.close();
+        }));
+    }
+
+    private static void logReport(TripStatistics tripStatistics) {
+        tripStatistics.getReport().lines().forEach(logger::logMain);
+    }
 }
@@ -0,0 +1,76 @@
+package main.batch;
+
+import main.customLogger.CustomLogger;
+import main.customLogger.LogLevel;
+import main.elevator.ElevatorGroupControlSystem;
+import main.elevator.RoutingStrategies;
+import main.elevator.ZonedTower;
+import main.elevator.Zonings;
+import main.elevator.dispatch.DispatchStrategies;
+import main.elevator.parking.ParkingPolicies;
+import main.passenger.ArrivalHistogram;
+import main.passenger.PassengerGenerator;
+import main.simulation.DiscreteEventSimulation;
+import main.simulation.VirtualClock;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Runs scenarios as discrete-event simulations on a work-stealing pool, one scenario per task. Every run builds its
+// own building, elevators, clock and random generator and shares nothing mutable with other runs, so its result only
+// depends on the scenario and the results come back in scenario order however the runs were scheduled.
+public class BatchRunner {
+
+    // Shared by every runner. Logging is disabled, which makes it read-only and keeps it from starting a writer thread.
+    private static final CustomLogger logger = new CustomLogger();
+
+    static {
+        logger.setLevel(LogLevel.OFF);
+    }
+
+    private final int parallelism;
+
+    public BatchRunner(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public List<ScenarioResult> runAll(List<Scenario> scenarios) {
+        try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+            List<ForkJoinTask<ScenarioResult>> tasks = scenarios.stream()
+                    .map(scenario -> ForkJoinTask.adapt(() -> run(scenario)))
+                    .toList();
+            tasks.forEach(pool::execute);
+            return tasks.stream().map(ForkJoinTask::join).toList();
+        }
+    }
+
+    public ScenarioResult run(Scenario scenario) {
+        ZonedTower tower = simulate(scenario);
+        return ScenarioResult.of(scenario, tower, tower.getTripStatistics());
+    }
+
+    // Runs the scenario on the calling thread and returns the building as the simulation left it. Without zoning the
+    // tower is a single bank serving every floor. The parking policy of every bank foresees demand from the arrivals of
+    // the whole tower.
+    ZonedTower simulate(Scenario scenario) {
+        VirtualClock clock = new VirtualClock();
+        ZonedTower tower = new ZonedTower(scenario.numberOfFloors(),
+                Zonings.byName(scenario.zoning(), scenario.numberOfFloors(), scenario.numberOfElevators()),
+                scenario.elevatorCapacity(), () -> DispatchStrategies.byName(scenario.dispatch()),
+                building -> RoutingStrategies.byName(scenario.routing(), building, clock),
+                scenario.createKinematics(), clock, logger);
+        PassengerGenerator passengerGenerator = tower.createPassengerGenerator(logger, new SplittableRandom(scenario.seed()),
+                clock, scenario.createTrafficModel());
+        ArrivalHistogram arrivalHistogram = new ArrivalHistogram(scenario.numberOfFloors());
+        passengerGenerator.recordArrivals(arrivalHistogram);
+        for (ElevatorGroupControlSystem groupControlSystem : tower.getGroupControlSystems()) {
+            groupControlSystem.setParkingPolicy(ParkingPolicies.byName(scenario.parking(), groupControlSystem.getBuilding(),
+                    arrivalHistogram, clock));
+        }
+
+        new DiscreteEventSimulation(tower.getGroupControlSystems(), passengerGenerator, clock).run(scenario.durationMillis());
+        return tower;
+    }
+}
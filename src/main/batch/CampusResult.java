@@ -0,0 +1,19 @@
+package main.batch;
+
+import main.passenger.TripStatistics;
+
+import java.util.List;
+
+// Results of every building of a campus in the order they were given, and the statistics of all their passengers
+public record CampusResult(List<ScenarioResult> buildingResults, TripStatistics campusStatistics, int shardCount) {
+
+    public long getDeliveredPassengers() {
+        return campusStatistics.getDeliveredPassengers();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s buildings on %s shards. %s, wait p95 %s ms, p99 %s ms", buildingResults.size(), shardCount,
+                campusStatistics, campusStatistics.getWaitTimeMillisAtPercentile(95), campusStatistics.getWaitTimeMillisAtPercentile(99));
+    }
+}
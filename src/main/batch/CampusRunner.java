@@ -0,0 +1,92 @@
+package main.batch;
+
+import main.elevator.ZonedTower;
+import main.passenger.TripStatistics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Simulates a campus of independent buildings, each one a scenario, on a fixed number of shards with one thread each.
+// Every building is owned by a single shard and simulated on its thread from start to end, so nothing is shared
+// between shards while they run. Each shard adds the statistics of its buildings into its own accumulator, and the
+// campus-wide statistics are merged from those once every shard has finished.
+public class CampusRunner {
+
+    private final BatchRunner batchRunner;
+    private final int shardCount;
+
+    public CampusRunner(int shardCount) {
+        this.batchRunner = new BatchRunner(1);
+        this.shardCount = shardCount;
+    }
+
+    public CampusResult run(List<Scenario> buildings) {
+        List<List<Integer>> shards = partition(buildings);
+        ScenarioResult[] buildingResults = new ScenarioResult[buildings.size()];
+        List<Future<TripStatistics>> shardStatistics = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(shards.size())) {
+            for (List<Integer> shard : shards) {
+                shardStatistics.add(executor.submit(() -> runShard(buildings, shard, buildingResults)));
+            }
+            TripStatistics campusStatistics = new TripStatistics();
+            for (Future<TripStatistics> statistics : shardStatistics) {
+                campusStatistics.add(statistics.get());
+            }
+            return new CampusResult(List.of(buildingResults), campusStatistics, shards.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while simulating the campus", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulating a building failed", e.getCause());
+        }
+    }
+
+    // Each shard writes only the results of its own buildings, which the futures publish to the caller
+    private TripStatistics runShard(List<Scenario> buildings, List<Integer> shard, ScenarioResult[] buildingResults) {
+        TripStatistics shardStatistics = new TripStatistics();
+        for (int building : shard) {
+            Scenario scenario = buildings.get(building);
+            ZonedTower tower = batchRunner.simulate(scenario);
+            TripStatistics buildingStatistics = tower.getTripStatistics();
+            buildingResults[building] = ScenarioResult.of(scenario, tower, buildingStatistics);
+            shardStatistics.add(buildingStatistics);
+        }
+        return shardStatistics;
+    }
+
+    // Longest processing time first: the buildings expected to take longest go first, each to the shard with the least
+    // work so far. The work of a building is estimated by the passengers it generates and the floors they cross.
+    private List<List<Integer>> partition(List<Scenario> buildings) {
+        int shards = Math.max(1, Math.min(shardCount, buildings.size()));
+        List<List<Integer>> buildingsByShard = new ArrayList<>();
+        double[] workByShard = new double[shards];
+        for (int i = 0; i < shards; i++) {
+            buildingsByShard.add(new ArrayList<>());
+        }
+        List<Integer> byWork = new ArrayList<>();
+        for (int i = 0; i < buildings.size(); i++) {
+            byWork.add(i);
+        }
+        byWork.sort(Comparator.comparingDouble((Integer building) -> estimateWork(buildings.get(building))).reversed());
+        for (int building : byWork) {
+            int leastLoaded = 0;
+            for (int i = 1; i < shards; i++) {
+                if (workByShard[i] < workByShard[leastLoaded]) {
+                    leastLoaded = i;
+                }
+            }
+            buildingsByShard.get(leastLoaded).add(building);
+            workByShard[leastLoaded] += estimateWork(buildings.get(building));
+        }
+        return buildingsByShard;
+    }
+
+    private static double estimateWork(Scenario scenario) {
+        return scenario.arrivalsPerMinute() * scenario.durationMillis() * scenario.numberOfFloors();
+    }
+}
@@ -0,0 +1,7 @@
+package main.batch;
+
+// What the optimiser minimises, scored per run and averaged over the runs of a configuration
+@FunctionalInterface
+public interface Objective {
+    double score(ScenarioResult result);
+}
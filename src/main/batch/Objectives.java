@@ -0,0 +1,27 @@
+package main.batch;
+
+import java.util.List;
+
+// Objectives by name, all of them lower is better
+public class Objectives {
+    public static final String MEAN_WAIT = "meanWait";
+    public static final String P95_WAIT = "p95Wait";
+    public static final String MEAN_JOURNEY = "meanJourney";
+    public static final String P95_PEAK_START_WAIT = "p95PeakStartWait";
+    public static final String ENERGY = "energy";
+    public static final List<String> NAMES = List.of(MEAN_WAIT, P95_WAIT, MEAN_JOURNEY, P95_PEAK_START_WAIT, ENERGY);
+
+    private Objectives() {
+    }
+
+    public static Objective byName(String name) {
+        return switch (name) {
+            case MEAN_WAIT -> ScenarioResult::averageWaitTimeMillis;
+            case P95_WAIT -> ScenarioResult::p95WaitTimeMillis;
+            case MEAN_JOURNEY -> ScenarioResult::averageJourneyTimeMillis;
+            case P95_PEAK_START_WAIT -> ScenarioResult::p95PeakStartWaitTimeMillis;
+            case ENERGY -> ScenarioResult::energyPerPassengerKilojoules;
+            default -> throw new IllegalArgumentException("Unknown objective: " + name + ", expected one of " + NAMES);
+        };
+    }
+}
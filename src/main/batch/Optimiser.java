@@ -0,0 +1,137 @@
+package main.batch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+// Tunes a building for a traffic profile by random search with successive halving. The candidates are a random sample
+// of every combination of the given parameter values, as for a batch, where the building and traffic usually get a
+// single value and the settings to tune several. Every candidate is run on one seed, the best third of them on three
+// seeds, the best third of those on nine, and so on until one is left, so most runs go to the candidates worth telling
+// apart. Each round of runs goes to the batch runner at once and so is spread over every core. Arguments are those of
+// ScenarioMatrix, except the seeds picked here, and:
+// objective=p95Wait samples=27 reduction=3 searchSeed=1 top=10
+public class Optimiser {
+
+    // A configuration with its runs so far, scored by the mean objective over them
+    public record Candidate(Scenario configuration, List<ScenarioResult> results, double score) {
+
+        public static final String TABLE_HEADER = String.format(Locale.ROOT,
+                "%4s %9s %8s %13s %13s %17s %9s %11s %9s %8s %7s %5s %10s %12s %11s %10s",
+                "rank", "elevators", "capacity", "door_dwell_ms", "max_speed_mps", "acceleration_mps2", "jerk_mps3",
+                "dispatch", "routing", "zoning", "parking", "seeds", "score", "mean_wait_ms", "p95_wait_ms", "energy_kj");
+
+        public String toTableRow(int rank) {
+            return String.format(Locale.ROOT,
+                    "%4d %9d %8d %13d %13.2f %17.2f %9.2f %11s %9s %8s %7s %5d %10.1f %12.1f %11.1f %10.1f",
+                    rank, configuration.numberOfElevators(), configuration.elevatorCapacity(), configuration.doorDwellMillis(),
+                    configuration.maxSpeed(), configuration.acceleration(), configuration.jerk(),
+                    configuration.dispatch(), configuration.routing(), configuration.zoning(), configuration.parking(),
+                    results.size(), score, mean(ScenarioResult::averageWaitTimeMillis), mean(ScenarioResult::p95WaitTimeMillis),
+                    mean(ScenarioResult::energyPerPassengerKilojoules));
+        }
+
+        private double mean(Objective metric) {
+            return results.stream().mapToDouble(metric::score).average().orElse(0);
+        }
+    }
+
+    private final ScenarioMatrix searchSpace;
+    private Objective objective = Objectives.byName(Objectives.P95_WAIT);
+    private int samples = 27;
+    private int reductionFactor = 3;
+    private long searchSeed = 1;
+    private int top = 10;
+
+    private Optimiser(ScenarioMatrix searchSpace) {
+        this.searchSpace = searchSpace;
+    }
+
+    public static Optimiser parse(List<String> arguments) {
+        List<String> scenarioArguments = new ArrayList<>();
+        List<String[]> optimiserArguments = new ArrayList<>();
+        for (String argument : arguments) {
+            String[] keyAndValue = argument.split("=", 2);
+            switch (keyAndValue[0]) {
+                case "objective", "samples", "reduction", "searchSeed", "top" -> optimiserArguments.add(keyAndValue);
+                case "seeds" -> throw new IllegalArgumentException("Seeds are picked by the optimiser, got: " + argument);
+                default -> scenarioArguments.add(argument);
+            }
+        }
+        Optimiser optimiser = new Optimiser(ScenarioMatrix.parse(scenarioArguments));
+        for (String[] keyAndValue : optimiserArguments) {
+            if (keyAndValue.length != 2) {
+                throw new IllegalArgumentException("Expected <parameter>=<value>, got: " + keyAndValue[0]);
+            }
+            String value = keyAndValue[1];
+            switch (keyAndValue[0]) {
+                case "objective" -> optimiser.objective = Objectives.byName(value);
+                case "samples" -> optimiser.samples = Integer.parseInt(value);
+                case "reduction" -> optimiser.reductionFactor = Integer.parseInt(value);
+                case "searchSeed" -> optimiser.searchSeed = Long.parseLong(value);
+                case "top" -> optimiser.top = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Unknown optimiser parameter: " + keyAndValue[0]);
+            }
+        }
+        if (optimiser.samples < 1 || optimiser.reductionFactor < 2) {
+            throw new IllegalArgumentException("Expected at least 1 sample and a reduction of at least 2, got: "
+                    + optimiser.samples + " and " + optimiser.reductionFactor);
+        }
+        if (optimiser.top < 1) {
+            throw new IllegalArgumentException("Expected to report at least 1 candidate, got top=" + optimiser.top);
+        }
+        return optimiser;
+    }
+
+    // Every candidate ranked, those that lasted longest first, and by score among those that dropped out together
+    public List<Candidate> run(BatchRunner batchRunner) {
+        List<Scenario> configurations = new ArrayList<>(searchSpace.getScenarios());
+        Collections.shuffle(configurations, new SplittableRandom(searchSeed));
+        List<Candidate> candidates = configurations.subList(0, Math.min(samples, configurations.size())).stream()
+                .map(configuration -> new Candidate(configuration, List.of(), 0))
+                .toList();
+        List<Candidate> ranking = new ArrayList<>();
+        int seeds = 1;
+        while (true) {
+            candidates = runOnSeeds(batchRunner, candidates, seeds);
+            int survivorCount = candidates.size() == 1 ? 0 : (candidates.size() + reductionFactor - 1) / reductionFactor;
+            // Those dropping out now rank above every earlier one
+            ranking.addAll(0, candidates.subList(survivorCount, candidates.size()));
+            if (survivorCount == 0) {
+                return ranking;
+            }
+            candidates = candidates.subList(0, survivorCount);
+            seeds *= reductionFactor;
+        }
+    }
+
+    // Runs every candidate on the seeds it has not been run on yet, up to the given number, and sorts them by score
+    private List<Candidate> runOnSeeds(BatchRunner batchRunner, List<Candidate> candidates, int seeds) {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            for (int seed = candidate.results().size() + 1; seed <= seeds; seed++) {
+                scenarios.add(candidate.configuration().withSeed(seed));
+            }
+        }
+        List<ScenarioResult> results = batchRunner.runAll(scenarios);
+        List<Candidate> scoredCandidates = new ArrayList<>();
+        int next = 0;
+        for (Candidate candidate : candidates) {
+            List<ScenarioResult> candidateResults = new ArrayList<>(candidate.results());
+            int newRuns = seeds - candidate.results().size();
+            candidateResults.addAll(results.subList(next, next + newRuns));
+            next += newRuns;
+            double score = candidateResults.stream().mapToDouble(objective::score).average().orElseThrow();
+            scoredCandidates.add(new Candidate(candidate.configuration(), List.copyOf(candidateResults), score));
+        }
+        scoredCandidates.sort(Comparator.comparingDouble(Candidate::score));
+        return scoredCandidates;
+    }
+
+    public int getTop() {
+        return top;
+    }
+}
@@ -0,0 +1,34 @@
+package main.batch;
+
+import main.elevator.DoorTiming;
+import main.elevator.Kinematics;
+import main.passenger.traffic.TrafficModel;
+import main.passenger.traffic.TrafficProfiles;
+
+// One headless simulation run. The door dwell is the least time the doors of a car stay open at a stop. Every car has
+// the same maximum speed, acceleration and jerk, in metres and seconds, between floors of the same height. Dispatch is
+// the name of one of the DispatchStrategies used by every group of elevators, routing the name of one of the
+// RoutingStrategies used by every elevator. Zoning is the name of one of the Zonings splitting the floors and elevators
+// into banks, parking the name of one of the ParkingPolicies deciding where idle cars wait. Traffic is the name of one
+// of the TrafficProfiles, arrival rate is the number of passengers generated per simulated minute, or at the peaks for
+// a profile with a varying rate.
+public record Scenario(int numberOfFloors, int numberOfElevators, int elevatorCapacity, long doorDwellMillis,
+                       double floorHeightMeters, double maxSpeed, double acceleration, double jerk, String dispatch,
+                       String routing, String zoning, String parking, String traffic, double arrivalsPerMinute, long seed,
+                       long durationMillis) {
+
+    public Kinematics createKinematics() {
+        return Kinematics.uniform(numberOfFloors, floorHeightMeters, maxSpeed, acceleration, jerk,
+                DoorTiming.STANDARD.withMinimumDwell(doorDwellMillis));
+    }
+
+    public TrafficModel createTrafficModel() {
+        return TrafficProfiles.byName(traffic, numberOfFloors, arrivalsPerMinute);
+    }
+
+    // The same building and traffic, with other passengers
+    public Scenario withSeed(long seed) {
+        return new Scenario(numberOfFloors, numberOfElevators, elevatorCapacity, doorDwellMillis, floorHeightMeters, maxSpeed,
+                acceleration, jerk, dispatch, routing, zoning, parking, traffic, arrivalsPerMinute, seed, durationMillis);
+    }
+}
@@ -0,0 +1,149 @@
+package main.batch;
+
+import main.elevator.DoorTiming;
+import main.elevator.Kinematics;
+import main.elevator.RoutingStrategies;
+import main.elevator.Zonings;
+import main.elevator.dispatch.DispatchStrategies;
+import main.elevator.parking.ParkingPolicies;
+import main.passenger.traffic.TrafficProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// Every combination of the given parameter values, parsed from arguments like:
+// floors=5,10,20 elevators=2,4 capacity=6 doorDwell=1000,2000 floorHeight=3.5 maxSpeed=1.6,2.5 acceleration=0.8,1.2 jerk=1.5 dispatch=eta,destination routing=scan,lookAhead zoning=none,zoned parking=none,demand traffic=residential,upPeak arrivalRate=30,60 seeds=1..100 duration=3600
+// Seeds accept an inclusive range, door dwell is in milliseconds, the floor height and car motion in metres and seconds,
+// and duration in simulated seconds. Parameters that are left out keep their default.
+public class ScenarioMatrix {
+
+    private List<Long> numbersOfFloors = List.of(5L);
+    private List<Long> numbersOfElevators = List.of(2L);
+    private List<Long> elevatorCapacities = List.of(6L);
+    private List<Long> doorDwellsInMillis = List.of(DoorTiming.STANDARD.minimumDwellMillis());
+    private List<Double> floorHeightsInMeters = List.of(Kinematics.STANDARD_FLOOR_HEIGHT_METERS);
+    private List<Double> maxSpeeds = List.of(Kinematics.STANDARD_MAX_SPEED);
+    private List<Double> accelerations = List.of(Kinematics.STANDARD_ACCELERATION);
+    private List<Double> jerks = List.of(Kinematics.STANDARD_JERK);
+    private List<String> dispatches = List.of(DispatchStrategies.ESTIMATED_TIME_OF_ARRIVAL);
+    private List<String> routings = List.of(RoutingStrategies.SCAN);
+    private List<String> zonings = List.of(Zonings.NONE);
+    private List<String> parkings = List.of(ParkingPolicies.NONE);
+    private List<String> traffics = List.of(TrafficProfiles.RESIDENTIAL);
+    private List<Double> arrivalRates = List.of(300.0);
+    private List<Long> seeds = List.of(1L);
+    private List<Long> durationsInSeconds = List.of(TimeUnit.HOURS.toSeconds(1));
+
+    public static ScenarioMatrix parse(List<String> arguments) {
+        ScenarioMatrix matrix = new ScenarioMatrix();
+        for (String argument : arguments) {
+            String[] keyAndValues = argument.split("=", 2);
+            if (keyAndValues.length != 2) {
+                throw new IllegalArgumentException("Expected <parameter>=<values>, got: " + argument);
+            }
+            String values = keyAndValues[1];
+            switch (keyAndValues[0]) {
+                case "floors" -> matrix.numbersOfFloors = parseLongs(values);
+                case "elevators" -> matrix.numbersOfElevators = parseLongs(values);
+                case "capacity" -> matrix.elevatorCapacities = parseLongs(values);
+                case "doorDwell" -> matrix.doorDwellsInMillis = parseLongs(values);
+                case "floorHeight" -> matrix.floorHeightsInMeters = parseDoubles(values);
+                case "maxSpeed" -> matrix.maxSpeeds = parseDoubles(values);
+                case "acceleration" -> matrix.accelerations = parseDoubles(values);
+                case "jerk" -> matrix.jerks = parseDoubles(values);
+                case "dispatch" -> matrix.dispatches = parseNames(values, DispatchStrategies.NAMES, "dispatch strategy");
+                case "routing" -> matrix.routings = parseNames(values, RoutingStrategies.NAMES, "routing strategy");
+                case "zoning" -> matrix.zonings = parseNames(values, Zonings.NAMES, "zoning");
+                case "parking" -> matrix.parkings = parseNames(values, ParkingPolicies.NAMES, "parking policy");
+                case "traffic" -> matrix.traffics = parseNames(values, TrafficProfiles.NAMES, "traffic model");
+                case "arrivalRate" -> matrix.arrivalRates = parseDoubles(values);
+                case "seeds" -> matrix.seeds = parseLongs(values);
+                case "duration" -> matrix.durationsInSeconds = parseLongs(values);
+                default -> throw new IllegalArgumentException("Unknown scenario parameter: " + keyAndValues[0]);
+            }
+        }
+        return matrix;
+    }
+
+    // The first parameter varies slowest and the seeds fastest, so the runs of a configuration come out together
+    public List<Scenario> getScenarios() {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (int[] choice : cartesianProduct(numbersOfFloors, numbersOfElevators, elevatorCapacities, doorDwellsInMillis,
+                floorHeightsInMeters, maxSpeeds, accelerations, jerks, dispatches, routings, zonings, parkings, traffics,
+                arrivalRates, durationsInSeconds, seeds)) {
+            scenarios.add(new Scenario(
+                    numbersOfFloors.get(choice[0]).intValue(),
+                    numbersOfElevators.get(choice[1]).intValue(),
+                    elevatorCapacities.get(choice[2]).intValue(),
+                    doorDwellsInMillis.get(choice[3]),
+                    floorHeightsInMeters.get(choice[4]),
+                    maxSpeeds.get(choice[5]),
+                    accelerations.get(choice[6]),
+                    jerks.get(choice[7]),
+                    dispatches.get(choice[8]),
+                    routings.get(choice[9]),
+                    zonings.get(choice[10]),
+                    parkings.get(choice[11]),
+                    traffics.get(choice[12]),
+                    arrivalRates.get(choice[13]),
+                    seeds.get(choice[15]),
+                    TimeUnit.SECONDS.toMillis(durationsInSeconds.get(choice[14]))));
+        }
+        return scenarios;
+    }
+
+    // Every way to pick one value of each list, as the index of the value picked in each, the last list varying fastest
+    private static List<int[]> cartesianProduct(List<?>... lists) {
+        List<int[]> combinations = new ArrayList<>();
+        int[] choice = new int[lists.length];
+        if (Arrays.stream(lists).anyMatch(List::isEmpty)) {
+            return combinations;
+        }
+        while (true) {
+            combinations.add(choice.clone());
+            // Counts up like an odometer, each list a digit
+            int digit = lists.length - 1;
+            while (digit >= 0 && ++choice[digit] == lists[digit].size()) {
+                choice[digit--] = 0;
+            }
+            if (digit < 0) {
+                return combinations;
+            }
+        }
+    }
+
+    // Comma-separated values, each either a number or an inclusive range like 1..100
+    private static List<Long> parseLongs(String values) {
+        List<Long> result = new ArrayList<>();
+        for (String value : values.split(",")) {
+            String[] range = value.split("\\.\\.", 2);
+            if (range.length == 2) {
+                LongStream.rangeClosed(Long.parseLong(range[0]), Long.parseLong(range[1])).forEach(result::add);
+            } else {
+                result.add(Long.parseLong(value));
+            }
+        }
+        return result;
+    }
+
+    private static List<String> parseNames(String values, List<String> knownNames, String description) {
+        List<String> result = Arrays.asList(values.split(","));
+        for (String name : result) {
+            if (!knownNames.contains(name)) {
+                throw new IllegalArgumentException("Unknown " + description + ": " + name + ", expected one of " + knownNames);
+            }
+        }
+        return result;
+    }
+
+    private static List<Double> parseDoubles(String values) {
+        List<Double> result = new ArrayList<>();
+        for (String value : values.split(",")) {
+            result.add(Double.parseDouble(value));
+        }
+        return result;
+    }
+}
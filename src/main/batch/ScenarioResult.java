@@ -0,0 +1,73 @@
+package main.batch;
+
+import main.elevator.ZonedTower;
+import main.metrics.LatencyHistogram;
+import main.passenger.TripStatistics;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Summary of one scenario run, printed as a CSV row. Times are in simulated milliseconds, throughput is the number of
+// delivered passengers per simulated hour. Waits and trips are per car ridden, journeys from spawning to the final
+// destination over every car, which only differ in a zoned building. Round trips are between two departures of a car
+// from the lobby of its zone. Peak start waits are those of the passengers spawned in the first quarter of an hour of
+// every peak of the traffic profile, see TripStatistics.SPAWN_TIME_SLOT_MILLIS, and 0 for a profile without peaks.
+// Energy is a rough estimate from the floors travelled and the stops made by every car, only good for comparing runs.
+public record ScenarioResult(Scenario scenario, long deliveredPassengers,
+                             double averageWaitTimeMillis, long p95WaitTimeMillis, long p99WaitTimeMillis,
+                             double averageTripTimeMillis, long p95TripTimeMillis, long p99TripTimeMillis,
+                             double throughputPerHour, double averageJourneyTimeMillis, long p95JourneyTimeMillis,
+                             double averageRoundTripMillis, double averagePeakStartWaitTimeMillis,
+                             long p95PeakStartWaitTimeMillis, double energyPerPassengerKilojoules) {
+
+    // Rules of thumb for a mid-rise traction elevator: lifting the car and half its load over a floor, and the losses
+    // of accelerating and braking at every stop
+    private static final double KILOJOULES_PER_FLOOR = 10;
+    private static final double KILOJOULES_PER_STOP = 20;
+
+    public static final String CSV_HEADER = "floors,elevators,capacity,door_dwell_ms,floor_height_m,max_speed_mps,acceleration_mps2,jerk_mps3,dispatch,routing,zoning,parking,traffic,arrivals_per_minute,seed,duration_s,delivered,"
+            + "mean_wait_ms,p95_wait_ms,p99_wait_ms,mean_trip_ms,p95_trip_ms,p99_trip_ms,throughput_per_hour,"
+            + "mean_journey_ms,p95_journey_ms,mean_round_trip_ms,mean_peak_start_wait_ms,p95_peak_start_wait_ms,"
+            + "energy_per_passenger_kj";
+
+    // The statistics are those of the tower, passed in when the caller needs them as well
+    static ScenarioResult of(Scenario scenario, ZonedTower tower, TripStatistics tripStatistics) {
+        double simulatedHours = (double) scenario.durationMillis() / TimeUnit.HOURS.toMillis(1);
+        LatencyHistogram peakStartWaitTimes = new LatencyHistogram();
+        for (long peakStartMillis : scenario.createTrafficModel().getPeakStartsMillis()) {
+            LatencyHistogram waitTimes = tripStatistics.getWaitTimesBySpawnTimeSlot().get(TripStatistics.getSpawnTimeSlot(peakStartMillis));
+            if (waitTimes != null) {
+                peakStartWaitTimes.add(waitTimes);
+            }
+        }
+        return new ScenarioResult(
+                scenario,
+                tripStatistics.getDeliveredPassengers(),
+                tripStatistics.getAverageWaitTimeMillis(),
+                tripStatistics.getWaitTimeMillisAtPercentile(95),
+                tripStatistics.getWaitTimeMillisAtPercentile(99),
+                tripStatistics.getAverageTripTimeMillis(),
+                tripStatistics.getTripTimeMillisAtPercentile(95),
+                tripStatistics.getTripTimeMillisAtPercentile(99),
+                tripStatistics.getDeliveredPassengers() / simulatedHours,
+                tripStatistics.getAverageJourneyTimeMillis(),
+                tripStatistics.getJourneyTimeMillisAtPercentile(95),
+                tower.getAverageRoundTripMillis(),
+                peakStartWaitTimes.getTotalCount() == 0 ? 0 : (double) peakStartWaitTimes.getTotalSum() / peakStartWaitTimes.getTotalCount(),
+                peakStartWaitTimes.getValueAtPercentile(95),
+                tripStatistics.getDeliveredPassengers() == 0 ? 0 : (tower.getFloorsTravelled() * KILOJOULES_PER_FLOOR
+                        + tower.getStopsMade() * KILOJOULES_PER_STOP) / tripStatistics.getDeliveredPassengers()
+        );
+    }
+
+    public String toCsvRow() {
+        return String.format(Locale.ROOT, "%d,%d,%d,%d,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%d,%d,%d,%.1f,%d,%d,%.1f,%d,%d,%.1f,%.1f,%d,%.1f,%.1f,%d,%.1f",
+                scenario.numberOfFloors(), scenario.numberOfElevators(), scenario.elevatorCapacity(), scenario.doorDwellMillis(),
+                scenario.floorHeightMeters(), scenario.maxSpeed(), scenario.acceleration(), scenario.jerk(),
+                scenario.dispatch(), scenario.routing(), scenario.zoning(), scenario.parking(), scenario.traffic(), scenario.arrivalsPerMinute(), scenario.seed(), TimeUnit.MILLISECONDS.toSeconds(scenario.durationMillis()),
+                deliveredPassengers, averageWaitTimeMillis, p95WaitTimeMillis, p99WaitTimeMillis,
+                averageTripTimeMillis, p95TripTimeMillis, p99TripTimeMillis, throughputPerHour,
+                averageJourneyTimeMillis, p95JourneyTimeMillis, averageRoundTripMillis,
+                averagePeakStartWaitTimeMillis, p95PeakStartWaitTimeMillis, energyPerPassengerKilojoules);
+    }
+}
@@ -1,27 +1,97 @@
 package main.building;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
+import main.Direction;
+import main.button.HallCalls;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import java.util.Arrays;
+import java.util.List;
+
+// The floors as seen by one bank of elevators. Usually that is every floor of the building, but a bank serving a zone
+// of a tall building only has the floors of its zone, each with its own hall buttons and queues, and every other floor
+// number is left out. Floor numbers stay those of the whole building.
 public class Building {
-    private final Collection<Floor> floors = Collections.synchronizedList(new ArrayList<>());
+    public static final int NOT_SERVED = -1;
+
+    // Indexed by floor number, index 0 is unused. Never modified after construction, so reads need no locking.
+    private final Floor[] floorsByNumber;
+    // Position of each floor in the served floors, indexed by floor number, NOT_SERVED for the floors left out
+    private final int[] floorIndicesByNumber;
+    private final List<Floor> floors;
+    private final HallCalls hallCalls;
 
     public Building(int numberOfFloors) {
-        for (int i = 0; i < numberOfFloors; i++) {
-            floors.add(new Floor(i + 1));
+        this(numberOfFloors, Zone.allFloors(numberOfFloors));
+    }
+
+    // Only the floors of the zone, in a building the given number of floors high
+    public Building(int numberOfFloors, Zone zone) {
+        hallCalls = new HallCalls(numberOfFloors);
+        floorsByNumber = new Floor[numberOfFloors + 1];
+        floorIndicesByNumber = new int[numberOfFloors + 1];
+        Arrays.fill(floorIndicesByNumber, NOT_SERVED);
+        Floor[] servedFloors = new Floor[zone.floorNumbers().length];
+        for (int i = 0; i < servedFloors.length; i++) {
+            int floorNumber = zone.floorNumbers()[i];
+            servedFloors[i] = new Floor(floorNumber, hallCalls);
+            floorsByNumber[floorNumber] = servedFloors[i];
+            floorIndicesByNumber[floorNumber] = i;
         }
+        floors = List.of(servedFloors);
     }
 
-    public Floor getFloorByNumber(Integer floorNumber) {
-        return floors.stream().filter(f -> f.floorNumber.equals(floorNumber)).findFirst().orElse(null);
+    public Floor getFloorByNumber(int floorNumber) {
+        return floorNumber > 0 && floorNumber < floorsByNumber.length ? floorsByNumber[floorNumber] : null;
     }
 
-    public Collection<Floor> getFloors() {
+    // Index of the floor in getFloors(), or NOT_SERVED, for sizing per-floor data by the floors of the zone only
+    public int getFloorIndex(int floorNumber) {
+        return floorNumber > 0 && floorNumber < floorIndicesByNumber.length ? floorIndicesByNumber[floorNumber] : NOT_SERVED;
+    }
+
+    // Only the floors served, in ascending order
+    public List<Floor> getFloors() {
         return floors;
     }
 
+    public HallCalls getHallCalls() {
+        return hallCalls;
+    }
+
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(getFloorCount());
+        out.writeInt(floors.size());
+        for (Direction direction : Direction.values()) {
+            hallCalls.get(direction).writeTo(out);
+        }
+        for (Floor floor : floors) {
+            floor.writeState(out);
+        }
+    }
+
+    // Only into a building of the same size that has no calls or passengers yet
+    public void readState(DataInput in) throws IOException {
+        int floorCount = in.readInt();
+        if (floorCount != getFloorCount()) {
+            throw new IOException("State was saved from a building with " + floorCount + " floors, not " + getFloorCount());
+        }
+        int servedFloorCount = in.readInt();
+        if (servedFloorCount != floors.size()) {
+            throw new IOException("State was saved from a zone of " + servedFloorCount + " floors, not " + floors.size());
+        }
+        for (Direction direction : Direction.values()) {
+            hallCalls.get(direction).readFrom(in);
+        }
+        for (Floor floor : floors) {
+            floor.readState(in);
+        }
+    }
+
+    // Height of the whole building, including the floors left out
     public int getFloorCount() {
-        return floors.size();
+        return floorsByNumber.length - 1;
     }
 }
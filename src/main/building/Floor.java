@@ -1,30 +1,148 @@
 package main.building;
 
+import main.Direction;
+import main.button.HallCalls;
 import main.passenger.Passenger;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 public class Floor {
+    public static final long NOBODY_WAITING = Long.MIN_VALUE;
+
     public final Integer floorNumber;
-    private final FloorButton button;
-    private final Collection<Passenger> waitingPassengers = Collections.synchronizedCollection(new ArrayList<>());
+    private final FloorButton upButton;
+    private final FloorButton downButton;
+    private final List<FloorButton> buttons;
+    // Split by the direction passengers want to go. The queues are lock-free, so passenger generators adding to them
+    // never block an elevator boarding from them, and several elevators can board from one floor at the same time.
+    private final Queue<Passenger> upBoundPassengers = new ConcurrentLinkedQueue<>();
+    private final Queue<Passenger> downBoundPassengers = new ConcurrentLinkedQueue<>();
+    // Kept next to the queues, whose size() would have to walk them
+    private final AtomicInteger upBoundPassengerCount = new AtomicInteger();
+    private final AtomicInteger downBoundPassengerCount = new AtomicInteger();
+    // Set under destination dispatch, which takes every passenger's destination before they join a queue
+    private volatile Consumer<Passenger> destinationKeypad;
 
-    public Floor(int floorNumber) {
+    public Floor(int floorNumber, HallCalls hallCalls) {
         this.floorNumber = floorNumber;
-        this.button = new FloorButton(floorNumber);
+        this.upButton = new FloorButton(floorNumber, Direction.UP, hallCalls.get(Direction.UP));
+        this.downButton = new FloorButton(floorNumber, Direction.DOWN, hallCalls.get(Direction.DOWN));
+        this.buttons = List.of(upButton, downButton);
     }
 
-    public Collection<Passenger> getWaitingPassengers() {
-        return waitingPassengers;
+    // Queues the passenger and calls an elevator for their direction. Adding before pressing means an elevator answering
+    // the call finds the passenger. If an elevator boards the passenger in between, the call it leaves behind only
+    // costs a stop with nobody to pick up. With a destination keypad the passenger registers first, so no car takes
+    // them in before they have been assigned one.
+    public void callElevator(Passenger passenger) {
+        Consumer<Passenger> destinationKeypad = this.destinationKeypad;
+        if (destinationKeypad != null) {
+            destinationKeypad.accept(passenger);
+        }
+        addWaitingPassenger(passenger);
+        getButton(passenger.getDirection()).press();
     }
 
     public void addWaitingPassenger(Passenger passenger) {
-        this.waitingPassengers.add(passenger);
+        getQueue(passenger.getDirection()).add(passenger);
+        getCount(passenger.getDirection()).incrementAndGet();
+    }
+
+    // Returns the passenger who has waited longest to go in the given direction, or null if there is none
+    public Passenger pollWaitingPassenger(Direction direction) {
+        Passenger passenger = getQueue(direction).poll();
+        if (passenger != null) {
+            getCount(direction).decrementAndGet();
+        }
+        return passenger;
+    }
+
+    // Returns the passenger who has waited longest to go in the given direction and may board the given car, or null.
+    // Without destination dispatch that is always the first one in the queue.
+    public Passenger pollWaitingPassenger(Direction direction, int elevatorNumber) {
+        Queue<Passenger> queue = getQueue(direction);
+        Passenger first = queue.peek();
+        if (first == null || first.mayBoard(elevatorNumber)) {
+            return pollWaitingPassenger(direction);
+        }
+        for (Passenger passenger : queue) {
+            if (passenger.mayBoard(elevatorNumber) && queue.remove(passenger)) {
+                getCount(direction).decrementAndGet();
+                return passenger;
+            }
+        }
+        return null;
+    }
+
+    // A copy in boarding order, for rebuilding the assignments of a restored group
+    public List<Passenger> getWaitingPassengers(Direction direction) {
+        return new ArrayList<>(getQueue(direction));
+    }
+
+    public void setDestinationKeypad(Consumer<Passenger> destinationKeypad) {
+        this.destinationKeypad = destinationKeypad;
+    }
+
+    public int getWaitingPassengerCount() {
+        return upBoundPassengerCount.get() + downBoundPassengerCount.get();
+    }
+
+    public int getWaitingPassengerCount(Direction direction) {
+        return getCount(direction).get();
+    }
+
+    // Spawn time of the passenger who has waited longest to go in the given direction, or NOBODY_WAITING
+    public long getLongestWaitingSinceMillis(Direction direction) {
+        Passenger passenger = getQueue(direction).peek();
+        return passenger != null ? passenger.spawnTimeMillis : NOBODY_WAITING;
+    }
+
+    public boolean hasWaitingPassengers(Direction direction) {
+        return !getQueue(direction).isEmpty();
+    }
+
+    // Both queues in boarding order. The hall buttons are saved by the building with the rest of its hall calls.
+    public void writeState(DataOutput out) throws IOException {
+        for (Direction direction : Direction.values()) {
+            Queue<Passenger> queue = getQueue(direction);
+            out.writeInt(queue.size());
+            for (Passenger passenger : queue) {
+                passenger.writeTo(out);
+            }
+        }
+    }
+
+    public void readState(DataInput in) throws IOException {
+        for (Direction direction : Direction.values()) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                addWaitingPassenger(Passenger.readFrom(in));
+            }
+        }
+    }
+
+    private Queue<Passenger> getQueue(Direction direction) {
+        return direction == Direction.UP ? upBoundPassengers : downBoundPassengers;
+    }
+
+    private AtomicInteger getCount(Direction direction) {
+        return direction == Direction.UP ? upBoundPassengerCount : downBoundPassengerCount;
+    }
+
+    public FloorButton getButton(Direction direction) {
+        return direction == Direction.UP ? upButton : downButton;
     }
 
-    public FloorButton getButton() {
-        return button;
+    public List<FloorButton> getButtons() {
+        return buttons;
     }
 }
@@ -2,20 +2,16 @@ package main.building;
 
 import main.button.Button;
 import main.Direction;
+import main.button.PressedFloors;
 
 public class FloorButton extends Button {
     private final Direction direction;
 
-    public FloorButton(int floorNumber, Direction direction) {
-        super(floorNumber);
+    public FloorButton(int floorNumber, Direction direction, PressedFloors hallCalls) {
+        super(floorNumber, hallCalls);
         this.direction = direction;
     }
 
-    public FloorButton(int floorNumber) {
-        super(floorNumber);
-        this.direction = null;
-    }
-
     public Direction getDirection() {
         return direction;
     }
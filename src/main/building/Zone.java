@@ -0,0 +1,56 @@
+package main.building;
+
+import java.util.Arrays;
+
+// Floors served by one bank of elevators, for example a lobby and a run of floors above it, or an express shuttle
+// between the ground floor and a sky lobby. Floor numbers are those of the whole building, in ascending order.
+public record Zone(String name, int[] floorNumbers) {
+
+    public Zone {
+        floorNumbers = Arrays.stream(floorNumbers).distinct().sorted().toArray();
+        if (floorNumbers.length == 0 || floorNumbers[0] < 1) {
+            throw new IllegalArgumentException("Zone " + name + " has to serve floors numbered from 1");
+        }
+    }
+
+    // The lobby the zone is reached from and every floor from lowest to highest
+    public static Zone of(String name, int lobbyFloorNumber, int lowestFloorNumber, int highestFloorNumber) {
+        int[] floorNumbers = new int[highestFloorNumber - lowestFloorNumber + 2];
+        floorNumbers[0] = lobbyFloorNumber;
+        for (int i = 1; i < floorNumbers.length; i++) {
+            floorNumbers[i] = lowestFloorNumber + i - 1;
+        }
+        return new Zone(name, floorNumbers);
+    }
+
+    public static Zone allFloors(int floorCount) {
+        return of("all", 1, 1, floorCount);
+    }
+
+    public boolean serves(int floorNumber) {
+        return Arrays.binarySearch(floorNumbers, floorNumber) >= 0;
+    }
+
+    public int getLowestFloorNumber() {
+        return floorNumbers[0];
+    }
+
+    public int getHighestFloorNumber() {
+        return floorNumbers[floorNumbers.length - 1];
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Zone zone && name.equals(zone.name) && Arrays.equals(floorNumbers, zone.floorNumbers);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + Arrays.hashCode(floorNumbers);
+    }
+
+    @Override
+    public String toString() {
+        return name + Arrays.toString(floorNumbers);
+    }
+}
@@ -1,29 +1,46 @@
 package main.button;
 
 import java.util.Comparator;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public abstract class Button {
     public static final Comparator<Button> buttonComparator = Comparator.comparingInt(Button::getFloorNumber);
 
     private final Integer floorNumber;
-    private boolean isPressed = false;
+    // Shared by every button of the same panel, so the control system can scan them all at once
+    private final PressedFloors pressedFloors;
+    private final List<ButtonListener> listeners = new CopyOnWriteArrayList<>();
 
-    public Button(Integer floorNumber) {
+    public Button(Integer floorNumber, PressedFloors pressedFloors) {
         this.floorNumber = floorNumber;
+        this.pressedFloors = pressedFloors;
     }
 
     public void press() {
-        isPressed = true;
+        if (pressedFloors.set(floorNumber)) {
+            notifyListeners();
+        }
     }
 
     public void release() {
-        isPressed = false;
+        if (pressedFloors.clear(floorNumber)) {
+            notifyListeners();
+        }
     }
 
     public boolean isPressed() {
-        return isPressed;
+        return pressedFloors.isSet(floorNumber);
+    }
+
+    public void addListener(ButtonListener listener) {
+        listeners.add(listener);
+    }
+
+    private void notifyListeners() {
+        for (ButtonListener listener : listeners) {
+            listener.onButtonChanged(this);
+        }
     }
 
     public Integer getFloorNumber() {
@@ -32,6 +49,6 @@ public abstract class Button {
 
     @Override
     public String toString() {
-        return String.format("%s - %s", getFloorNumber(), isPressed);
+        return String.format("%s - %s", getFloorNumber(), isPressed());
     }
 }
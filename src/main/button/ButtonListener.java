@@ -0,0 +1,6 @@
+package main.button;
+
+public interface ButtonListener {
+    // Called on the thread that pressed or released the button, only when its state actually changed
+    void onButtonChanged(Button button);
+}
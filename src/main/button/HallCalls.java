@@ -0,0 +1,27 @@
+package main.button;
+
+import main.Direction;
+
+// Pressed UP and DOWN hall buttons, one bitset per direction
+public class HallCalls {
+    private final PressedFloors upCalls;
+    private final PressedFloors downCalls;
+
+    public HallCalls(int highestFloorNumber) {
+        this.upCalls = new PressedFloors(highestFloorNumber);
+        this.downCalls = new PressedFloors(highestFloorNumber);
+    }
+
+    public PressedFloors get(Direction direction) {
+        return direction == Direction.UP ? upCalls : downCalls;
+    }
+
+    public boolean isEmpty() {
+        return upCalls.isEmpty() && downCalls.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("up: %s, down: %s", upCalls, downCalls);
+    }
+}
@@ -0,0 +1,147 @@
+package main.button;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Pressed state of a panel of buttons, one bit per floor number, packed into 64-bit words. Bits are flipped with
+// compare-and-set, so buttons can be pressed and released from any thread while the control system scans the words.
+public class PressedFloors {
+    public static final int NONE = -1;
+
+    private static final int WORD_SHIFT = 6;
+    private static final long ALL_BITS = -1L;
+
+    private final AtomicLongArray words;
+    private final int highestFloorNumber;
+
+    public PressedFloors(int highestFloorNumber) {
+        this.highestFloorNumber = highestFloorNumber;
+        this.words = new AtomicLongArray((highestFloorNumber >>> WORD_SHIFT) + 1);
+    }
+
+    // Returns true if the floor was not pressed before
+    public boolean set(int floorNumber) {
+        int wordIndex = floorNumber >>> WORD_SHIFT;
+        long mask = 1L << floorNumber;
+        while (true) {
+            long word = words.get(wordIndex);
+            if ((word & mask) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(wordIndex, word, word | mask)) {
+                return true;
+            }
+        }
+    }
+
+    // Returns true if the floor was pressed before
+    public boolean clear(int floorNumber) {
+        int wordIndex = floorNumber >>> WORD_SHIFT;
+        long mask = 1L << floorNumber;
+        while (true) {
+            long word = words.get(wordIndex);
+            if ((word & mask) == 0) {
+                return false;
+            }
+            if (words.compareAndSet(wordIndex, word, word & ~mask)) {
+                return true;
+            }
+        }
+    }
+
+    public boolean isSet(int floorNumber) {
+        return (words.get(floorNumber >>> WORD_SHIFT) & (1L << floorNumber)) != 0;
+    }
+
+    // Lowest pressed floor at or above the given floor, or NONE
+    public int nextSetFloor(int fromFloorNumber) {
+        if (fromFloorNumber > highestFloorNumber) {
+            return NONE;
+        }
+        int wordIndex = Math.max(fromFloorNumber, 0) >>> WORD_SHIFT;
+        long word = words.get(wordIndex) & (ALL_BITS << Math.max(fromFloorNumber, 0));
+        while (word == 0) {
+            if (++wordIndex == words.length()) {
+                return NONE;
+            }
+            word = words.get(wordIndex);
+        }
+        return (wordIndex << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+    }
+
+    // Highest pressed floor at or below the given floor, or NONE
+    public int previousSetFloor(int fromFloorNumber) {
+        if (fromFloorNumber < 0) {
+            return NONE;
+        }
+        int floorNumber = Math.min(fromFloorNumber, highestFloorNumber);
+        int wordIndex = floorNumber >>> WORD_SHIFT;
+        long word = words.get(wordIndex) & (ALL_BITS >>> (63 - (floorNumber & 63)));
+        while (word == 0) {
+            if (--wordIndex < 0) {
+                return NONE;
+            }
+            word = words.get(wordIndex);
+        }
+        return (wordIndex << WORD_SHIFT) + 63 - Long.numberOfLeadingZeros(word);
+    }
+
+    public int lowestSetFloor() {
+        return nextSetFloor(0);
+    }
+
+    public int highestSetFloor() {
+        return previousSetFloor(highestFloorNumber);
+    }
+
+    public boolean isEmpty() {
+        for (int i = 0; i < words.length(); i++) {
+            if (words.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int count() {
+        int count = 0;
+        for (int i = 0; i < words.length(); i++) {
+            count += Long.bitCount(words.get(i));
+        }
+        return count;
+    }
+
+    // Written as the count of pressed floors followed by their numbers
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(count());
+        for (int floorNumber = lowestSetFloor(); floorNumber != NONE; floorNumber = nextSetFloor(floorNumber + 1)) {
+            out.writeInt(floorNumber);
+        }
+    }
+
+    // Sets the floors written by writeTo() without clearing any, and without notifying the buttons' listeners
+    public void readFrom(DataInput in) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            set(in.readInt());
+        }
+    }
+
+    public int getHighestFloorNumber() {
+        return highestFloorNumber;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int floorNumber = lowestSetFloor(); floorNumber != NONE; floorNumber = nextSetFloor(floorNumber + 1)) {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(floorNumber);
+        }
+        return builder.append("]").toString();
+    }
+}
@@ -1,50 +1,292 @@
 package main.customLogger;
 
-import java.util.logging.Logger;
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
-public class CustomLogger {
+// Simulation threads only put the message format and its arguments into a ring buffer. A single writer thread
+// formats, colours and prints them, so logging never blocks the simulation: when the buffer fills up, messages are
+// sampled and then dropped, and the writer reports how many were lost. The buffer and writer are only created with the
+// first message written, so a logger that is turned off costs neither. The writer sleeps while there is nothing to
+// write, until close() lets it write what is left and stop.
+//
+// Defaults can be changed with system properties: logger.level.<main|elevator|ecs|passenger>=OFF|ERROR|INFO,
+// logger.ansi=false and logger.bufferCapacity=<messages>.
+public class CustomLogger implements AutoCloseable {
 
-    private static final Logger logger = Logger.getLogger(CustomLogger.class.getSimpleName());
-    private static final String LOG_FORMAT = "%5$s%n";
+    private static final int DEFAULT_BUFFER_CAPACITY = 8192;
+    // Above this share of the buffer, only one INFO message in SAMPLING_RATE is kept
+    private static final double SAMPLING_THRESHOLD = 0.5;
+    private static final int SAMPLING_RATE = 8;
 
     // ANSI escape sequences explanation: https://stackoverflow.com/a/33206814
-    private static final String ANSI_IDEA_WHITE = "\033[38;2;188;190;196m";
-    private static final String ANSI_PINK = "\033[38;5;97m";
-    private static final String ANSI_GREEN = "\033[38;5;29m";
-    private static final String ANSI_BLUE = "\033[38;5;6m";
+    static final String ANSI_IDEA_WHITE = "\033[38;2;188;190;196m";
+    static final String ANSI_PINK = "\033[38;5;97m";
+    static final String ANSI_GREEN = "\033[38;5;29m";
+    static final String ANSI_BLUE = "\033[38;5;6m";
     private static final String ANSI_RESET = "\033[0m";
 
+    // Indexed by component ordinal, replaced as a whole so that hot-path reads need no lock
+    private volatile LogLevel[] levels = new LogLevel[LogComponent.values().length];
+    private volatile boolean useAnsiColors;
+
+    private final PrintStream out;
+    private final int bufferCapacity;
+    // Null until the first message is written, see startWriter()
+    private volatile LogRingBuffer buffer;
+    private volatile Thread writer;
+    private volatile boolean isWriterParked = false;
+    private volatile boolean isClosed = false;
+
+    // Counts the INFO messages seen while sampling, to keep every SAMPLING_RATE-th of them
+    private final AtomicLong samplingTicks = new AtomicLong();
+    private final AtomicLong sampledMessages = new AtomicLong();
+    private final AtomicLong droppedMessages = new AtomicLong();
+
     public CustomLogger() {
-        System.setProperty("java.util.logging.SimpleFormatter.format", LOG_FORMAT);
+        this(System.err, Integer.getInteger("logger.bufferCapacity", DEFAULT_BUFFER_CAPACITY));
+    }
+
+    public CustomLogger(PrintStream out, int bufferCapacity) {
+        this.out = out;
+        this.bufferCapacity = bufferCapacity;
+        this.useAnsiColors = Boolean.parseBoolean(System.getProperty("logger.ansi", "true"));
+        for (LogComponent component : LogComponent.values()) {
+            String property = System.getProperty("logger.level." + component.name().toLowerCase(Locale.ROOT), LogLevel.INFO.name());
+            levels[component.ordinal()] = LogLevel.valueOf(property.toUpperCase(Locale.ROOT));
+        }
     }
 
     public void logMain(String message) {
-        logWithColor("Main      | ", message, ANSI_IDEA_WHITE);
+        log(LogLevel.INFO, LogComponent.MAIN, message, 0, null, null, null);
+    }
+
+    public void logMain(String format, Object arg1) {
+        log(LogLevel.INFO, LogComponent.MAIN, format, 1, arg1, null, null);
+    }
+
+    public void logMain(String format, Object arg1, Object arg2) {
+        log(LogLevel.INFO, LogComponent.MAIN, format, 2, arg1, arg2, null);
     }
 
     public void logElevator(String message) {
-        logWithColor("Elevator  | ", message, ANSI_PINK);
+        log(LogLevel.INFO, LogComponent.ELEVATOR, message, 0, null, null, null);
+    }
+
+    public void logElevator(String format, Object arg1) {
+        log(LogLevel.INFO, LogComponent.ELEVATOR, format, 1, arg1, null, null);
+    }
+
+    public void logElevator(String format, Object arg1, Object arg2) {
+        log(LogLevel.INFO, LogComponent.ELEVATOR, format, 2, arg1, arg2, null);
+    }
+
+    public void logElevator(String format, Object arg1, Object arg2, Object arg3) {
+        log(LogLevel.INFO, LogComponent.ELEVATOR, format, 3, arg1, arg2, arg3);
     }
 
     public void logECS(String message) {
-        logWithColor("ECS       | ", message, ANSI_GREEN);
+        log(LogLevel.INFO, LogComponent.ECS, message, 0, null, null, null);
+    }
+
+    public void logECS(String format, Object arg1) {
+        log(LogLevel.INFO, LogComponent.ECS, format, 1, arg1, null, null);
+    }
+
+    public void logECS(String format, Object arg1, Object arg2) {
+        log(LogLevel.INFO, LogComponent.ECS, format, 2, arg1, arg2, null);
+    }
+
+    public void logECS(String format, Object arg1, Object arg2, Object arg3) {
+        log(LogLevel.INFO, LogComponent.ECS, format, 3, arg1, arg2, arg3);
     }
 
     public void logPassengers(String message) {
-        logWithColor("Passenger | ", message, ANSI_BLUE);
+        log(LogLevel.INFO, LogComponent.PASSENGER, message, 0, null, null, null);
+    }
+
+    public void logPassengers(String format, Object arg1) {
+        log(LogLevel.INFO, LogComponent.PASSENGER, format, 1, arg1, null, null);
+    }
+
+    public void logPassengers(String format, Object arg1, Object arg2) {
+        log(LogLevel.INFO, LogComponent.PASSENGER, format, 2, arg1, arg2, null);
+    }
+
+    public void logError(Exception e) {
+        log(LogLevel.ERROR, LogComponent.MAIN, String.valueOf(e.getMessage()), 0, null, null, null);
+    }
+
+    public boolean isEnabled(LogComponent component) {
+        return levels[component.ordinal()].allows(LogLevel.INFO);
+    }
+
+    public synchronized void setLevel(LogComponent component, LogLevel level) {
+        LogLevel[] updatedLevels = levels.clone();
+        updatedLevels[component.ordinal()] = level;
+        levels = updatedLevels;
+    }
+
+    public void setLevel(LogLevel level) {
+        for (LogComponent component : LogComponent.values()) {
+            setLevel(component, level);
+        }
+    }
+
+    public void setAnsiColors(boolean useAnsiColors) {
+        this.useAnsiColors = useAnsiColors;
+    }
+
+    public long getDroppedMessageCount() {
+        return droppedMessages.get() + sampledMessages.get();
+    }
+
+    // Waits until everything logged so far has been written, for example before the program exits
+    public void flush() {
+        LogRingBuffer buffer = this.buffer;
+        if (buffer != null) {
+            Thread writer = this.writer;
+            while (buffer.size() > 0 && writer.isAlive()) {
+                LockSupport.unpark(writer);
+                Thread.onSpinWait();
+            }
+        }
+        out.flush();
+    }
+
+    // Writes what is left and stops the writer thread. Messages logged afterwards are not written.
+    @Override
+    public void close() {
+        synchronized (this) {
+            isClosed = true;
+        }
+        Thread writer = this.writer;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        out.flush();
+    }
+
+    private void log(LogLevel level, LogComponent component, String format, int argCount, Object arg1, Object arg2, Object arg3) {
+        if (!levels[component.ordinal()].allows(level)) {
+            return;
+        }
+        LogRingBuffer buffer = this.buffer;
+        if (buffer == null && (buffer = startWriter()) == null) {
+            return;
+        }
+        if (level == LogLevel.INFO && isSampledOut(buffer)) {
+            return;
+        }
+        boolean isAccepted = buffer.offer(level, component, format, argCount,
+                snapshot(arg1), snapshot(arg2), snapshot(arg3));
+        if (!isAccepted) {
+            droppedMessages.incrementAndGet();
+            return;
+        }
+        if (isWriterParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    // Returns the buffer, or null once the logger is closed
+    private synchronized LogRingBuffer startWriter() {
+        if (buffer == null && !isClosed) {
+            Thread writer = new Thread(this::writeMessages, "CustomLogger");
+            writer.setDaemon(true);
+            // Published before the buffer, so whoever sees the buffer has a writer to wake
+            this.writer = writer;
+            buffer = new LogRingBuffer(bufferCapacity);
+            writer.start();
+        }
+        return buffer;
+    }
+
+    private boolean isSampledOut(LogRingBuffer buffer) {
+        if (buffer.size() < buffer.capacity() * SAMPLING_THRESHOLD) {
+            return false;
+        }
+        if (samplingTicks.incrementAndGet() % SAMPLING_RATE == 0) {
+            return false;
+        }
+        sampledMessages.incrementAndGet();
+        return true;
+    }
+
+    // Immutable arguments are formatted later on the writer thread. Anything else, like a list of passengers, could
+    // change in the meantime, so it is turned into a string right away.
+    private Object snapshot(Object arg) {
+        if (arg == null || arg instanceof String || arg instanceof Integer || arg instanceof Long
+                || arg instanceof Double || arg instanceof Boolean || arg instanceof Enum<?>) {
+            return arg;
+        }
+        return String.valueOf(arg);
+    }
+
+    private void writeMessages() {
+        StringBuilder line = new StringBuilder();
+        long reportedLostMessages = 0;
+        LogRingBuffer buffer = this.buffer;
+        while (true) {
+            LogRingBuffer.LogEvent event = buffer.peek();
+            if (event == null) {
+                reportedLostMessages = reportLostMessages(line, reportedLostMessages);
+                out.flush();
+                if (isClosed) {
+                    return;
+                }
+                park();
+                continue;
+            }
+            line.setLength(0);
+            appendLine(line, event.component, formatMessage(event));
+            out.print(line);
+            // Released only after printing, so flush() does not return while the last line is still in flight
+            buffer.release(event);
+        }
+    }
+
+    private long reportLostMessages(StringBuilder line, long reportedLostMessages) {
+        long lostMessages = getDroppedMessageCount();
+        if (lostMessages > reportedLostMessages) {
+            line.setLength(0);
+            appendLine(line, LogComponent.MAIN, String.format("%s log messages dropped under load", lostMessages - reportedLostMessages));
+            out.print(line);
+        }
+        return lostMessages;
     }
 
-    public void logError(InterruptedException e) {
-        logger.severe(e.getMessage());
+    private void park() {
+        isWriterParked = true;
+        // Re-check after announcing, so a message published in between is not left waiting for the next one
+        if (buffer.peek() == null && !isClosed) {
+            LockSupport.park(this);
+        }
+        isWriterParked = false;
     }
 
-    private void logWithColor(String prefix, String message, String messageColor) {
-        String coloredPrefix = wrapWithColor(ANSI_IDEA_WHITE, prefix);
-        String coloredMessage = wrapWithColor(messageColor, message);
-        logger.info(coloredPrefix + coloredMessage);
+    private String formatMessage(LogRingBuffer.LogEvent event) {
+        return switch (event.argCount) {
+            case 0 -> event.format;
+            case 1 -> String.format(event.format, event.arg1);
+            case 2 -> String.format(event.format, event.arg1, event.arg2);
+            default -> String.format(event.format, event.arg1, event.arg2, event.arg3);
+        };
     }
 
-    private String wrapWithColor(String color, String message) {
-        return color + message + ANSI_RESET;
+    private void appendLine(StringBuilder line, LogComponent component, String message) {
+        if (useAnsiColors) {
+            line.append(ANSI_IDEA_WHITE).append(component.prefix).append(ANSI_RESET)
+                    .append(component.messageColor).append(message).append(ANSI_RESET);
+        } else {
+            line.append(component.prefix).append(message);
+        }
+        line.append(System.lineSeparator());
     }
 }
@@ -0,0 +1,16 @@
+package main.customLogger;
+
+public enum LogComponent {
+    MAIN("Main      | ", CustomLogger.ANSI_IDEA_WHITE),
+    ELEVATOR("Elevator  | ", CustomLogger.ANSI_PINK),
+    ECS("ECS       | ", CustomLogger.ANSI_GREEN),
+    PASSENGER("Passenger | ", CustomLogger.ANSI_BLUE);
+
+    final String prefix;
+    final String messageColor;
+
+    LogComponent(String prefix, String messageColor) {
+        this.prefix = prefix;
+        this.messageColor = messageColor;
+    }
+}
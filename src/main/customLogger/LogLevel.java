@@ -0,0 +1,9 @@
+package main.customLogger;
+
+public enum LogLevel {
+    OFF, ERROR, INFO;
+
+    boolean allows(LogLevel messageLevel) {
+        return messageLevel.ordinal() <= ordinal();
+    }
+}
@@ -0,0 +1,88 @@
+package main.customLogger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded multi-producer, single-consumer queue of preallocated log events (D. Vyukov's bounded queue). Producers
+// claim a slot with one compare-and-set and never block: when the buffer is full, the message is rejected instead.
+class LogRingBuffer {
+
+    static final class LogEvent {
+        private volatile long sequence;
+        LogLevel level;
+        LogComponent component;
+        String format;
+        Object arg1;
+        Object arg2;
+        Object arg3;
+        int argCount;
+
+        private LogEvent(long sequence) {
+            this.sequence = sequence;
+        }
+
+        void clear() {
+            format = null;
+            arg1 = arg2 = arg3 = null;
+        }
+    }
+
+    private final LogEvent[] events;
+    private final int mask;
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    // Only written by the consumer thread, read by producers to estimate the size
+    private volatile long dequeuePosition = 0;
+
+    LogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(requestedCapacity - 1, 1)) << 1;
+        events = new LogEvent[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            events[i] = new LogEvent(i);
+        }
+    }
+
+    // Returns false if the buffer is full
+    boolean offer(LogLevel level, LogComponent component, String format, int argCount, Object arg1, Object arg2, Object arg3) {
+        while (true) {
+            long position = enqueuePosition.get();
+            LogEvent event = events[(int) (position & mask)];
+            long difference = event.sequence - position;
+            if (difference < 0) {
+                return false;
+            }
+            if (difference == 0 && enqueuePosition.compareAndSet(position, position + 1)) {
+                event.level = level;
+                event.component = component;
+                event.format = format;
+                event.argCount = argCount;
+                event.arg1 = arg1;
+                event.arg2 = arg2;
+                event.arg3 = arg3;
+                // Publishes the fields above to the consumer
+                event.sequence = position + 1;
+                return true;
+            }
+        }
+    }
+
+    // Returns the next published event, or null if there is none. It stays valid until release() is called.
+    LogEvent peek() {
+        LogEvent event = events[(int) (dequeuePosition & mask)];
+        return event.sequence == dequeuePosition + 1 ? event : null;
+    }
+
+    void release(LogEvent event) {
+        event.clear();
+        event.sequence = dequeuePosition + events.length;
+        dequeuePosition++;
+    }
+
+    // Approximate, good enough for deciding when to start sampling
+    int size() {
+        return (int) Math.max(0, enqueuePosition.get() - dequeuePosition);
+    }
+
+    int capacity() {
+        return events.length;
+    }
+}
@@ -0,0 +1,101 @@
+package main.elevator;
+
+import main.building.Building;
+import main.passenger.Passenger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Passengers riding in a car, bucketed by destination floor, so a stop only touches the ones getting out there.
+// Buckets are cleared rather than dropped, so once every floor has been a destination a stop allocates nothing.
+// Only the thread moving the car changes it. Every access takes the lock, which that thread holds uncontended unless
+// a monitoring thread is reading at the same moment.
+public class CarOccupancy {
+
+    // Only the floors the car serves
+    private final Building building;
+    // Indexed by position among the floors served, each bucket is created on first use
+    private final List<Passenger>[] byDestination;
+    private volatile int size = 0;
+
+    @SuppressWarnings("unchecked")
+    public CarOccupancy(Building building) {
+        this.building = building;
+        this.byDestination = (List<Passenger>[]) new List<?>[building.getFloors().size()];
+    }
+
+    public synchronized void add(Passenger passenger) {
+        int destination = building.getFloorIndex(passenger.destinationFloorNumber);
+        if (destination == Building.NOT_SERVED) {
+            throw new IllegalArgumentException("Floor " + passenger.destinationFloorNumber + " is not served by this car");
+        }
+        List<Passenger> bucket = byDestination[destination];
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            byDestination[destination] = bucket;
+        }
+        bucket.add(passenger);
+        size++;
+    }
+
+    // Moves the passengers going to the given floor into the buffer and returns how many there were
+    public synchronized int drainTo(int destinationFloorNumber, List<Passenger> buffer) {
+        List<Passenger> bucket = getBucket(destinationFloorNumber);
+        if (bucket == null || bucket.isEmpty()) {
+            return 0;
+        }
+        int count = bucket.size();
+        // One by one, as addAll() would copy the bucket into a new array first
+        for (int i = 0; i < count; i++) {
+            buffer.add(bucket.get(i));
+        }
+        bucket.clear();
+        size -= count;
+        return count;
+    }
+
+    public synchronized int count(int destinationFloorNumber) {
+        List<Passenger> bucket = getBucket(destinationFloorNumber);
+        return bucket != null ? bucket.size() : 0;
+    }
+
+    // Null for a floor nobody has gone to yet or the car does not serve
+    private List<Passenger> getBucket(int destinationFloorNumber) {
+        int destination = building.getFloorIndex(destinationFloorNumber);
+        return destination != Building.NOT_SERVED ? byDestination[destination] : null;
+    }
+
+    public synchronized void clear() {
+        for (List<Passenger> bucket : byDestination) {
+            if (bucket != null) {
+                bucket.clear();
+            }
+        }
+        size = 0;
+    }
+
+    // Readable without the lock, for the control system and monitoring
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // A copy ordered by destination floor, safe to keep while the car moves on
+    public synchronized List<Passenger> toList() {
+        List<Passenger> passengers = new ArrayList<>(size);
+        for (List<Passenger> bucket : byDestination) {
+            if (bucket != null) {
+                passengers.addAll(bucket);
+            }
+        }
+        return passengers;
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+}
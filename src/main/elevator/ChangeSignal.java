@@ -0,0 +1,43 @@
+package main.elevator;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Wakes the control system when a button changes or an elevator runs out of work. Signals raised while the control
+// system is busy are coalesced into a single wake-up, so it never misses a change and never spins while idle.
+// Buttons may be pressed from virtual threads, which a synchronized block would pin to their carrier, so the flag is
+// guarded by a ReentrantLock.
+public class ChangeSignal {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition signalled = lock.newCondition();
+    private boolean isSignalled = false;
+    private volatile Runnable listener = () -> {};
+
+    public void signal() {
+        lock.lock();
+        try {
+            isSignalled = true;
+            signalled.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        listener.run();
+    }
+
+    public void await() throws InterruptedException {
+        lock.lock();
+        try {
+            while (!isSignalled) {
+                signalled.await();
+            }
+            isSignalled = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Lets the discrete-event engine schedule the control system instead of a thread waiting in await()
+    public void setListener(Runnable listener) {
+        this.listener = listener;
+    }
+}
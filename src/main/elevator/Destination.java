@@ -0,0 +1,8 @@
+package main.elevator;
+
+import main.Direction;
+
+// Where the control system sends an elevator, and which way the passengers it takes in there are going. Sent as one
+// immutable value, so the elevator never sees the floor of one command with the direction of another.
+public record Destination(int floorNumber, Direction serviceDirection) {
+}
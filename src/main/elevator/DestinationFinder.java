@@ -1,50 +1,94 @@
 package main.elevator;
 
 import main.Direction;
-import main.building.FloorButton;
-import main.button.Button;
+import main.button.HallCalls;
+import main.button.PressedFloors;
 
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+// Destinations are the pressed car buttons and the hall calls answered by the elevator. On a sweep the elevator only
+// stops for car calls and for hall calls in its own direction. A hall call in the opposite direction is answered where
+// the sweep turns around: the highest DOWN call when going up, the lowest UP call when going down. All of them are read
+// straight from their bitsets, so a decision scans a few words instead of boxing and streaming every pressed button.
+public class DestinationFinder implements RoutingStrategy {
 
-public class DestinationFinder {
+    // Carries on in the direction the elevator is going, and only turns around when there is nothing more that way
+    @Override
+    public int selectDestination(Elevator elevator, PressedFloors carCalls, HallCalls hallCalls) {
+        if (!hasDestinations(carCalls, hallCalls)) {
+            return PressedFloors.NONE;
+        }
+        if (!isMoreDestinationsOnTheWay(elevator, carCalls, hallCalls)) {
+            elevator.setMovementDirection(elevator.getMovementDirection() == Direction.UP ? Direction.DOWN : Direction.UP);
+        }
+        return elevator.getMovementDirection() == Direction.UP
+                ? lookUp(elevator, carCalls, hallCalls)
+                : lookBelow(elevator, carCalls, hallCalls);
+    }
 
-    public boolean isMoreDestinationsOnTheWay(Elevator elevator, Set<Integer> destinationFloorNumbers) {
-        Integer currentFloor = elevator.getCurrentFloorNumber();
-        if (elevator.getMovementDirection() == Direction.UP) {
-            return destinationFloorNumbers.stream().anyMatch(floorNumber -> floorNumber > currentFloor);
-        } else {
-            return destinationFloorNumbers.stream().anyMatch(floorNumber -> floorNumber < currentFloor);
+    @Override
+    public Direction getServiceDirection(Elevator elevator, int destination, PressedFloors carCalls, HallCalls hallCalls,
+                                         HallCalls waitingCalls) {
+        return getServiceDirection(elevator.getMovementDirection(), destination, carCalls, hallCalls, waitingCalls);
+    }
+
+    public boolean isMoreDestinationsOnTheWay(Elevator elevator, PressedFloors carCalls, HallCalls hallCalls) {
+        return hasDestinationsBeyond(elevator.getCurrentFloorNumber(), elevator.getMovementDirection(), carCalls, hallCalls);
+    }
+
+    // Nearest car call or UP call at or above the current floor, otherwise the highest DOWN call above
+    public int lookUp(Elevator elevator, PressedFloors carCalls, HallCalls hallCalls) {
+        int currentFloor = elevator.getCurrentFloorNumber();
+        int nextStop = nearestAbove(carCalls.nextSetFloor(currentFloor), hallCalls.get(Direction.UP).nextSetFloor(currentFloor));
+        if (nextStop != PressedFloors.NONE) {
+            return nextStop;
         }
+        int highestDownCall = hallCalls.get(Direction.DOWN).highestSetFloor();
+        return highestDownCall >= currentFloor ? highestDownCall : PressedFloors.NONE;
     }
 
-    // If any elevator buttons pressed - find first pressed elevator button above current floor
-    // Else find the highest floor button pressed
-    public Optional<Integer> lookUp(Elevator elevator, Set<ElevatorButton> pressedElevatorButtons, Set<Integer> destinationFloorNumbers) {
-        Optional<Integer> nextDestination = pressedElevatorButtons.stream()
-                .filter(button -> button.getFloorNumber() >= elevator.getCurrentFloorNumber())
-                .min(Button.buttonComparator)
-                .map(Button::getFloorNumber);
+    // Nearest car call or DOWN call at or below the current floor, otherwise the lowest UP call below
+    public int lookBelow(Elevator elevator, PressedFloors carCalls, HallCalls hallCalls) {
+        int currentFloor = elevator.getCurrentFloorNumber();
+        int nextStop = Math.max(carCalls.previousSetFloor(currentFloor), hallCalls.get(Direction.DOWN).previousSetFloor(currentFloor));
+        if (nextStop != PressedFloors.NONE) {
+            return nextStop;
+        }
+        int lowestUpCall = hallCalls.get(Direction.UP).lowestSetFloor();
+        return lowestUpCall != PressedFloors.NONE && lowestUpCall <= currentFloor ? lowestUpCall : PressedFloors.NONE;
+    }
+
+    // Direction of the passengers the elevator takes in when it stops at the destination: its own, unless the sweep
+    // ends there and only a call for the opposite direction is waiting. Calls answered by other elevators of the bank
+    // count as waiting too, as the passengers get in whichever elevator opens its doors for their direction first.
+    public Direction getServiceDirection(Direction movementDirection, int destination, PressedFloors carCalls,
+                                         HallCalls hallCalls, HallCalls waitingCalls) {
+        Direction oppositeDirection = movementDirection == Direction.UP ? Direction.DOWN : Direction.UP;
+        if (waitingCalls.get(movementDirection).isSet(destination) || !waitingCalls.get(oppositeDirection).isSet(destination)) {
+            return movementDirection;
+        }
+        boolean isSweepContinuing = hasDestinationsBeyond(destination, movementDirection, carCalls, hallCalls);
+        return isSweepContinuing ? movementDirection : oppositeDirection;
+    }
 
-        return nextDestination.isPresent() ? nextDestination :
-                destinationFloorNumbers.stream()
-                        .filter(floorNumber -> floorNumber >= elevator.getCurrentFloorNumber())
-                        .max(Integer::compareTo);
+    public boolean hasDestinations(PressedFloors carCalls, HallCalls hallCalls) {
+        return !carCalls.isEmpty() || !hallCalls.isEmpty();
     }
 
-    // Find first button pressed below current floor
-    public Optional<Integer> lookBelow(Elevator elevator, Set<Integer> destinationFloorNumbers) {
-        return destinationFloorNumbers.stream()
-                .filter(floorNumber -> floorNumber <= elevator.getCurrentFloorNumber())
-                .max(Integer::compareTo);
+    private boolean hasDestinationsBeyond(int floorNumber, Direction direction, PressedFloors carCalls, HallCalls hallCalls) {
+        if (direction == Direction.UP) {
+            return carCalls.nextSetFloor(floorNumber + 1) != PressedFloors.NONE
+                    || hallCalls.get(Direction.UP).nextSetFloor(floorNumber + 1) != PressedFloors.NONE
+                    || hallCalls.get(Direction.DOWN).nextSetFloor(floorNumber + 1) != PressedFloors.NONE;
+        } else {
+            return carCalls.previousSetFloor(floorNumber - 1) != PressedFloors.NONE
+                    || hallCalls.get(Direction.UP).previousSetFloor(floorNumber - 1) != PressedFloors.NONE
+                    || hallCalls.get(Direction.DOWN).previousSetFloor(floorNumber - 1) != PressedFloors.NONE;
+        }
     }
 
-    public Set<Integer> getDestinationFloorNumbers(Set<ElevatorButton> pressedElevatorButtons, Set<FloorButton> pressedFloorButtons) {
-        return Stream.concat(
-                pressedFloorButtons.stream().map(Button::getFloorNumber),
-                pressedElevatorButtons.stream().map(Button::getFloorNumber)
-        ).collect(Collectors.toSet());
+    private int nearestAbove(int firstFloor, int secondFloor) {
+        if (firstFloor == PressedFloors.NONE) {
+            return secondFloor;
+        }
+        return secondFloor == PressedFloors.NONE ? firstFloor : Math.min(firstFloor, secondFloor);
     }
 }
@@ -0,0 +1,76 @@
+package main.elevator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+// Hands destinations from the control system to the thread moving an elevator. Only the latest destination matters,
+// so posting replaces it instead of queueing. The poster publishes the destination before it looks for a parked
+// thread, and the elevator thread registers itself before it looks for a destination, so either the elevator sees the
+// new destination or the poster sees the elevator and unparks it. A wake-up can't fall between the check and the wait.
+public class DestinationMailbox {
+    private final AtomicReference<Destination> latest = new AtomicReference<>();
+    private volatile Thread waitingThread;
+    private volatile boolean isClosed = false;
+
+    public void post(Destination destination) {
+        latest.set(destination);
+        unparkWaitingThread();
+    }
+
+    // The latest destination, or null if none has been posted yet
+    public Destination peek() {
+        return latest.get();
+    }
+
+    // Blocks until a destination other than the one already seen is posted and returns it. Every post counts, even one
+    // repeating the floor and direction of the one seen. Returns null once the mailbox is closed. Only one thread may
+    // wait at a time.
+    public Destination awaitNewerThan(Destination seen) throws InterruptedException {
+        waitingThread = Thread.currentThread();
+        try {
+            Destination destination;
+            while ((destination = latest.get()) == seen && !isClosed) {
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            return isClosed ? null : destination;
+        } finally {
+            waitingThread = null;
+        }
+    }
+
+    // Like awaitNewerThan(seen), but gives up after the timeout and returns the destination seen
+    public Destination awaitNewerThan(Destination seen, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        waitingThread = Thread.currentThread();
+        try {
+            Destination destination;
+            long remainingNanos;
+            while ((destination = latest.get()) == seen && !isClosed && (remainingNanos = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remainingNanos);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            return isClosed ? null : destination;
+        } finally {
+            waitingThread = null;
+        }
+    }
+
+    // Releases the waiting thread for good, used when the elevator stops
+    public void close() {
+        isClosed = true;
+        unparkWaitingThread();
+    }
+
+    private void unparkWaitingThread() {
+        Thread thread = waitingThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
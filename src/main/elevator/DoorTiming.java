@@ -0,0 +1,19 @@
+package main.elevator;
+
+// How long the doors take at a stop. They stay open for the minimum dwell, or longer if the passengers getting in and
+// out need more time one after the other.
+public record DoorTiming(long openingMillis, long closingMillis, long minimumDwellMillis, long dwellPerPassengerMillis) {
+
+    public static final DoorTiming INSTANT = new DoorTiming(0, 0, 0, 0);
+    // Centre-opening doors of a passenger elevator
+    public static final DoorTiming STANDARD = new DoorTiming(2000, 3000, 2000, 1200);
+
+    // The dwell is a setting of the controller, where the other times depend on the doors
+    public DoorTiming withMinimumDwell(long minimumDwellMillis) {
+        return new DoorTiming(openingMillis, closingMillis, minimumDwellMillis, dwellPerPassengerMillis);
+    }
+
+    public long stopTimeMillis(int passengersMoved) {
+        return openingMillis + Math.max(minimumDwellMillis, passengersMoved * dwellPerPassengerMillis) + closingMillis;
+    }
+}
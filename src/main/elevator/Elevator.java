@@ -6,15 +6,25 @@ import main.building.Building;
 import main.Direction;
 import main.building.Floor;
 import main.passenger.Passenger;
-import main.button.Button;
+import main.button.PressedFloors;
+import main.simulation.SimulationClock;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Elevator implements Stoppable {
 
-    private static final Integer TIME_TO_MOVE_BETWEEN_FLOORS = 500;
+    public static final long SLEEPING = -1;
+    // Speed of elevators built without kinematics of their own
+    public static final Integer TIME_TO_MOVE_BETWEEN_FLOORS = 500;
+    private static final int NO_TRIP = -1;
+    private static final long NO_DEPARTURE = -1;
 
     private final CustomLogger logger;
 
@@ -23,59 +33,143 @@ public class Elevator implements Stoppable {
 
     private final Building building;
     private final Integer capacity;
-    private final List<Passenger> passengers = new ArrayList<>();
+    private final CarOccupancy occupancy;
     private final PassengerManager passengerManager;
+    private final Kinematics kinematics;
+    private final SimulationClock clock;
 
-    private final Collection<ElevatorButton> elevatorButtons = Collections.synchronizedCollection(new ArrayList<>());
+    private final List<Runnable> idleListeners = new CopyOnWriteArrayList<>();
+
+    // One bit per floor number of the whole tower, which the routing and dispatch strategies scan alongside the hall calls
+    private final PressedFloors carCalls;
+    // One per floor served, in the order of the building's floors
+    private final List<ElevatorButton> elevatorButtons;
     private final AtomicInteger currentFloorNumber;
     private final AtomicBoolean elevatorIsStopped = new AtomicBoolean(true);
     private final ElevatorDirection movementDirection = new ElevatorDirection(Direction.UP);
-    private Integer destinationFloorNumber;
+    // Destinations posted by the control system, also the only way to wake the elevator thread up
+    private final DestinationMailbox destinations = new DestinationMailbox();
+    // Trip in progress, from leaving one floor to stopping at another, or NO_TRIP. Written by the thread moving the
+    // elevator and read by the control system to work out where the car is on the way.
+    private volatile int tripDestinationFloorNumber = NO_TRIP;
+    private volatile int tripOriginFloorNumber;
+    private volatile long tripDepartureTimeMillis;
+    private long tripArrivalTimeMillis;
+    // Latest destination already considered for changing the trip in progress, so each one is only checked once
+    private Destination checkedDestination;
+    // When the doors of the last stop have closed again
+    private long doorsClosedTimeMillis;
+
+    // Only updated by the thread moving the elevator, published for monitoring
+    private final AtomicLong floorsTravelled = new AtomicLong();
+    private final AtomicLong stopsMade = new AtomicLong();
+    // Round trips start and end with leaving the lowest floor served, the lobby of the elevator's zone
+    private final int homeFloorNumber;
+    private long homeDepartureTimeMillis = NO_DEPARTURE;
+    private final AtomicLong roundTrips = new AtomicLong();
+    private final AtomicLong totalRoundTripMillis = new AtomicLong();
 
     public Elevator(Integer capacity, Building building, Integer currentFloorNumber, CustomLogger logger) {
+        this(capacity, building, currentFloorNumber, new PassengerManager(logger), logger);
+    }
+
+    public Elevator(Integer capacity, Building building, Integer currentFloorNumber, PassengerManager passengerManager, CustomLogger logger) {
+        this(capacity, building, currentFloorNumber, passengerManager,
+                Kinematics.constantSpeed(building.getFloorCount(), TIME_TO_MOVE_BETWEEN_FLOORS), logger);
+    }
+
+    public Elevator(Integer capacity, Building building, Integer currentFloorNumber, PassengerManager passengerManager,
+                    Kinematics kinematics, CustomLogger logger) {
         this.logger = logger;
         this.building = building;
         this.capacity = capacity;
         this.currentFloorNumber = new AtomicInteger(currentFloorNumber);
-        this.passengerManager = new PassengerManager(logger);
-        synchronized (elevatorButtons) {
-            building.getFloors().forEach(floor -> elevatorButtons.add(new ElevatorButton(floor.floorNumber)));
+        this.passengerManager = passengerManager;
+        this.kinematics = kinematics;
+        this.clock = passengerManager.getClock();
+        this.occupancy = new CarOccupancy(building);
+        this.carCalls = new PressedFloors(building.getFloorCount());
+        List<ElevatorButton> elevatorButtons = new ArrayList<>();
+        for (Floor floor : building.getFloors()) {
+            elevatorButtons.add(new ElevatorButton(floor.floorNumber, carCalls));
         }
+        this.elevatorButtons = Collections.unmodifiableList(elevatorButtons);
+        this.homeFloorNumber = building.getFloors().get(0).floorNumber;
     }
 
     private void goToDestinationFloor(Integer destinationFloorNumber) {
-        logger.logPassengers("Passengers: " + passengers);
+        logger.logPassengers("Passengers: %s", occupancy);
 
         if (atDestination(destinationFloorNumber)) {
             openDoors(destinationFloorNumber);
         } else {
-            moveTo(destinationFloorNumber);
+            travelTo(destinationFloorNumber);
         }
         releaseButtons();
-        loadAndUnloadPassengers();
+        int passengersMoved = loadAndUnloadPassengers();
+        waitForDoors(kinematics.doorTimeMillis(passengersMoved));
     }
 
     private void openDoors(Integer destinationFloorNumber) {
-        logger.logElevator("Already at destination floor: " + destinationFloorNumber);
+        logger.logElevator("Already at destination floor: %s", destinationFloorNumber);
     }
 
-    private void moveTo(Integer destinationFloorNumber) {
-        logger.logElevator("Moving to destination floor: " + destinationFloorNumber);
-        elevatorIsStopped.set(false);
-        while (!atDestination(destinationFloorNumber)) {
-            if (hasNewDestinationOnTheWay(destinationFloorNumber)) {
-                logger.logElevator(String.format("Destination overridden: %s -> %s", destinationFloorNumber, this.destinationFloorNumber));
-                destinationFloorNumber = this.destinationFloorNumber;
+    // Sleeps until the arrival, unless a new destination comes in on the way and the car can still brake for it
+    private void travelTo(int destinationFloorNumber) {
+        depart(destinationFloorNumber, clock.currentTimeMillis());
+        long remainingMillis;
+        while (shouldRun && (remainingMillis = tripArrivalTimeMillis - clock.currentTimeMillis()) > 0) {
+            try {
+                destinations.awaitNewerThan(checkedDestination, remainingMillis);
+            } catch (InterruptedException e) {
+                logger.logError(e);
+                break;
             }
-            makeStepTo(destinationFloorNumber);
-            logger.logElevator(String.format("Moving %s, %s/%s", movementDirection, currentFloorNumber, building.getFloorCount()));
+            changeTripIfPossible(clock.currentTimeMillis());
         }
-        elevatorIsStopped.set(true);
+        arrive();
+    }
+
+    // The whole trip is one move, its arrival time worked out from the kinematics instead of stepping floor by floor
+    private void depart(int destinationFloorNumber, long now) {
+        logger.logElevator("Moving to destination floor: %s", destinationFloorNumber);
+        int originFloorNumber = currentFloorNumber.get();
+        movementDirection.setDirection(destinationFloorNumber > originFloorNumber ? Direction.UP : Direction.DOWN);
+        tripOriginFloorNumber = originFloorNumber;
+        tripDepartureTimeMillis = now;
+        if (originFloorNumber == homeFloorNumber) {
+            recordRoundTrip(now);
+        }
+        tripArrivalTimeMillis = now + kinematics.travelTimeMillis(originFloorNumber, destinationFloorNumber);
+        checkedDestination = destinations.peek();
+        elevatorIsStopped.set(false);
+        tripDestinationFloorNumber = destinationFloorNumber;
     }
 
-    private boolean hasNewDestinationOnTheWay(int dest) {
-        return !this.destinationFloorNumber.equals(dest)
-                && isIntermediateDestination(currentFloorNumber.get(), dest, this.destinationFloorNumber);
+    // A new destination between the floor the car left and the end of its trip becomes the end of the trip, as long as
+    // the car has not started braking for it yet
+    private void changeTripIfPossible(long now) {
+        Destination destination = destinations.peek();
+        if (destination == null || destination == checkedDestination) {
+            return;
+        }
+        checkedDestination = destination;
+        int newDestinationFloorNumber = destination.floorNumber();
+        if (!isIntermediateDestination(tripOriginFloorNumber, tripDestinationFloorNumber, newDestinationFloorNumber)
+                || now - tripDepartureTimeMillis > kinematics.latestBrakingTimeMillis(tripOriginFloorNumber, newDestinationFloorNumber)) {
+            return;
+        }
+        logger.logElevator("Destination overridden: %s -> %s", tripDestinationFloorNumber, newDestinationFloorNumber);
+        tripArrivalTimeMillis = tripDepartureTimeMillis + kinematics.travelTimeMillis(tripOriginFloorNumber, newDestinationFloorNumber);
+        tripDestinationFloorNumber = newDestinationFloorNumber;
+    }
+
+    private void recordRoundTrip(long now) {
+        if (homeDepartureTimeMillis != NO_DEPARTURE) {
+            roundTrips.incrementAndGet();
+            totalRoundTripMillis.addAndGet(now - homeDepartureTimeMillis);
+        }
+        homeDepartureTimeMillis = now;
     }
 
     private boolean isIntermediateDestination(int floor, int oldDest, int newDest) {
@@ -84,41 +178,41 @@ public class Elevator implements Stoppable {
                 : newDest < floor && newDest > oldDest;
     }
 
-    private void makeStepTo(Integer destinationFloorNumber) {
-        if (currentFloorNumber.get() < destinationFloorNumber) {
-            currentFloorNumber.incrementAndGet();
-            movementDirection.setDirection(Direction.UP);
-        } else {
-            currentFloorNumber.decrementAndGet();
-            movementDirection.setDirection(Direction.DOWN);
-        }
-        simulateElevatorMovingTime();
+    private void arrive() {
+        int destinationFloorNumber = tripDestinationFloorNumber;
+        floorsTravelled.addAndGet(Math.abs(destinationFloorNumber - tripOriginFloorNumber));
+        currentFloorNumber.set(destinationFloorNumber);
+        tripDestinationFloorNumber = NO_TRIP;
+        elevatorIsStopped.set(true);
+        logger.logElevator("Arrived at floor %s/%s", destinationFloorNumber, building.getFloorCount());
     }
 
+    // Only the hall button of the direction the elevator leaves in is answered, the passengers going the other way
+    // keep their call
     private void releaseButtons() {
-        synchronized (elevatorButtons) {
-            elevatorButtons.stream()
-                    .filter(button -> button.getFloorNumber().equals(currentFloorNumber.get()))
-                    .findFirst()
-                    .ifPresent(Button::release);
-        }
-        synchronized (building.getFloors()) {
-            building.getFloors().stream()
-                    .filter(floor -> floor.floorNumber.equals(currentFloorNumber.get()))
-                    .findFirst()
-                    .ifPresent(floor -> floor.getButton().release());
-        }
+        int floorNumber = currentFloorNumber.get();
+        Destination destination = destinations.peek();
+        Direction direction = destination != null && atDestination(destination.floorNumber())
+                ? destination.serviceDirection()
+                : movementDirection.getDirection();
+        movementDirection.setDirection(direction);
+        getElevatorButton(floorNumber).release();
+        building.getFloorByNumber(floorNumber).getButton(direction).release();
     }
 
-    private void loadAndUnloadPassengers() {
+    // Returns the number of passengers who got in or out, which the doors stay open for
+    private int loadAndUnloadPassengers() {
         Floor currentFloor = this.building.getFloorByNumber(currentFloorNumber.get());
-        passengerManager.unloadPassengers(currentFloor, passengers);
-        passengerManager.loadPassengers(currentFloor, this);
+        stopsMade.incrementAndGet();
+        return passengerManager.unloadPassengers(currentFloor, occupancy) + passengerManager.loadPassengers(currentFloor, this);
     }
 
-    private void simulateElevatorMovingTime() {
+    private void waitForDoors(long doorTimeMillis) {
+        if (doorTimeMillis == 0) {
+            return;
+        }
         try {
-            Thread.sleep(TIME_TO_MOVE_BETWEEN_FLOORS);
+            Thread.sleep(doorTimeMillis);
         } catch (InterruptedException e) {
             logger.logError(e);
         }
@@ -128,32 +222,90 @@ public class Elevator implements Stoppable {
         return Objects.equals(currentFloorNumber.get(), destinationFloorNumber);
     }
 
-    private boolean isStopped() {
+    public boolean isStopped() {
         return elevatorIsStopped.get();
     }
 
     public Integer getDestinationFloorNumber() {
-        return destinationFloorNumber;
+        Destination destination = destinations.peek();
+        return destination != null ? destination.floorNumber() : null;
     }
 
-    public void setDestinationFloorNumber(Integer destinationFloorNumber) {
-        this.destinationFloorNumber = destinationFloorNumber;
+    // Direction of the passengers to take in at the destination
+    public Direction getServiceDirection() {
+        Destination destination = destinations.peek();
+        return destination != null ? destination.serviceDirection() : Direction.UP;
     }
 
-    public synchronized Collection<ElevatorButton> getElevatorButtons() {
+    // Wakes the elevator if it is waiting for calls. Sending the destination it already has makes it stop there again.
+    public void setDestination(Integer destinationFloorNumber, Direction serviceDirection) {
+        destinations.post(new Destination(destinationFloorNumber, serviceDirection));
+        isSleeping = false;
+    }
+
+    public Collection<ElevatorButton> getElevatorButtons() {
         return this.elevatorButtons;
     }
 
-    public Integer getCurrentFloorNumber() {
-        return currentFloorNumber.get();
+    // Null for a floor the elevator does not serve
+    public ElevatorButton getElevatorButton(int floorNumber) {
+        int floorIndex = building.getFloorIndex(floorNumber);
+        return floorIndex != Building.NOT_SERVED ? elevatorButtons.get(floorIndex) : null;
+    }
+
+    public PressedFloors getCarCalls() {
+        return carCalls;
+    }
+
+    // The floor the car is stopped at, or on its way the last floor it can no longer stop at
+    public int getCurrentFloorNumber() {
+        int destinationFloorNumber = tripDestinationFloorNumber;
+        if (destinationFloorNumber == NO_TRIP) {
+            return currentFloorNumber.get();
+        }
+        return kinematics.lastFloorPassed(tripOriginFloorNumber, destinationFloorNumber, clock.currentTimeMillis() - tripDepartureTimeMillis);
+    }
+
+    public Kinematics getKinematics() {
+        return kinematics;
+    }
+
+    // True while the car is on its way and the control system has sent a destination it has not considered yet
+    public boolean hasUncheckedDestination() {
+        return tripDestinationFloorNumber != NO_TRIP && destinations.peek() != checkedDestination;
     }
 
     public Integer getElevatorCapacity() {
         return capacity;
     }
 
+    // A copy, safe to read from any thread
     public List<Passenger> getPassengers() {
-        return passengers;
+        return occupancy.toList();
+    }
+
+    public CarOccupancy getOccupancy() {
+        return occupancy;
+    }
+
+    public int getPassengerCount() {
+        return occupancy.size();
+    }
+
+    public long getFloorsTravelled() {
+        return floorsTravelled.get();
+    }
+
+    public long getStopsMade() {
+        return stopsMade.get();
+    }
+
+    public long getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    public long getTotalRoundTripMillis() {
+        return totalRoundTripMillis.get();
     }
 
     public void setMovementDirection(Direction movementDirection) {
@@ -166,41 +318,158 @@ public class Elevator implements Stoppable {
         return this.movementDirection.getDirection();
     }
 
-    public void wakeUp() {
-        synchronized (this) {
-            notify();
-            isSleeping = false;
-        }
-    }
-
     @Override
     public void run() {
-        logger.logElevator(String.format("Started at floor %s", currentFloorNumber));
+        logger.logElevator("Started at floor %s", currentFloorNumber);
         while (shouldRun) {
-            waitIfNeeded();
-            Integer lockedDest = destinationFloorNumber;
-            goToDestinationFloor(lockedDest);
+            Destination destination = awaitDestination();
+            if (destination != null) {
+                goToDestinationFloor(destination.floorNumber());
+            }
         }
         logger.logElevator("Stopped");
     }
 
-    private void waitIfNeeded() {
-        if (atDestination(destinationFloorNumber) || destinationFloorNumber == null) {
-            try {
-                logger.logElevator("Waiting for calls");
-                synchronized (this) {
-                    isSleeping = true;
-                    wait();
-                }
-            } catch (InterruptedException e) {
-                logger.logError(e);
+    // Non-blocking counterpart of run() used by the discrete-event engine. Performs the next unit of work and returns
+    // the delay in milliseconds until the elevator has to be stepped again, or SLEEPING if it waits for a new
+    // destination. Stepping it earlier during a trip makes it consider the latest destination.
+    public long step() {
+        long now = clock.currentTimeMillis();
+        if (tripDestinationFloorNumber != NO_TRIP) {
+            if (now < tripArrivalTimeMillis) {
+                changeTripIfPossible(now);
+                return tripArrivalTimeMillis - now;
             }
+            arrive();
+            return finishTrip(now);
+        }
+        Integer destinationFloorNumber = getDestinationFloorNumber();
+        if (isSleeping || destinationFloorNumber == null) {
+            return goToSleep();
+        }
+        logger.logPassengers("Passengers: %s", occupancy);
+        if (atDestination(destinationFloorNumber)) {
+            openDoors(destinationFloorNumber);
+            return finishTrip(now);
+        }
+        // The doors of the last stop close before the car leaves
+        if (now < doorsClosedTimeMillis) {
+            return doorsClosedTimeMillis - now;
+        }
+        depart(destinationFloorNumber, now);
+        return tripArrivalTimeMillis - now;
+    }
+
+    private long finishTrip(long now) {
+        releaseButtons();
+        int passengersMoved = loadAndUnloadPassengers();
+        doorsClosedTimeMillis = now + kinematics.doorTimeMillis(passengersMoved);
+        return needsToWait() ? goToSleep() : doorsClosedTimeMillis - now;
+    }
+
+    private long goToSleep() {
+        if (!isSleeping) {
+            logger.logElevator("Waiting for calls");
+            isSleeping = true;
+            idleListeners.forEach(Runnable::run);
+        }
+        return SLEEPING;
+    }
+
+    private boolean needsToWait() {
+        Integer destinationFloorNumber = getDestinationFloorNumber();
+        return destinationFloorNumber == null || atDestination(destinationFloorNumber);
+    }
+
+    // Returns the destination to go to next, waiting for a new one if the elevator is already there. Any destination
+    // posted after the check wakes the elevator, including one posted by the idle listeners. Returns null if the
+    // elevator is stopped or interrupted while waiting.
+    private Destination awaitDestination() {
+        Destination destination = destinations.peek();
+        if (destination != null && !atDestination(destination.floorNumber())) {
+            return destination;
+        }
+        logger.logElevator("Waiting for calls");
+        isSleeping = true;
+        idleListeners.forEach(Runnable::run);
+        try {
+            destination = destinations.awaitNewerThan(destination);
+        } catch (InterruptedException e) {
+            logger.logError(e);
+            return null;
         }
+        isSleeping = false;
+        return destination;
     }
 
     @Override
     public void stop() {
         shouldRun = false;
+        destinations.close();
+    }
+
+    // Only consistent between two steps of an elevator driven by step(), as a thread running it would change it meanwhile
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(currentFloorNumber.get());
+        out.writeByte(movementDirection.getDirection().ordinal());
+        out.writeBoolean(elevatorIsStopped.get());
+        out.writeBoolean(isSleeping);
+        Destination destination = destinations.peek();
+        out.writeBoolean(destination != null);
+        if (destination != null) {
+            out.writeInt(destination.floorNumber());
+            out.writeByte(destination.serviceDirection().ordinal());
+        }
+        out.writeInt(tripDestinationFloorNumber);
+        out.writeInt(tripOriginFloorNumber);
+        out.writeLong(tripDepartureTimeMillis);
+        out.writeLong(tripArrivalTimeMillis);
+        out.writeBoolean(destination != null && destination == checkedDestination);
+        out.writeLong(doorsClosedTimeMillis);
+        List<Passenger> passengers = occupancy.toList();
+        out.writeInt(passengers.size());
+        for (Passenger passenger : passengers) {
+            passenger.writeTo(out);
+        }
+        carCalls.writeTo(out);
+        out.writeLong(floorsTravelled.get());
+        out.writeLong(stopsMade.get());
+        out.writeLong(homeDepartureTimeMillis);
+        out.writeLong(roundTrips.get());
+        out.writeLong(totalRoundTripMillis.get());
+    }
+
+    // Only into an elevator that has not been started yet
+    public void readState(DataInput in) throws IOException {
+        currentFloorNumber.set(in.readInt());
+        movementDirection.setDirection(Direction.values()[in.readByte()]);
+        elevatorIsStopped.set(in.readBoolean());
+        boolean wasSleeping = in.readBoolean();
+        if (in.readBoolean()) {
+            setDestination(in.readInt(), Direction.values()[in.readByte()]);
+        }
+        isSleeping = wasSleeping;
+        tripDestinationFloorNumber = in.readInt();
+        tripOriginFloorNumber = in.readInt();
+        tripDepartureTimeMillis = in.readLong();
+        tripArrivalTimeMillis = in.readLong();
+        checkedDestination = in.readBoolean() ? destinations.peek() : null;
+        doorsClosedTimeMillis = in.readLong();
+        int passengerCount = in.readInt();
+        for (int i = 0; i < passengerCount; i++) {
+            occupancy.add(Passenger.readFrom(in));
+        }
+        carCalls.readFrom(in);
+        floorsTravelled.set(in.readLong());
+        stopsMade.set(in.readLong());
+        homeDepartureTimeMillis = in.readLong();
+        roundTrips.set(in.readLong());
+        totalRoundTripMillis.set(in.readLong());
+    }
+
+    // Called whenever the elevator runs out of work and starts waiting for a new destination
+    public void addIdleListener(Runnable listener) {
+        idleListeners.add(listener);
     }
 
     public boolean isNotSleeping() {
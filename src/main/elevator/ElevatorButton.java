@@ -1,9 +1,10 @@
 package main.elevator;
 
 import main.button.Button;
+import main.button.PressedFloors;
 
 public class ElevatorButton extends Button {
-    public ElevatorButton(int floorNumber) {
-        super(floorNumber);
+    public ElevatorButton(int floorNumber, PressedFloors carCalls) {
+        super(floorNumber, carCalls);
     }
 }
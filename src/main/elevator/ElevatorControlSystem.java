@@ -1,104 +1,104 @@
 package main.elevator;
 
 import main.Stoppable;
-import main.building.FloorButton;
 import main.button.Button;
+import main.button.ButtonListener;
+import main.button.HallCalls;
+import main.button.PressedFloors;
 import main.customLogger.CustomLogger;
 import main.building.Building;
 import main.Direction;
 
-import java.util.*;
-
-public class ElevatorControlSystem implements Stoppable {
-
-    private static final long POLLING_DELAY = 100;
+public class ElevatorControlSystem implements Stoppable, ButtonListener {
 
     private final CustomLogger logger;
 
     private volatile boolean shouldRun = true;
 
     private final Elevator elevator;
-    private final Building building;
-
-    private final ButtonReader buttonReader = new ButtonReader();
-    private final DestinationFinder destinationFinder = new DestinationFinder();
-
-    private final Set<Integer> destinationFloorNumbers = new TreeSet<>();
-    private final Set<FloorButton> pressedFloorButtons = new TreeSet<>(Button.buttonComparator);
-    private final Set<ElevatorButton> pressedElevatorButtons = new TreeSet<>(Button.buttonComparator);
+    private final ChangeSignal changeSignal;
+
+    private final RoutingStrategy routingStrategy;
+
+    private final PressedFloors carCalls;
+    private final HallCalls hallCalls;
+    // Every pressed hall button in the building, including the ones answered by other elevators
+    private final HallCalls waitingCalls;
+    // Answered instead of hallCalls while the elevator is full, so it does not stop for passengers it cannot take in
+    private final HallCalls noHallCalls;
+
+    // Standalone control system, answering every hall call in the building
+    public static ElevatorControlSystem standalone(Elevator elevator, Building building, CustomLogger logger) {
+        ElevatorControlSystem controlSystem = new ElevatorControlSystem(elevator, building.getHallCalls(),
+                building.getHallCalls(), new ChangeSignal(), new DestinationFinder(), logger);
+        controlSystem.listenForChanges();
+        building.getFloors().forEach(floor -> floor.getButtons().forEach(button -> button.addListener(controlSystem)));
+        return controlSystem;
+    }
 
-    public ElevatorControlSystem(Elevator elevator, Building building, CustomLogger logger) {
+    // Control system of one elevator in a group, answering only the hall calls the group sets in hallCalls
+    ElevatorControlSystem(Elevator elevator, HallCalls hallCalls, HallCalls waitingCalls, ChangeSignal changeSignal,
+                          RoutingStrategy routingStrategy, CustomLogger logger) {
         this.logger = logger;
         this.elevator = elevator;
-        this.building = building;
+        this.changeSignal = changeSignal;
+        this.routingStrategy = routingStrategy;
+        this.carCalls = elevator.getCarCalls();
+        this.hallCalls = hallCalls;
+        this.waitingCalls = waitingCalls;
+        this.noHallCalls = new HallCalls(elevator.getCarCalls().getHighestFloorNumber());
     }
 
-    private void handleElevatorCalls() {
-        detectPressedButtons();
-        getDestinations();
-        if (destinationFloorNumbers.isEmpty()) {
-            return;
-        }
-
-        if (!destinationFinder.isMoreDestinationsOnTheWay(elevator, destinationFloorNumbers)) {
-            toggleElevatorMovementDirection();
-        }
-
-        Optional<Integer> nextDestination;
-        if (elevator.getMovementDirection() == Direction.UP) {
-            nextDestination = destinationFinder.lookUp(elevator, pressedElevatorButtons, destinationFloorNumbers);
-        } else {
-            nextDestination = destinationFinder.lookBelow(elevator, destinationFloorNumbers);
-        }
-
-        nextDestination.ifPresent(this::sendDestination);
+    // Called once the control system is built, so no button can call back into a half-built one
+    void listenForChanges() {
+        elevator.getElevatorButtons().forEach(button -> button.addListener(this));
+        elevator.addIdleListener(changeSignal::signal);
     }
 
-    private void toggleElevatorMovementDirection() {
-        Direction currentDirection = elevator.getMovementDirection();
-        if (currentDirection == Direction.UP) {
-            elevator.setMovementDirection(Direction.DOWN);
-        } else {
-            elevator.setMovementDirection(Direction.UP);
-        }
-    }
-
-    private void detectPressedButtons() {
-        pressedElevatorButtons.clear();
-        pressedElevatorButtons.addAll(buttonReader.detectPressedElevatorButtons(elevator));
-
-        pressedFloorButtons.clear();
-        pressedFloorButtons.addAll(buttonReader.detectPressedFloorButtons(building));
+    // The pressed state already lives in the bitsets, so a change only has to wake the control thread
+    @Override
+    public void onButtonChanged(Button button) {
+        changeSignal.signal();
     }
 
-    private void getDestinations() {
-        destinationFloorNumbers.clear();
-        destinationFloorNumbers.addAll(destinationFinder.getDestinationFloorNumbers(pressedElevatorButtons, pressedFloorButtons));
+    public void handleElevatorCalls() {
+        HallCalls hallCalls = elevator.getPassengerCount() < elevator.getElevatorCapacity() ? this.hallCalls : noHallCalls;
+        int nextDestination = routingStrategy.selectDestination(elevator, carCalls, hallCalls);
+        if (nextDestination != PressedFloors.NONE) {
+            Direction serviceDirection = routingStrategy.getServiceDirection(elevator, nextDestination, carCalls, hallCalls, waitingCalls);
+            sendDestination(nextDestination, serviceDirection);
+        }
     }
 
-    private void sendDestination(Integer destination) {
-        if (destination.equals(elevator.getDestinationFloorNumber()) && elevator.isNotSleeping()) {
+    private void sendDestination(Integer destination, Direction serviceDirection) {
+        if (destination.equals(elevator.getDestinationFloorNumber()) && serviceDirection == elevator.getServiceDirection()
+                && elevator.isNotSleeping()) {
             return;
         }
 
-        logger.logECS("Sending destination: " + destination);
-        elevator.setDestinationFloorNumber(destination);
-        elevator.wakeUp();
+        logger.logECS("Sending destination: %s %s", destination, serviceDirection);
+        elevator.setDestination(destination, serviceDirection);
     }
 
-    private void executePollingDelay() {
-        try {
-            Thread.sleep(POLLING_DELAY);
-        } catch (InterruptedException e) {
-            logger.logError(e);
-        }
+    public Elevator getElevator() {
+        return elevator;
+    }
+
+    public ChangeSignal getChangeSignal() {
+        return changeSignal;
     }
 
     @Override
     public void run() {
         logger.logECS("Started");
+        // Decide once for calls made before start-up
+        handleElevatorCalls();
         while (shouldRun) {
-            executePollingDelay();
+            try {
+                changeSignal.await();
+            } catch (InterruptedException e) {
+                logger.logError(e);
+            }
             handleElevatorCalls();
         }
         logger.logECS("Stopped");
@@ -107,5 +107,6 @@ public class ElevatorControlSystem implements Stoppable {
     @Override
     public void stop() {
         shouldRun = false;
+        changeSignal.signal();
     }
 }
@@ -0,0 +1,356 @@
+package main.elevator;
+
+import main.Direction;
+import main.Stoppable;
+import main.building.Building;
+import main.building.Floor;
+import main.building.FloorButton;
+import main.button.Button;
+import main.button.ButtonListener;
+import main.button.HallCalls;
+import main.button.PressedFloors;
+import main.customLogger.CustomLogger;
+import main.elevator.dispatch.DestinationDispatchStrategy;
+import main.elevator.dispatch.DispatchStrategy;
+import main.elevator.parking.ParkingPolicies;
+import main.elevator.parking.ParkingPolicy;
+import main.metrics.LatencyHistogram;
+import main.passenger.Passenger;
+import main.passenger.TripStatistics;
+import main.simulation.SimulationClock;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Controls a bank of elevators. Every hall call is assigned to exactly one elevator by the dispatch strategy, and
+// each elevator then decides its route with its own ElevatorControlSystem, looking only at the calls assigned to it.
+// Under destination dispatch every passenger is assigned a car instead, at the keypad of their floor, and a hall call
+// is assigned to every car that has a passenger waiting there.
+public class ElevatorGroupControlSystem implements Stoppable, ButtonListener {
+
+    private final CustomLogger logger;
+    private final Building building;
+
+    private volatile boolean shouldRun = true;
+
+    private final List<Elevator> elevators = new ArrayList<>();
+    // Position of each elevator in elevators, which also indexes the per-car lists below
+    private final Map<Elevator, Integer> elevatorIndices = new IdentityHashMap<>();
+    private final List<ElevatorControlSystem> elevatorControlSystems = new ArrayList<>();
+    private final List<PassengerManager> passengerManagers = new ArrayList<>();
+    // Hall calls assigned to each elevator, read by that elevator's control system
+    private final List<HallCalls> assignedHallCalls = new ArrayList<>();
+    private final DispatchStrategy dispatchStrategy;
+    private final TripStatistics tripStatistics = new TripStatistics();
+    // Wall-clock nanoseconds spent per round of dispatching and routing, in both real-time and discrete-event mode
+    private final LatencyHistogram decisionLatencies = new LatencyHistogram();
+
+    // Shared by the group and every elevator's control system, so any change wakes the single control thread
+    private final ChangeSignal changeSignal = new ChangeSignal();
+    private final Queue<FloorButton> changedFloorButtons = new ConcurrentLinkedQueue<>();
+    private final HallCallAssignments hallCallAssignments = new HallCallAssignments();
+
+    private volatile ParkingPolicy parkingPolicy = ParkingPolicies.STAY_WHERE_IDLE;
+    // Reused for every round of decisions
+    private final List<Elevator> idleElevators = new ArrayList<>();
+
+    // Only set under destination dispatch
+    private final DestinationDispatchStrategy destinationDispatchStrategy;
+    private final Queue<Passenger> registeredPassengers = new ConcurrentLinkedQueue<>();
+    private final Queue<Passenger> boardedPassengers = new ConcurrentLinkedQueue<>();
+    // Passengers assigned to each elevator that have not boarded it yet, only touched by the control thread
+    private final List<List<Passenger>> pendingPassengers = new ArrayList<>();
+
+    public static ElevatorGroupControlSystem create(Building building, int numberOfElevators, int elevatorCapacity,
+                                                    DispatchStrategy dispatchStrategy, SimulationClock clock,
+                                                    CustomLogger logger) {
+        return create(building, numberOfElevators, elevatorCapacity, dispatchStrategy, DestinationFinder::new,
+                Kinematics.constantSpeed(building.getFloorCount(), Elevator.TIME_TO_MOVE_BETWEEN_FLOORS), clock, logger);
+    }
+
+    public static ElevatorGroupControlSystem create(Building building, int numberOfElevators, int elevatorCapacity,
+                                                    DispatchStrategy dispatchStrategy,
+                                                    Supplier<RoutingStrategy> routingStrategyFactory,
+                                                    Kinematics kinematics, SimulationClock clock, CustomLogger logger) {
+        ElevatorGroupControlSystem groupControlSystem = new ElevatorGroupControlSystem(building, numberOfElevators,
+                elevatorCapacity, dispatchStrategy, routingStrategyFactory, kinematics, clock, logger);
+        groupControlSystem.listenForChanges();
+        return groupControlSystem;
+    }
+
+    private ElevatorGroupControlSystem(Building building, int numberOfElevators, int elevatorCapacity, DispatchStrategy dispatchStrategy,
+                                       Supplier<RoutingStrategy> routingStrategyFactory, Kinematics kinematics,
+                                       SimulationClock clock, CustomLogger logger) {
+        this.logger = logger;
+        this.building = building;
+        this.dispatchStrategy = dispatchStrategy;
+        this.destinationDispatchStrategy = dispatchStrategy instanceof DestinationDispatchStrategy destinationDispatch
+                ? destinationDispatch : null;
+        for (int i = 0; i < numberOfElevators; i++) {
+            // Spread the elevators evenly over the floors they serve
+            int startingFloorNumber = building.getFloors().get(i * building.getFloors().size() / numberOfElevators).floorNumber;
+            PassengerManager passengerManager = new PassengerManager(logger, clock, tripStatistics, i + 1);
+            passengerManagers.add(passengerManager);
+            Elevator elevator = new Elevator(elevatorCapacity, building, startingFloorNumber, passengerManager, kinematics, logger);
+            HallCalls hallCalls = new HallCalls(building.getFloorCount());
+            elevatorIndices.put(elevator, elevators.size());
+            elevators.add(elevator);
+            assignedHallCalls.add(hallCalls);
+            pendingPassengers.add(new ArrayList<>());
+            elevatorControlSystems.add(new ElevatorControlSystem(elevator, hallCalls, building.getHallCalls(), changeSignal,
+                    routingStrategyFactory.get(), logger));
+        }
+    }
+
+    // Called once the group is built, so no button, keypad or elevator can call back into a half-built one
+    private void listenForChanges() {
+        elevatorControlSystems.forEach(ElevatorControlSystem::listenForChanges);
+        if (destinationDispatchStrategy != null) {
+            building.getFloors().forEach(floor -> floor.setDestinationKeypad(this::registerDestination));
+            passengerManagers.forEach(passengerManager -> passengerManager.setBoardingListener(boardedPassengers::add));
+            return;
+        }
+        changedFloorButtons.addAll(new ButtonReader().detectPressedFloorButtons(building));
+        building.getFloors().forEach(floor -> floor.getButtons().forEach(button -> button.addListener(this)));
+    }
+
+    // Called on the thread of whoever brings the passenger to the floor, before the passenger joins the queue
+    private void registerDestination(Passenger passenger) {
+        passenger.assignElevator(Passenger.AWAITING_ASSIGNMENT);
+        registeredPassengers.add(passenger);
+        changeSignal.signal();
+    }
+
+    @Override
+    public void onButtonChanged(Button button) {
+        changedFloorButtons.add((FloorButton) button);
+        changeSignal.signal();
+    }
+
+    public void handleElevatorCalls() {
+        long startTime = System.nanoTime();
+        if (destinationDispatchStrategy != null) {
+            assignRegisteredPassengers();
+        } else {
+            dispatchHallCallChanges();
+        }
+        elevatorControlSystems.forEach(ElevatorControlSystem::handleElevatorCalls);
+        parkIdleElevators();
+        decisionLatencies.record(System.nanoTime() - startTime);
+    }
+
+    // New hall calls go to the elevator picked by the dispatch strategy, released ones to the elevator that had them
+    private void dispatchHallCallChanges() {
+        FloorButton button;
+        while ((button = changedFloorButtons.poll()) != null) {
+            int floorNumber = button.getFloorNumber();
+            Direction direction = button.getDirection();
+            Elevator assignedElevator = hallCallAssignments.getAssignedElevator(floorNumber, direction);
+            if (button.isPressed() && assignedElevator == null) {
+                assignedElevator = dispatchStrategy.selectElevator(floorNumber, direction, elevators, hallCallAssignments);
+                hallCallAssignments.assign(floorNumber, direction, assignedElevator);
+                int elevatorIndex = indexOf(assignedElevator);
+                assignedHallCalls.get(elevatorIndex).get(direction).set(floorNumber);
+                logger.logECS("Hall call at floor %s %s assigned to elevator %s", floorNumber, direction, elevatorIndex + 1);
+            } else if (!button.isPressed() && assignedElevator != null) {
+                hallCallAssignments.release(floorNumber, direction);
+                assignedHallCalls.get(indexOf(assignedElevator)).get(direction).clear(floorNumber);
+            }
+        }
+    }
+
+    // Elevators left without passengers and calls once every call has been answered are sent where the parking policy
+    // expects the next passengers. Nobody waits at the parking floor, so the direction to serve there does not matter.
+    private void parkIdleElevators() {
+        idleElevators.clear();
+        for (int i = 0; i < elevators.size(); i++) {
+            Elevator elevator = elevators.get(i);
+            HallCalls hallCalls = assignedHallCalls.get(i);
+            if (elevator.getPassengerCount() == 0 && elevator.getCarCalls().isEmpty()
+                    && hallCalls.get(Direction.UP).isEmpty() && hallCalls.get(Direction.DOWN).isEmpty()) {
+                idleElevators.add(elevator);
+            }
+        }
+        ParkingPolicy parkingPolicy = this.parkingPolicy;
+        for (Elevator elevator : idleElevators) {
+            int parkingFloorNumber = parkingPolicy.selectParkingFloor(elevator, idleElevators);
+            if (parkingFloorNumber != ParkingPolicy.STAY && parkingFloorNumber != ParkingPolicy.getParkedFloorNumber(elevator)) {
+                logger.logECS("Parking elevator %s at floor %s", indexOf(elevator) + 1, parkingFloorNumber);
+                elevator.setDestination(parkingFloorNumber, Direction.UP);
+            }
+        }
+    }
+
+    private int indexOf(Elevator elevator) {
+        return elevatorIndices.get(elevator);
+    }
+
+    // A car keeps the hall call of a floor and direction as long as a passenger assigned to it waits there
+    private void assignRegisteredPassengers() {
+        Passenger passenger;
+        while ((passenger = boardedPassengers.poll()) != null) {
+            int elevatorIndex = passenger.getAssignedElevatorNumber() - 1;
+            pendingPassengers.get(elevatorIndex).remove(passenger);
+            if (!hasPendingPassenger(elevatorIndex, passenger.originFloorNumber, passenger.getDirection())) {
+                assignedHallCalls.get(elevatorIndex).get(passenger.getDirection()).clear(passenger.originFloorNumber);
+            }
+        }
+        while ((passenger = registeredPassengers.poll()) != null) {
+            Elevator elevator = destinationDispatchStrategy.selectElevator(passenger, elevators, pendingPassengers);
+            assignPassenger(passenger, indexOf(elevator));
+            logger.logECS("Passenger at floor %s going to %s assigned to elevator %s", passenger.originFloorNumber,
+                    passenger.destinationFloorNumber, passenger.getAssignedElevatorNumber());
+        }
+    }
+
+    private void assignPassenger(Passenger passenger, int elevatorIndex) {
+        pendingPassengers.get(elevatorIndex).add(passenger);
+        assignedHallCalls.get(elevatorIndex).get(passenger.getDirection()).set(passenger.originFloorNumber);
+        passenger.assignElevator(elevatorIndex + 1);
+    }
+
+    private boolean hasPendingPassenger(int elevatorIndex, int floorNumber, Direction direction) {
+        for (Passenger passenger : pendingPassengers.get(elevatorIndex)) {
+            if (passenger.originFloorNumber == floorNumber && passenger.getDirection() == direction) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Saves every elevator, the hall calls assigned to each and the button changes not dispatched yet. Only consistent
+    // between two rounds of decisions of a group driven by the discrete-event engine.
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(elevators.size());
+        for (int i = 0; i < elevators.size(); i++) {
+            elevators.get(i).writeState(out);
+            for (Direction direction : Direction.values()) {
+                assignedHallCalls.get(i).get(direction).writeTo(out);
+            }
+        }
+        out.writeInt(changedFloorButtons.size());
+        for (FloorButton button : changedFloorButtons) {
+            out.writeInt(button.getFloorNumber());
+            out.writeByte(button.getDirection().ordinal());
+        }
+    }
+
+    // Only into a group of the same size that has not dispatched any call yet, controlling a building already restored
+    public void readState(DataInput in) throws IOException {
+        int elevatorCount = in.readInt();
+        if (elevatorCount != elevators.size()) {
+            throw new IOException("State was saved from a group of " + elevatorCount + " elevators, not " + elevators.size());
+        }
+        changedFloorButtons.clear();
+        for (int i = 0; i < elevators.size(); i++) {
+            Elevator elevator = elevators.get(i);
+            elevator.readState(in);
+            for (Direction direction : Direction.values()) {
+                PressedFloors assignedCalls = assignedHallCalls.get(i).get(direction);
+                assignedCalls.readFrom(in);
+                for (int floorNumber = assignedCalls.lowestSetFloor(); floorNumber != PressedFloors.NONE;
+                     floorNumber = assignedCalls.nextSetFloor(floorNumber + 1)) {
+                    hallCallAssignments.assign(floorNumber, direction, elevator);
+                }
+            }
+        }
+        restoreAssignments();
+        int changedButtonCount = in.readInt();
+        for (int i = 0; i < changedButtonCount; i++) {
+            int floorNumber = in.readInt();
+            changedFloorButtons.add(building.getFloorByNumber(floorNumber).getButton(Direction.values()[in.readByte()]));
+        }
+    }
+
+    // The passengers still waiting under destination dispatch keep the car they were assigned, and the others register
+    // again at the next round of decisions, which includes every passenger of a snapshot taken under another strategy.
+    // The hall calls of each car are then those of its own passengers. Under any other strategy passengers board
+    // whichever car comes, and a call answered by several cars of a destination dispatch snapshot stays with one.
+    private void restoreAssignments() {
+        registeredPassengers.clear();
+        boardedPassengers.clear();
+        pendingPassengers.forEach(List::clear);
+        for (int i = 0; i < elevators.size(); i++) {
+            for (Direction direction : Direction.values()) {
+                PressedFloors assignedCalls = assignedHallCalls.get(i).get(direction);
+                for (int floorNumber = assignedCalls.lowestSetFloor(); floorNumber != PressedFloors.NONE;
+                     floorNumber = assignedCalls.nextSetFloor(floorNumber + 1)) {
+                    if (destinationDispatchStrategy != null || !hallCallAssignments.isAssignedTo(floorNumber, direction, elevators.get(i))) {
+                        assignedCalls.clear(floorNumber);
+                    }
+                }
+            }
+        }
+        for (Floor floor : building.getFloors()) {
+            for (Direction direction : Direction.values()) {
+                for (Passenger passenger : floor.getWaitingPassengers(direction)) {
+                    int assignedElevatorNumber = passenger.getAssignedElevatorNumber();
+                    if (destinationDispatchStrategy == null) {
+                        passenger.assignElevator(Passenger.ANY_ELEVATOR);
+                    } else if (assignedElevatorNumber < 1 || assignedElevatorNumber > elevators.size()) {
+                        passenger.assignElevator(Passenger.AWAITING_ASSIGNMENT);
+                        registeredPassengers.add(passenger);
+                    } else {
+                        assignPassenger(passenger, assignedElevatorNumber - 1);
+                    }
+                }
+            }
+        }
+    }
+
+    // Takes effect at the next round of decisions
+    public void setParkingPolicy(ParkingPolicy parkingPolicy) {
+        this.parkingPolicy = parkingPolicy;
+    }
+
+    // Passengers getting out at a transfer floor are handed over to the listener, see PassengerManager
+    public void setTransferListener(Consumer<Passenger> transferListener) {
+        passengerManagers.forEach(passengerManager -> passengerManager.setTransferListener(transferListener));
+    }
+
+    public Building getBuilding() {
+        return building;
+    }
+
+    public List<Elevator> getElevators() {
+        return Collections.unmodifiableList(elevators);
+    }
+
+    public LatencyHistogram getDecisionLatencies() {
+        return decisionLatencies;
+    }
+
+    public TripStatistics getTripStatistics() {
+        return tripStatistics;
+    }
+
+    public ChangeSignal getChangeSignal() {
+        return changeSignal;
+    }
+
+    @Override
+    public void run() {
+        logger.logECS("Group control started, %s elevators, %s", elevators.size(), dispatchStrategy.getClass().getSimpleName());
+        handleElevatorCalls();
+        while (shouldRun) {
+            try {
+                changeSignal.await();
+            } catch (InterruptedException e) {
+                logger.logError(e);
+            }
+            handleElevatorCalls();
+        }
+        logger.logECS("Group control stopped");
+    }
+
+    @Override
+    public void stop() {
+        shouldRun = false;
+        changeSignal.signal();
+    }
+}
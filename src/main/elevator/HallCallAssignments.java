@@ -0,0 +1,47 @@
+package main.elevator;
+
+import main.Direction;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Maps each pressed hall call, identified by its floor number and direction, to the elevator that answers it. Calls
+// are assigned and released by the control thread only, while the dispatch strategies read them.
+public class HallCallAssignments {
+    private final Map<Integer, Elevator> assignments = new ConcurrentHashMap<>();
+    // Number of calls assigned to each elevator, kept up to date so dispatching does not scan every assignment per car
+    private final Map<Elevator, AtomicInteger> assignedCounts = new ConcurrentHashMap<>();
+
+    public void assign(int floorNumber, Direction direction, Elevator elevator) {
+        Elevator previousElevator = assignments.put(key(floorNumber, direction), elevator);
+        if (previousElevator != null) {
+            assignedCounts.get(previousElevator).decrementAndGet();
+        }
+        assignedCounts.computeIfAbsent(elevator, assignedElevator -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public void release(int floorNumber, Direction direction) {
+        Elevator assignedElevator = assignments.remove(key(floorNumber, direction));
+        if (assignedElevator != null) {
+            assignedCounts.get(assignedElevator).decrementAndGet();
+        }
+    }
+
+    public Elevator getAssignedElevator(int floorNumber, Direction direction) {
+        return assignments.get(key(floorNumber, direction));
+    }
+
+    public boolean isAssignedTo(int floorNumber, Direction direction, Elevator elevator) {
+        return assignments.get(key(floorNumber, direction)) == elevator;
+    }
+
+    public int countAssignedTo(Elevator elevator) {
+        AtomicInteger count = assignedCounts.get(elevator);
+        return count != null ? count.get() : 0;
+    }
+
+    private static int key(int floorNumber, Direction direction) {
+        return floorNumber * 2 + direction.ordinal();
+    }
+}
@@ -0,0 +1,147 @@
+package main.elevator;
+
+import java.util.Arrays;
+
+// Travel times of a car with a maximum speed, acceleration and jerk, between floors at given levels. A trip ramps the
+// acceleration up and down at the jerk limit until the car reaches its maximum speed, cruises, and brakes the same way.
+// Trips too short to reach the maximum speed brake as soon as they stop accelerating, and the shortest ones never
+// reach the maximum acceleration either. Times come straight from the closed form of that profile, so a trip of any
+// length costs the same to compute. An infinite acceleration and jerk give the constant speed of the original model.
+public class Kinematics {
+
+    // A mid-rise passenger elevator, in metres and seconds
+    public static final double STANDARD_FLOOR_HEIGHT_METERS = 3.5;
+    public static final double STANDARD_MAX_SPEED = 2.5;
+    public static final double STANDARD_ACCELERATION = 1.0;
+    public static final double STANDARD_JERK = 1.5;
+    private static final double MILLIS_PER_SECOND = 1000;
+
+    // Level of each floor in metres above the lowest, indexed by floor number, index 0 is unused
+    private final double[] floorLevels;
+    private final double maxSpeed;
+    private final double acceleration;
+    private final double jerk;
+    private final DoorTiming doorTiming;
+    // Time to go from standing to the maximum speed, which is also the time to brake from it
+    private final double fullRampSeconds;
+
+    // Floor heights are the distance from each floor to the one above, from the lowest floor up
+    public Kinematics(double[] floorHeightsMeters, double maxSpeed, double acceleration, double jerk, DoorTiming doorTiming) {
+        if (!(maxSpeed > 0 && acceleration > 0 && jerk > 0)) {
+            throw new IllegalArgumentException("Expected a positive speed, acceleration and jerk, got: " + maxSpeed + ", "
+                    + acceleration + " and " + jerk);
+        }
+        this.floorLevels = new double[floorHeightsMeters.length + 2];
+        for (int i = 0; i < floorHeightsMeters.length; i++) {
+            floorLevels[i + 2] = floorLevels[i + 1] + floorHeightsMeters[i];
+        }
+        this.maxSpeed = maxSpeed;
+        this.acceleration = acceleration;
+        this.jerk = jerk;
+        this.doorTiming = doorTiming;
+        this.fullRampSeconds = rampSeconds(maxSpeed);
+    }
+
+    // One floor per TIME_TO_MOVE_BETWEEN_FLOORS and no time at stops, like elevators moved floor by floor
+    public static Kinematics constantSpeed(int floorCount, long millisPerFloor) {
+        return uniform(floorCount, STANDARD_FLOOR_HEIGHT_METERS, STANDARD_FLOOR_HEIGHT_METERS * MILLIS_PER_SECOND / millisPerFloor,
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, DoorTiming.INSTANT);
+    }
+
+    // A mid-rise passenger elevator
+    public static Kinematics standard(int floorCount) {
+        return standard(floorCount, DoorTiming.STANDARD);
+    }
+
+    public static Kinematics standard(int floorCount, DoorTiming doorTiming) {
+        return uniform(floorCount, STANDARD_FLOOR_HEIGHT_METERS, STANDARD_MAX_SPEED, STANDARD_ACCELERATION, STANDARD_JERK, doorTiming);
+    }
+
+    public static Kinematics uniform(int floorCount, double floorHeightMeters, double maxSpeed, double acceleration,
+                                     double jerk, DoorTiming doorTiming) {
+        double[] floorHeights = new double[Math.max(0, floorCount - 1)];
+        Arrays.fill(floorHeights, floorHeightMeters);
+        return new Kinematics(floorHeights, maxSpeed, acceleration, jerk, doorTiming);
+    }
+
+    public long travelTimeMillis(int fromFloorNumber, int toFloorNumber) {
+        return Math.round(travelSeconds(distance(fromFloorNumber, toFloorNumber)) * MILLIS_PER_SECOND);
+    }
+
+    // Time over a distance, for estimates that only count floors
+    public long travelTimeMillis(double distanceMeters) {
+        return Math.round(travelSeconds(distanceMeters) * MILLIS_PER_SECOND);
+    }
+
+    // Time after leaving a floor until which the car can still brake in time to stop at another one on the way. A trip
+    // to a floor further on follows the same profile up to that point.
+    public long latestBrakingTimeMillis(int fromFloorNumber, int toFloorNumber) {
+        double distance = distance(fromFloorNumber, toFloorNumber);
+        double brakingStart = distance >= maxSpeed * fullRampSeconds ? distance / maxSpeed : travelSeconds(distance) / 2;
+        return Math.round(brakingStart * MILLIS_PER_SECOND);
+    }
+
+    // Furthest floor of the trip the car can no longer stop at the given time after leaving, or the floor it left.
+    // Binary search, as the braking times grow with the distance.
+    public int lastFloorPassed(int fromFloorNumber, int toFloorNumber, long elapsedMillis) {
+        int step = toFloorNumber > fromFloorNumber ? 1 : -1;
+        int passed = 0;
+        int notPassed = Math.abs(toFloorNumber - fromFloorNumber);
+        while (notPassed - passed > 1) {
+            int middle = (passed + notPassed) >>> 1;
+            if (latestBrakingTimeMillis(fromFloorNumber, fromFloorNumber + middle * step) < elapsedMillis) {
+                passed = middle;
+            } else {
+                notPassed = middle;
+            }
+        }
+        return fromFloorNumber + passed * step;
+    }
+
+    // Time lost to a stop on the way: the doors for one passenger, and braking and speeding up again
+    public long stopTimeMillis() {
+        return doorTiming.stopTimeMillis(1) + Math.round(fullRampSeconds * MILLIS_PER_SECOND);
+    }
+
+    public long doorTimeMillis(int passengersMoved) {
+        return doorTiming.stopTimeMillis(passengersMoved);
+    }
+
+    public double getAverageFloorHeightMeters() {
+        int floorCount = floorLevels.length - 1;
+        return floorCount > 1 ? floorLevels[floorCount] / (floorCount - 1) : STANDARD_FLOOR_HEIGHT_METERS;
+    }
+
+    private double distance(int fromFloorNumber, int toFloorNumber) {
+        return Math.abs(floorLevels[toFloorNumber] - floorLevels[fromFloorNumber]);
+    }
+
+    private double travelSeconds(double distance) {
+        if (distance <= 0) {
+            return 0;
+        }
+        if (distance >= maxSpeed * fullRampSeconds) {
+            return distance / maxSpeed + fullRampSeconds;
+        }
+        // Both ramps cover the whole distance, the peak speed is whatever they reach
+        if (Double.isFinite(acceleration)) {
+            double jerkSeconds = acceleration / jerk;
+            double peakSpeed = acceleration / 2 * (Math.sqrt(jerkSeconds * jerkSeconds + 4 * distance / acceleration) - jerkSeconds);
+            if (peakSpeed >= acceleration * jerkSeconds) {
+                return 2 * (peakSpeed / acceleration + jerkSeconds);
+            }
+        }
+        double peakSpeed = Math.pow(distance * Math.sqrt(jerk) / 2, 2.0 / 3);
+        return 4 * Math.sqrt(peakSpeed / jerk);
+    }
+
+    // Time to reach the given speed from standing, with the acceleration ramped up and down at the jerk limit. Below the
+    // speed at which the acceleration would reach its maximum, it never does.
+    private double rampSeconds(double speed) {
+        double jerkSeconds = acceleration / jerk;
+        if (speed >= acceleration * jerkSeconds) {
+            return speed / acceleration + jerkSeconds;
+        }
+        return 2 * Math.sqrt(speed / jerk);
+    }
+}
@@ -0,0 +1,296 @@
+package main.elevator;
+
+import main.Direction;
+import main.building.Building;
+import main.building.Floor;
+import main.button.HallCalls;
+import main.button.PressedFloors;
+import main.simulation.SimulationClock;
+
+// Scores a few candidate stop sequences and takes the cheapest, where DestinationFinder always carries on with its
+// sweep. The candidates sweep on in the current direction, sweep the other way, or first go to the call that has
+// waited longest. The last two are only open to a stopped, empty elevator, as taking passengers away from where they
+// are going costs more round trips than it saves under heavy traffic.
+public class LookAheadRoutingStrategy implements RoutingStrategy {
+
+    // A passenger who has waited this long counts twice as much as one who just arrived
+    private static final double LONG_WAIT_SECONDS = 60;
+    private static final double MILLIS_PER_SECOND = 1000;
+
+    private final Building building;
+    private final SimulationClock clock;
+    private final DestinationFinder destinationFinder = new DestinationFinder();
+
+    // Set when the last decision goes to the longest waiting call, for getServiceDirection()
+    private int plannedDestination = PressedFloors.NONE;
+    private Direction plannedServiceDirection;
+
+    // Scratch state of the decision in progress, kept in fields so that costing a candidate allocates nothing
+    private PressedFloors carCalls;
+    private HallCalls hallCalls;
+    private Kinematics kinematics;
+    private double doorDwellSeconds;
+    private double roundTripSeconds;
+    private long now;
+    private int capacity;
+    private double ridersPerCarCall;
+    private int longestWaitingFloor;
+    private Direction longestWaitingDirection;
+    private long longestWaitingSince;
+    private int position;
+    private boolean hasStopped;
+    private double seconds;
+    private double pendingDwellSeconds;
+    private double load;
+    private double cost;
+
+    public LookAheadRoutingStrategy(Building building, SimulationClock clock) {
+        this.building = building;
+        this.clock = clock;
+    }
+
+    @Override
+    public int selectDestination(Elevator elevator, PressedFloors carCalls, HallCalls hallCalls) {
+        plannedDestination = PressedFloors.NONE;
+        if (!destinationFinder.hasDestinations(carCalls, hallCalls)) {
+            return PressedFloors.NONE;
+        }
+        this.carCalls = carCalls;
+        this.hallCalls = hallCalls;
+        kinematics = elevator.getKinematics();
+        // Travel and dwell are taken from the car's kinematics, with the doors open for one passenger at every stop
+        int floorCount = building.getFloorCount();
+        doorDwellSeconds = kinematics.doorTimeMillis(1) / MILLIS_PER_SECOND;
+        roundTripSeconds = 2 * kinematics.travelTimeMillis(1, floorCount) / MILLIS_PER_SECOND + floorCount * doorDwellSeconds;
+        now = clock.currentTimeMillis();
+        capacity = elevator.getElevatorCapacity();
+        int passengerCount = elevator.getPassengerCount();
+        ridersPerCarCall = carCalls.isEmpty() ? 0 : (double) passengerCount / carCalls.count();
+        int currentFloor = elevator.getCurrentFloorNumber();
+        Direction movementDirection = elevator.getMovementDirection();
+        // A moving elevator finishes its trip before it can turn around
+        boolean canTurnAround = elevator.isStopped() && passengerCount == 0;
+
+        Direction bestDirection = movementDirection;
+        double bestCost = costOfSweep(currentFloor, movementDirection, 0, passengerCount, Double.POSITIVE_INFINITY);
+        if (canTurnAround) {
+            double oppositeCost = costOfSweep(currentFloor, opposite(movementDirection), 0, passengerCount, bestCost);
+            if (oppositeCost < bestCost) {
+                bestCost = oppositeCost;
+                bestDirection = opposite(movementDirection);
+            }
+        }
+
+        longestWaitingFloor = PressedFloors.NONE;
+        longestWaitingSince = Long.MAX_VALUE;
+        findLongestWaitingCall(Direction.UP);
+        findLongestWaitingCall(Direction.DOWN);
+        if (longestWaitingFloor != PressedFloors.NONE) {
+            Direction towardsCall = longestWaitingFloor == currentFloor ? movementDirection
+                    : longestWaitingFloor > currentFloor ? Direction.UP : Direction.DOWN;
+            if ((canTurnAround || towardsCall == movementDirection && passengerCount == 0)
+                    && !hasStopsBefore(currentFloor, longestWaitingFloor, towardsCall)) {
+                double travelSeconds = kinematics.travelTimeMillis(currentFloor, longestWaitingFloor) / MILLIS_PER_SECOND;
+                double callFirstCost = costOfSweep(longestWaitingFloor, longestWaitingDirection, travelSeconds, passengerCount, bestCost);
+                if (callFirstCost < bestCost) {
+                    elevator.setMovementDirection(towardsCall);
+                    plannedDestination = longestWaitingFloor;
+                    plannedServiceDirection = longestWaitingDirection;
+                    return plannedDestination;
+                }
+            }
+        }
+
+        elevator.setMovementDirection(bestDirection);
+        return destinationFinder.selectDestination(elevator, carCalls, hallCalls);
+    }
+
+    @Override
+    public Direction getServiceDirection(Elevator elevator, int destination, PressedFloors carCalls, HallCalls hallCalls,
+                                         HallCalls waitingCalls) {
+        if (destination == plannedDestination) {
+            return plannedServiceDirection;
+        }
+        return destinationFinder.getServiceDirection(elevator, destination, carCalls, hallCalls, waitingCalls);
+    }
+
+    // Passing a stop on the way to the longest waiting call would leave it for the next sweep
+    private boolean hasStopsBefore(int currentFloor, int floorNumber, Direction direction) {
+        if (floorNumber == currentFloor) {
+            return false;
+        }
+        int step = direction == Direction.UP ? 1 : -1;
+        int nextStop = nearer(next(carCalls, currentFloor, step), next(hallCalls.get(direction), currentFloor, step), step);
+        return nextStop != PressedFloors.NONE && nextStop != floorNumber && isAtOrBeyond(floorNumber, nextStop, step);
+    }
+
+    private void findLongestWaitingCall(Direction direction) {
+        PressedFloors calls = hallCalls.get(direction);
+        for (int floorNumber = calls.lowestSetFloor(); floorNumber != PressedFloors.NONE; floorNumber = calls.nextSetFloor(floorNumber + 1)) {
+            long waitingSince = building.getFloorByNumber(floorNumber).getLongestWaitingSinceMillis(direction);
+            if (waitingSince != Floor.NOBODY_WAITING && waitingSince < longestWaitingSince) {
+                longestWaitingSince = waitingSince;
+                longestWaitingFloor = floorNumber;
+                longestWaitingDirection = direction;
+            }
+        }
+    }
+
+    // Cost of serving every call in collective order from the given floor and time, heading in the given direction: the
+    // passenger-seconds still ahead, riding for the passengers in the car and waiting for the queued ones. Travel and
+    // the door dwell at every stop push the later stops back, and passengers who do not fit wait another round trip.
+    // Stops are read from the bitsets in the order the elevator would make them and nothing is allocated, so a decision
+    // for a 100-floor building takes a few microseconds. Gives up as soon as the cost exceeds the bound, returning the
+    // cost so far.
+    private double costOfSweep(int startFloor, Direction direction, double startSeconds, double startLoad, double bound) {
+        position = startFloor;
+        hasStopped = false;
+        seconds = startSeconds;
+        pendingDwellSeconds = 0;
+        load = startLoad;
+        cost = 0;
+        Direction opposite = opposite(direction);
+        PressedFloors sameCalls = hallCalls.get(direction);
+        PressedFloors oppositeCalls = hallCalls.get(opposite);
+        int step = direction == Direction.UP ? 1 : -1;
+
+        // Out: car calls and calls in the sweep direction, at or beyond the start
+        for (int floor = startFloor; ; ) {
+            int carCall = next(carCalls, floor, step);
+            int sameCall = next(sameCalls, floor, step);
+            int stop = nearer(carCall, sameCall, step);
+            if (stop == PressedFloors.NONE) {
+                break;
+            }
+            stopAt(stop);
+            if (stop == carCall) {
+                serveCarCall();
+            }
+            if (stop == sameCall) {
+                serveHallCall(stop, direction);
+            }
+            if (cost > bound) {
+                return cost;
+            }
+            floor = stop + step;
+        }
+
+        // Turning around at the furthest call in the opposite direction
+        int turn = furthest(oppositeCalls, step);
+        boolean isTurnServed = turn != PressedFloors.NONE && isAtOrBeyond(turn, position, step);
+        if (isTurnServed) {
+            stopAt(turn);
+            serveHallCall(turn, opposite);
+        }
+
+        // Back: the other calls in the opposite direction, and car calls behind the start
+        for (int floor = isTurnServed ? turn - step : position; ; ) {
+            int carCall = next(carCalls, isAtOrBeyond(floor, startFloor - step, -step) ? floor : startFloor - step, -step);
+            int oppositeCall = next(oppositeCalls, floor, -step);
+            int stop = nearer(carCall, oppositeCall, -step);
+            if (stop == PressedFloors.NONE) {
+                break;
+            }
+            stopAt(stop);
+            if (stop == carCall) {
+                serveCarCall();
+            }
+            if (stop == oppositeCall) {
+                serveHallCall(stop, opposite);
+            }
+            if (cost > bound) {
+                return cost;
+            }
+            floor = stop - step;
+        }
+
+        // Turning again at the furthest call in the sweep direction left behind the start
+        int secondTurn = furthest(sameCalls, -step);
+        boolean isSecondTurnServed = secondTurn != PressedFloors.NONE && secondTurn != startFloor
+                && isAtOrBeyond(secondTurn, startFloor, -step) && isAtOrBeyond(secondTurn, position, -step);
+        if (isSecondTurnServed) {
+            stopAt(secondTurn);
+            serveHallCall(secondTurn, direction);
+        }
+
+        // Out again for the rest of the calls in the sweep direction behind the start
+        for (int floor = isSecondTurnServed ? secondTurn + step : position; ; ) {
+            int sameCall = next(sameCalls, floor, step);
+            if (sameCall == PressedFloors.NONE || isAtOrBeyond(sameCall, startFloor, step)) {
+                break;
+            }
+            stopAt(sameCall);
+            serveHallCall(sameCall, direction);
+            if (cost > bound) {
+                return cost;
+            }
+            floor = sameCall + step;
+        }
+        return cost;
+    }
+
+    // Calls answered at the floor the elevator has just stopped at share the stop
+    private void stopAt(int floorNumber) {
+        if (hasStopped && floorNumber == position) {
+            return;
+        }
+        seconds += pendingDwellSeconds + kinematics.travelTimeMillis(position, floorNumber) / MILLIS_PER_SECOND;
+        position = floorNumber;
+        hasStopped = true;
+        pendingDwellSeconds = doorDwellSeconds;
+    }
+
+    // Which passengers get out where is not known, so they are spread evenly over the car calls
+    private void serveCarCall() {
+        double alighting = Math.min(ridersPerCarCall, load);
+        cost += alighting * seconds;
+        load -= alighting;
+    }
+
+    // Everyone in the queue is costed as if they had waited as long as its head
+    private void serveHallCall(int floorNumber, Direction direction) {
+        Floor floor = building.getFloorByNumber(floorNumber);
+        int waiting = floor.getWaitingPassengerCount(direction);
+        long waitingSince = floor.getLongestWaitingSinceMillis(direction);
+        if (waiting == 0 || waitingSince == Floor.NOBODY_WAITING) {
+            return;
+        }
+        double waitedSeconds = Math.max(0, now - waitingSince) / MILLIS_PER_SECOND;
+        double boarding = Math.min(waiting, Math.max(0, capacity - load));
+        cost += boarding * waitCost(waitedSeconds, seconds)
+                + (waiting - boarding) * waitCost(waitedSeconds, roundTripSeconds);
+        load += boarding;
+    }
+
+    // Waiting counts more the longer a passenger has waited already, as the increase of its square on top of its
+    // length, which keeps a few passengers from waiting far longer than everyone else
+    private static double waitCost(double waitedSeconds, double moreSeconds) {
+        return moreSeconds * (1 + (2 * waitedSeconds + moreSeconds) / LONG_WAIT_SECONDS);
+    }
+
+    private static int next(PressedFloors floors, int fromFloorNumber, int step) {
+        return step > 0 ? floors.nextSetFloor(fromFloorNumber) : floors.previousSetFloor(fromFloorNumber);
+    }
+
+    private static int furthest(PressedFloors floors, int step) {
+        return step > 0 ? floors.highestSetFloor() : floors.lowestSetFloor();
+    }
+
+    private static int nearer(int firstFloor, int secondFloor, int step) {
+        if (firstFloor == PressedFloors.NONE) {
+            return secondFloor;
+        }
+        if (secondFloor == PressedFloors.NONE) {
+            return firstFloor;
+        }
+        return step > 0 ? Math.min(firstFloor, secondFloor) : Math.max(firstFloor, secondFloor);
+    }
+
+    private static boolean isAtOrBeyond(int floorNumber, int fromFloorNumber, int step) {
+        return step > 0 ? floorNumber >= fromFloorNumber : floorNumber <= fromFloorNumber;
+    }
+
+    private static Direction opposite(Direction direction) {
+        return direction == Direction.UP ? Direction.DOWN : Direction.UP;
+    }
+}
@@ -1,59 +1,102 @@
 package main.elevator;
 
+import main.Direction;
 import main.building.Floor;
-import main.button.Button;
 import main.customLogger.CustomLogger;
 import main.passenger.Passenger;
+import main.passenger.TripStatistics;
+import main.simulation.SimulationClock;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class PassengerManager {
 
     private final CustomLogger logger;
+    private final SimulationClock clock;
+    private final TripStatistics tripStatistics;
+    // Identifies the elevator within its bank, in the trip statistics and to destination dispatch
+    private final int elevatorNumber;
+    // Reused at every stop, so unloading allocates nothing once it has grown to a full car
+    private final List<Passenger> alightingBuffer = new ArrayList<>();
+    // Takes over the passengers whose journey goes on in another car from the floor they got out at
+    private volatile Consumer<Passenger> transferListener = passenger -> {
+    };
+    // Tells destination dispatch which of the passengers it assigned have got in
+    private volatile Consumer<Passenger> boardingListener = passenger -> {
+    };
 
     public PassengerManager(CustomLogger logger) {
+        this(logger, SimulationClock.SYSTEM, new TripStatistics(), 1);
+    }
+
+    public PassengerManager(CustomLogger logger, SimulationClock clock, TripStatistics tripStatistics, int elevatorNumber) {
         this.logger = logger;
+        this.clock = clock;
+        this.tripStatistics = tripStatistics;
+        this.elevatorNumber = elevatorNumber;
+    }
+
+    public void setTransferListener(Consumer<Passenger> transferListener) {
+        this.transferListener = transferListener;
     }
 
-    public void unloadPassengers(Floor currentFloor, List<Passenger> passengers) {
-        ArrayList<Passenger> passengersToUnload = new ArrayList<>();
-        passengers.stream()
-                .filter(passenger -> passenger.destinationFloorNumber.equals(currentFloor.floorNumber))
-                .forEach(passengersToUnload::add);
-        if (passengersToUnload.isEmpty()) {
-            return;
+    public void setBoardingListener(Consumer<Passenger> boardingListener) {
+        this.boardingListener = boardingListener;
+    }
+
+    // The elevator times its trips by the same clock its passengers are timed by
+    SimulationClock getClock() {
+        return clock;
+    }
+
+    // Only the passengers going to this floor are touched, however many others are riding. Returns how many got out.
+    public int unloadPassengers(Floor currentFloor, CarOccupancy occupancy) {
+        long now = clock.currentTimeMillis();
+        int unloadedPassengers = occupancy.drainTo(currentFloor.floorNumber, alightingBuffer);
+        for (int i = 0; i < unloadedPassengers; i++) {
+            Passenger passenger = alightingBuffer.get(i);
+            passenger.alight(now);
+            tripStatistics.recordAlighting(passenger, elevatorNumber);
+            if (!passenger.isOnFinalLeg()) {
+                transferListener.accept(passenger);
+            }
+        }
+        alightingBuffer.clear();
+        if (unloadedPassengers > 0) {
+            logger.logElevator("%s passengers arrived at their destination floor %s", unloadedPassengers, currentFloor.floorNumber);
         }
-        logger.logElevator(passengersToUnload.size() + " passengers arrived at their destination floor " + currentFloor);
-        passengers.removeAll(passengersToUnload);
+        return unloadedPassengers;
     }
 
-    public void loadPassengers(Floor currentFloor, Elevator elevator) {
+    // Boards passengers going the way the elevator leaves in until it is full. Only the boarded passengers are
+    // touched, however long the queues are, and the ones going the other way wait for an elevator in their direction.
+    // Passengers assigned to another car by destination dispatch are left waiting for it. Returns how many got in.
+    public int loadPassengers(Floor currentFloor, Elevator elevator) {
+        long now = clock.currentTimeMillis();
+        Direction direction = elevator.getMovementDirection();
+        CarOccupancy occupancy = elevator.getOccupancy();
         int newPassengers = 0;
-        Collection<Passenger> waitingPassengers = currentFloor.getWaitingPassengers();
-        synchronized (waitingPassengers) {
-            ArrayList<Passenger> passengersToLoad = new ArrayList<>();
-            for (Passenger passenger : waitingPassengers) {
-                if (elevator.getPassengers().size() + passengersToLoad.size() >= elevator.getElevatorCapacity()) {
-                    break;
-                }
-                passengersToLoad.add(passenger);
-                newPassengers++;
-                pressElevatorButton(passenger.destinationFloorNumber, elevator);
-            }
-            waitingPassengers.removeAll(passengersToLoad);
-            elevator.getPassengers().addAll(passengersToLoad);
+        Passenger passenger;
+        while (occupancy.size() < elevator.getElevatorCapacity() && (passenger = currentFloor.pollWaitingPassenger(direction, elevatorNumber)) != null) {
+            passenger.board(now);
+            tripStatistics.recordBoarding(passenger, elevatorNumber);
+            boardingListener.accept(passenger);
+            occupancy.add(passenger);
+            pressElevatorButton(passenger.destinationFloorNumber, elevator);
+            newPassengers++;
+        }
+        // The elevator is full, the ones left behind call the next one
+        if (currentFloor.hasWaitingPassengers(direction)) {
+            currentFloor.getButton(direction).press();
         }
-        logger.logElevator(String.format("New passengers: %s, total passengers: %s/%s", newPassengers, elevator.getPassengers().size(), elevator.getElevatorCapacity()));
+        logger.logElevator("New passengers: %s, total passengers: %s/%s", newPassengers, occupancy.size(), elevator.getElevatorCapacity());
+        return newPassengers;
     }
 
     private void pressElevatorButton(Integer destinationFloorNumber, Elevator elevator) {
-        synchronized (elevator.getElevatorButtons()) {
-            elevator.getElevatorButtons().stream()
-                    .filter(button -> button.getFloorNumber().equals(destinationFloorNumber))
-                    .findFirst().ifPresent(Button::press);
-        }
+        elevator.getElevatorButton(destinationFloorNumber).press();
     }
 
 }
@@ -0,0 +1,24 @@
+package main.elevator;
+
+import main.building.Building;
+import main.simulation.SimulationClock;
+
+import java.util.List;
+
+// Routing strategies by name, each elevator of a group getting its own instance
+public class RoutingStrategies {
+    public static final String SCAN = "scan";
+    public static final String LOOK_AHEAD = "lookAhead";
+    public static final List<String> NAMES = List.of(SCAN, LOOK_AHEAD);
+
+    private RoutingStrategies() {
+    }
+
+    public static RoutingStrategy byName(String name, Building building, SimulationClock clock) {
+        return switch (name) {
+            case SCAN -> new DestinationFinder();
+            case LOOK_AHEAD -> new LookAheadRoutingStrategy(building, clock);
+            default -> throw new IllegalArgumentException("Unknown routing strategy: " + name + ", expected one of " + NAMES);
+        };
+    }
+}
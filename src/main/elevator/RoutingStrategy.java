@@ -0,0 +1,17 @@
+package main.elevator;
+
+import main.Direction;
+import main.button.HallCalls;
+import main.button.PressedFloors;
+
+// Decides where one elevator stops next, from its car calls and the hall calls it answers. Called on the control
+// thread only, so an implementation may keep scratch state between decisions.
+public interface RoutingStrategy {
+
+    // Next floor to stop at, or PressedFloors.NONE if there is nothing to do. A stopped elevator may be turned around.
+    int selectDestination(Elevator elevator, PressedFloors carCalls, HallCalls hallCalls);
+
+    // Direction of the passengers the elevator takes in at the destination it was just sent to
+    Direction getServiceDirection(Elevator elevator, int destination, PressedFloors carCalls, HallCalls hallCalls,
+                                  HallCalls waitingCalls);
+}
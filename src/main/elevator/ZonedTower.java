@@ -0,0 +1,187 @@
+package main.elevator;
+
+import main.building.Building;
+import main.building.Floor;
+import main.building.Zone;
+import main.customLogger.CustomLogger;
+import main.elevator.dispatch.DispatchStrategy;
+import main.passenger.Passenger;
+import main.passenger.PassengerGenerator;
+import main.passenger.TripStatistics;
+import main.passenger.traffic.TrafficModel;
+import main.simulation.SimulationClock;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// A tall building served by several banks of elevators, each restricted to the floors of its zone and controlled by a
+// group of its own. A passenger whose destination is not in a zone serving their floor rides to a floor shared with
+// another bank, a lobby or sky lobby, and calls a car of that bank from there. Routes take the fewest cars, and the
+// transfer floor nearest to where the passenger is when two banks share several floors.
+public class ZonedTower {
+
+    private static final int NO_BANK = -1;
+
+    public record Bank(Zone zone, int numberOfElevators) {
+    }
+
+    private final int numberOfFloors;
+    private final List<Building> buildings = new ArrayList<>();
+    private final List<ElevatorGroupControlSystem> groupControlSystems = new ArrayList<>();
+    // Bank to board and the floor to get out at, indexed by the floor a passenger is at and their final destination
+    private final int[][] nextBanks;
+    private final int[][] nextFloorNumbers;
+
+    public ZonedTower(int numberOfFloors, List<Bank> banks, int elevatorCapacity, Supplier<DispatchStrategy> dispatchStrategyFactory,
+                      Function<Building, RoutingStrategy> routingStrategyFactory, Kinematics kinematics,
+                      SimulationClock clock, CustomLogger logger) {
+        this.numberOfFloors = numberOfFloors;
+        for (Bank bank : banks) {
+            if (bank.zone().getHighestFloorNumber() > numberOfFloors) {
+                throw new IllegalArgumentException("Zone " + bank.zone() + " is above the top floor " + numberOfFloors);
+            }
+            Building building = new Building(numberOfFloors, bank.zone());
+            buildings.add(building);
+            groupControlSystems.add(ElevatorGroupControlSystem.create(building, bank.numberOfElevators(), elevatorCapacity,
+                    dispatchStrategyFactory.get(), () -> routingStrategyFactory.apply(building), kinematics, clock, logger));
+        }
+        this.nextBanks = new int[numberOfFloors + 1][numberOfFloors + 1];
+        this.nextFloorNumbers = new int[numberOfFloors + 1][numberOfFloors + 1];
+        for (int floorNumber = 1; floorNumber <= numberOfFloors; floorNumber++) {
+            for (int destinationFloorNumber = 1; destinationFloorNumber <= numberOfFloors; destinationFloorNumber++) {
+                if (floorNumber != destinationFloorNumber) {
+                    route(banks, floorNumber, destinationFloorNumber);
+                }
+            }
+        }
+        groupControlSystems.forEach(groupControlSystem -> groupControlSystem.setTransferListener(this::transfer));
+    }
+
+    // Breadth-first over the banks, from those serving the floor to the first one serving the destination
+    private void route(List<Bank> banks, int floorNumber, int destinationFloorNumber) {
+        int[] previousBanks = new int[banks.size()];
+        Arrays.fill(previousBanks, NO_BANK);
+        boolean[] visited = new boolean[banks.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int i = 0; i < banks.size(); i++) {
+            if (banks.get(i).zone().serves(floorNumber)) {
+                visited[i] = true;
+                queue.add(i);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int bank = queue.poll();
+            if (banks.get(bank).zone().serves(destinationFloorNumber)) {
+                // Walk back to the first bank of the route, and the floor it hands over to the second one at
+                int next = NO_BANK;
+                while (previousBanks[bank] != NO_BANK) {
+                    next = bank;
+                    bank = previousBanks[bank];
+                }
+                nextBanks[floorNumber][destinationFloorNumber] = bank;
+                nextFloorNumbers[floorNumber][destinationFloorNumber] = next == NO_BANK ? destinationFloorNumber
+                        : nearestSharedFloorNumber(banks.get(bank).zone(), banks.get(next).zone(), floorNumber);
+                return;
+            }
+            for (int i = 0; i < banks.size(); i++) {
+                if (!visited[i] && sharedFloorNumbers(banks.get(bank).zone(), banks.get(i).zone()).length > 0) {
+                    visited[i] = true;
+                    previousBanks[i] = bank;
+                    queue.add(i);
+                }
+            }
+        }
+        throw new IllegalArgumentException("No bank of elevators connects floor " + floorNumber + " with floor " + destinationFloorNumber);
+    }
+
+    private static int[] sharedFloorNumbers(Zone zone, Zone other) {
+        return Arrays.stream(zone.floorNumbers()).filter(other::serves).toArray();
+    }
+
+    private static int nearestSharedFloorNumber(Zone zone, Zone other, int floorNumber) {
+        int nearest = 0;
+        for (int shared : sharedFloorNumbers(zone, other)) {
+            if (nearest == 0 || Math.abs(shared - floorNumber) < Math.abs(nearest - floorNumber)) {
+                nearest = shared;
+            }
+        }
+        return nearest;
+    }
+
+    // Called by the elevator that has just let the passenger out, on its own thread
+    private void transfer(Passenger passenger) {
+        int floorNumber = passenger.destinationFloorNumber;
+        int finalDestinationFloorNumber = passenger.finalDestinationFloorNumber;
+        Passenger nextLeg = passenger.transfer(nextFloorNumbers[floorNumber][finalDestinationFloorNumber]);
+        getFloor(floorNumber, finalDestinationFloorNumber).callElevator(nextLeg);
+    }
+
+    // The floor as seen by the bank the passenger boards next
+    private Floor getFloor(int floorNumber, int finalDestinationFloorNumber) {
+        return buildings.get(nextBanks[floorNumber][finalDestinationFloorNumber]).getFloorByNumber(floorNumber);
+    }
+
+    // Generates passengers on the floors of the bank each one has to board first
+    public PassengerGenerator createPassengerGenerator(CustomLogger logger, SplittableRandom random, SimulationClock clock,
+                                                       TrafficModel trafficModel) {
+        return new PassengerGenerator(buildings.get(0), logger, random, clock, trafficModel) {
+            @Override
+            protected void spawnPassenger(int startingFloorNumber, int destinationFloorNumber, long spawnTimeMillis) {
+                getFloor(startingFloorNumber, destinationFloorNumber).callElevator(new Passenger(startingFloorNumber,
+                        nextFloorNumbers[startingFloorNumber][destinationFloorNumber], destinationFloorNumber, spawnTimeMillis));
+            }
+
+            @Override
+            protected int getWaitingPassengerCount() {
+                return buildings.stream().flatMap(building -> building.getFloors().stream())
+                        .mapToInt(Floor::getWaitingPassengerCount).sum();
+            }
+        };
+    }
+
+    public List<ElevatorGroupControlSystem> getGroupControlSystems() {
+        return groupControlSystems;
+    }
+
+    public int getNumberOfFloors() {
+        return numberOfFloors;
+    }
+
+    // Passengers of every bank. Every leg counts as a ride, but only the last one of a journey as a delivery.
+    public TripStatistics getTripStatistics() {
+        TripStatistics tripStatistics = new TripStatistics();
+        groupControlSystems.forEach(groupControlSystem -> tripStatistics.add(groupControlSystem.getTripStatistics()));
+        return tripStatistics;
+    }
+
+    // Over the cars of every bank
+    public long getFloorsTravelled() {
+        return groupControlSystems.stream().flatMap(groupControlSystem -> groupControlSystem.getElevators().stream())
+                .mapToLong(Elevator::getFloorsTravelled).sum();
+    }
+
+    public long getStopsMade() {
+        return groupControlSystems.stream().flatMap(groupControlSystem -> groupControlSystem.getElevators().stream())
+                .mapToLong(Elevator::getStopsMade).sum();
+    }
+
+    // Mean time between two departures of a car from the lobby of its zone, over the cars of every bank, or 0 before
+    // the first round trip
+    public double getAverageRoundTripMillis() {
+        long roundTrips = 0;
+        long totalRoundTripMillis = 0;
+        for (ElevatorGroupControlSystem groupControlSystem : groupControlSystems) {
+            for (Elevator elevator : groupControlSystem.getElevators()) {
+                roundTrips += elevator.getRoundTrips();
+                totalRoundTripMillis += elevator.getTotalRoundTripMillis();
+            }
+        }
+        return roundTrips == 0 ? 0 : (double) totalRoundTripMillis / roundTrips;
+    }
+}
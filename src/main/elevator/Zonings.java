@@ -0,0 +1,56 @@
+package main.elevator;
+
+import main.building.Zone;
+
+import java.util.List;
+
+// Ways to split the floors and elevators of a building into banks, by name
+public class Zonings {
+    // Every car serves every floor
+    public static final String NONE = "none";
+    // A low and a high bank, both reached from the ground floor lobby
+    public static final String ZONED = "zoned";
+    // Express shuttles from the ground floor to a sky lobby halfway up, and a local bank below and above it
+    public static final String SKY_LOBBY = "skyLobby";
+    public static final List<String> NAMES = List.of(NONE, ZONED, SKY_LOBBY);
+
+    private Zonings() {
+    }
+
+    public static List<ZonedTower.Bank> byName(String name, int numberOfFloors, int numberOfElevators) {
+        return switch (name) {
+            case NONE -> List.of(new ZonedTower.Bank(Zone.allFloors(numberOfFloors), numberOfElevators));
+            case ZONED -> zoned(numberOfFloors, numberOfElevators);
+            case SKY_LOBBY -> skyLobby(numberOfFloors, numberOfElevators);
+            default -> throw new IllegalArgumentException("Unknown zoning: " + name + ", expected one of " + NAMES);
+        };
+    }
+
+    private static List<ZonedTower.Bank> zoned(int numberOfFloors, int numberOfElevators) {
+        requireAtLeast(numberOfFloors, numberOfElevators, 2, ZONED);
+        int highestLowFloor = numberOfFloors / 2;
+        int lowElevators = numberOfElevators / 2;
+        return List.of(
+                new ZonedTower.Bank(Zone.of("low", 1, 1, highestLowFloor), lowElevators),
+                new ZonedTower.Bank(Zone.of("high", 1, highestLowFloor + 1, numberOfFloors), numberOfElevators - lowElevators));
+    }
+
+    // A quarter of the cars run the shuttle, the others are shared by the two local banks
+    private static List<ZonedTower.Bank> skyLobby(int numberOfFloors, int numberOfElevators) {
+        requireAtLeast(numberOfFloors, numberOfElevators, 3, SKY_LOBBY);
+        int skyLobby = numberOfFloors / 2 + 1;
+        int shuttleElevators = Math.max(1, numberOfElevators / 4);
+        int lowElevators = (numberOfElevators - shuttleElevators) / 2;
+        return List.of(
+                new ZonedTower.Bank(Zone.of("low", 1, 1, skyLobby - 1), lowElevators),
+                new ZonedTower.Bank(new Zone("shuttle", new int[]{1, skyLobby}), shuttleElevators),
+                new ZonedTower.Bank(Zone.of("high", skyLobby, skyLobby, numberOfFloors), numberOfElevators - shuttleElevators - lowElevators));
+    }
+
+    private static void requireAtLeast(int numberOfFloors, int numberOfElevators, int banks, String name) {
+        if (numberOfElevators < banks || numberOfFloors < 2 * banks) {
+            throw new IllegalArgumentException("Zoning " + name + " needs at least " + banks + " elevators and "
+                    + 2 * banks + " floors, got " + numberOfElevators + " and " + numberOfFloors);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package main.elevator.dispatch;
+
+import main.Direction;
+import main.button.PressedFloors;
+import main.elevator.Elevator;
+import main.elevator.HallCallAssignments;
+import main.passenger.Passenger;
+
+import java.util.BitSet;
+import java.util.List;
+
+// Destination dispatch: passengers enter their destination at the floor, and each one is assigned the car that serves
+// them at the least cost. That is the time the car needs to reach them, plus every stop the passenger adds multiplied
+// by the passengers it delays, the riders and those waiting for the car, and the new passenger. Passengers going
+// where a car already stops add no stop to it, so passengers with the same or nearby destinations end up sharing cars
+// and each car makes fewer stops per round trip than under conventional hall calls.
+public class DestinationDispatchStrategy implements DispatchStrategy {
+
+    // Like the arrival time estimate, so stops count even when they take no time
+    private static final long TIME_PER_STOP = 100;
+
+    private final EstimatedTimeOfArrivalDispatchStrategy arrivalTimes = new EstimatedTimeOfArrivalDispatchStrategy();
+    // Destination dispatch makes no hall call assignments, the cars' stops are counted from the pending passengers
+    private final HallCallAssignments noHallCallAssignments = new HallCallAssignments();
+    // Reused for every car, the strategy is only ever called by its group's thread
+    private final BitSet plannedStops = new BitSet();
+
+    // Hall calls of passengers who did not register a destination are dispatched like conventional ones
+    @Override
+    public Elevator selectElevator(int hallCallFloorNumber, Direction hallCallDirection, List<Elevator> elevators, HallCallAssignments hallCallAssignments) {
+        return arrivalTimes.selectElevator(hallCallFloorNumber, hallCallDirection, elevators, hallCallAssignments);
+    }
+
+    // Pending passengers are those assigned to each car that have not boarded yet, in the order of the elevators
+    public Elevator selectElevator(Passenger passenger, List<Elevator> elevators, List<List<Passenger>> pendingPassengers) {
+        Elevator cheapestElevator = null;
+        long lowestCost = Long.MAX_VALUE;
+        for (int i = 0; i < elevators.size(); i++) {
+            long cost = estimateCost(elevators.get(i), passenger, pendingPassengers.get(i));
+            if (cost < lowestCost) {
+                cheapestElevator = elevators.get(i);
+                lowestCost = cost;
+            }
+        }
+        return cheapestElevator;
+    }
+
+    public long estimateCost(Elevator elevator, Passenger passenger, List<Passenger> pendingPassengers) {
+        int originFloorNumber = passenger.originFloorNumber;
+        int destinationFloorNumber = passenger.destinationFloorNumber;
+        plannedStops.clear();
+        for (Passenger pendingPassenger : pendingPassengers) {
+            plannedStops.set(pendingPassenger.originFloorNumber);
+            plannedStops.set(pendingPassenger.destinationFloorNumber);
+        }
+        // Stops for the pending passengers delay the car, except the ones at the passenger's own floors
+        int pendingStops = plannedStops.cardinality() - (plannedStops.get(originFloorNumber) ? 1 : 0)
+                - (plannedStops.get(destinationFloorNumber) ? 1 : 0);
+        PressedFloors carCalls = elevator.getCarCalls();
+        for (int floorNumber = carCalls.lowestSetFloor(); floorNumber != PressedFloors.NONE;
+             floorNumber = carCalls.nextSetFloor(floorNumber + 1)) {
+            // Already counted by the arrival time
+            if (plannedStops.get(floorNumber) && floorNumber != originFloorNumber && floorNumber != destinationFloorNumber) {
+                pendingStops--;
+            }
+            plannedStops.set(floorNumber);
+        }
+        int newStops = (plannedStops.get(originFloorNumber) ? 0 : 1) + (plannedStops.get(destinationFloorNumber) ? 0 : 1);
+        int delayedPassengers = elevator.getPassengerCount() + pendingPassengers.size() + 1;
+
+        long stopTimeMillis = elevator.getKinematics().stopTimeMillis() + TIME_PER_STOP;
+        long cost = arrivalTimes.estimateArrivalTime(elevator, originFloorNumber, passenger.getDirection(), noHallCallAssignments)
+                + (long) pendingStops * stopTimeMillis
+                + (long) newStops * delayedPassengers * stopTimeMillis;
+        // A car that cannot take the passenger in on its way has to come back for them
+        if (delayedPassengers > elevator.getElevatorCapacity()) {
+            cost *= 2;
+        }
+        return cost;
+    }
+}
@@ -0,0 +1,23 @@
+package main.elevator.dispatch;
+
+import java.util.List;
+
+// Dispatch strategies by name, each group getting its own instance
+public class DispatchStrategies {
+    public static final String ESTIMATED_TIME_OF_ARRIVAL = "eta";
+    public static final String NEAREST_CAR = "nearestCar";
+    public static final String DESTINATION = "destination";
+    public static final List<String> NAMES = List.of(ESTIMATED_TIME_OF_ARRIVAL, NEAREST_CAR, DESTINATION);
+
+    private DispatchStrategies() {
+    }
+
+    public static DispatchStrategy byName(String name) {
+        return switch (name) {
+            case ESTIMATED_TIME_OF_ARRIVAL -> new EstimatedTimeOfArrivalDispatchStrategy();
+            case NEAREST_CAR -> new NearestCarDispatchStrategy();
+            case DESTINATION -> new DestinationDispatchStrategy();
+            default -> throw new IllegalArgumentException("Unknown dispatch strategy: " + name + ", expected one of " + NAMES);
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package main.elevator.dispatch;
+
+import main.Direction;
+import main.elevator.Elevator;
+import main.elevator.HallCallAssignments;
+
+import java.util.List;
+
+public interface DispatchStrategy {
+    Elevator selectElevator(int hallCallFloorNumber, Direction hallCallDirection, List<Elevator> elevators, HallCallAssignments hallCallAssignments);
+}
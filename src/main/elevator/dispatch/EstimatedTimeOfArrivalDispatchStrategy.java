@@ -0,0 +1,84 @@
+package main.elevator.dispatch;
+
+import main.Direction;
+import main.button.PressedFloors;
+import main.elevator.Elevator;
+import main.elevator.HallCallAssignments;
+import main.elevator.Kinematics;
+
+import java.util.List;
+
+// Assigns the call to the elevator that is expected to reach the floor first, ready to go the way the caller wants.
+// An elevator only picks up callers going its own way, so one moving away from the floor, or towards it but in the
+// opposite direction, has to finish its sweep and turn around first. Every stop it already has to make delays it further.
+public class EstimatedTimeOfArrivalDispatchStrategy implements DispatchStrategy {
+
+    // Each stop may fill the car, so elevators with fewer stops ahead win ties, even when stops take no time
+    private static final long TIME_PER_STOP = 100;
+
+    @Override
+    public Elevator selectElevator(int hallCallFloorNumber, Direction hallCallDirection, List<Elevator> elevators, HallCallAssignments hallCallAssignments) {
+        Elevator fastestElevator = null;
+        long fastestArrivalTime = Long.MAX_VALUE;
+        for (Elevator elevator : elevators) {
+            long arrivalTime = estimateArrivalTime(elevator, hallCallFloorNumber, hallCallDirection, hallCallAssignments);
+            if (arrivalTime < fastestArrivalTime) {
+                fastestElevator = elevator;
+                fastestArrivalTime = arrivalTime;
+            }
+        }
+        return fastestElevator;
+    }
+
+    public long estimateArrivalTime(Elevator elevator, int hallCallFloorNumber, Direction hallCallDirection, HallCallAssignments hallCallAssignments) {
+        int currentFloor = elevator.getCurrentFloorNumber();
+        PressedFloors carCalls = elevator.getCarCalls();
+        int stops = carCalls.count() + hallCallAssignments.countAssignedTo(elevator);
+        int lowestStop = carCalls.isEmpty() ? currentFloor : Math.min(currentFloor, carCalls.lowestSetFloor());
+        int highestStop = Math.max(currentFloor, carCalls.highestSetFloor());
+
+        int floorsToTravel;
+        if (!elevator.isNotSleeping() || stops == 0) {
+            floorsToTravel = Math.abs(currentFloor - hallCallFloorNumber);
+        } else if (elevator.getMovementDirection() == Direction.UP) {
+            floorsToTravel = floorsToTravelUp(currentFloor, hallCallFloorNumber, hallCallDirection, lowestStop, highestStop);
+        } else {
+            floorsToTravel = floorsToTravelDown(currentFloor, hallCallFloorNumber, hallCallDirection, lowestStop, highestStop);
+        }
+
+        // A full elevator has to deliver its passengers before it can take anyone in, roughly doubling the trip
+        if (elevator.getPassengerCount() >= elevator.getElevatorCapacity()) {
+            floorsToTravel = 2 * Math.max(floorsToTravel, highestStop - lowestStop);
+        }
+        // One trip over the whole distance, as if the stops on the way only added their own time
+        Kinematics kinematics = elevator.getKinematics();
+        return kinematics.travelTimeMillis(floorsToTravel * kinematics.getAverageFloorHeightMeters())
+                + stops * (kinematics.stopTimeMillis() + TIME_PER_STOP);
+    }
+
+    private int floorsToTravelUp(int currentFloor, int callFloor, Direction callDirection, int lowestStop, int highestStop) {
+        if (callDirection == Direction.UP && callFloor >= currentFloor) {
+            return callFloor - currentFloor;
+        }
+        // Up to the end of the sweep, which may be the DOWN call itself, then back down
+        int turningFloor = Math.max(highestStop, callFloor);
+        if (callDirection == Direction.DOWN) {
+            return (turningFloor - currentFloor) + (turningFloor - callFloor);
+        }
+        // An UP call below: up, all the way down, and up again
+        int lowestFloor = Math.min(lowestStop, callFloor);
+        return (turningFloor - currentFloor) + (turningFloor - lowestFloor) + (callFloor - lowestFloor);
+    }
+
+    private int floorsToTravelDown(int currentFloor, int callFloor, Direction callDirection, int lowestStop, int highestStop) {
+        if (callDirection == Direction.DOWN && callFloor <= currentFloor) {
+            return currentFloor - callFloor;
+        }
+        int turningFloor = Math.min(lowestStop, callFloor);
+        if (callDirection == Direction.UP) {
+            return (currentFloor - turningFloor) + (callFloor - turningFloor);
+        }
+        int highestFloor = Math.max(highestStop, callFloor);
+        return (currentFloor - turningFloor) + (highestFloor - turningFloor) + (highestFloor - callFloor);
+    }
+}
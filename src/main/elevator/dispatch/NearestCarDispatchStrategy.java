@@ -0,0 +1,25 @@
+package main.elevator.dispatch;
+
+import main.Direction;
+import main.elevator.Elevator;
+import main.elevator.HallCallAssignments;
+
+import java.util.List;
+
+// Assigns the call to the elevator that is currently the fewest floors away, regardless of its direction or load
+public class NearestCarDispatchStrategy implements DispatchStrategy {
+
+    @Override
+    public Elevator selectElevator(int hallCallFloorNumber, Direction hallCallDirection, List<Elevator> elevators, HallCallAssignments hallCallAssignments) {
+        Elevator nearestElevator = null;
+        int nearestDistance = Integer.MAX_VALUE;
+        for (Elevator elevator : elevators) {
+            int distance = Math.abs(elevator.getCurrentFloorNumber() - hallCallFloorNumber);
+            if (distance < nearestDistance) {
+                nearestElevator = elevator;
+                nearestDistance = distance;
+            }
+        }
+        return nearestElevator;
+    }
+}
@@ -0,0 +1,108 @@
+package main.elevator.parking;
+
+import main.building.Building;
+import main.elevator.Elevator;
+import main.passenger.ArrivalHistogram;
+import main.simulation.SimulationClock;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Spreads the idle cars over the floors with the highest demand, one car per floor, so the next passengers there find
+// a car waiting. Cars already parked at one of those floors stay, the first one in the group if several park at the
+// same floor, and the others go from the busiest floor down to the nearest car not parked at any of them yet. Cars
+// left over, and every car when there is no demand at all, stay where they are.
+public class DemandParkingPolicy implements ParkingPolicy {
+
+    private static final int NOT_ASSIGNED = -1;
+
+    private final int[] floorNumbers;
+    private final ArrivalHistogram arrivalHistogram;
+    private final SimulationClock clock;
+    // Reused for every decision, the busiest floors first
+    private final int[] busiestFloorNumbers;
+    private final int[] busiestDemands;
+
+    public DemandParkingPolicy(Building building, ArrivalHistogram arrivalHistogram, SimulationClock clock) {
+        this.floorNumbers = building.getFloors().stream().mapToInt(floor -> floor.floorNumber).toArray();
+        this.arrivalHistogram = arrivalHistogram;
+        this.clock = clock;
+        this.busiestFloorNumbers = new int[floorNumbers.length];
+        this.busiestDemands = new int[floorNumbers.length];
+    }
+
+    // Every car gets the same assignment of floors whichever it is decided for, as long as the demand stays the same
+    @Override
+    public int selectParkingFloor(Elevator elevator, List<Elevator> idleElevators) {
+        int busiestFloorCount = findBusiestFloors(Math.min(idleElevators.size(), floorNumbers.length));
+        // Index of the idle car each of the busiest floors goes to
+        int[] assignedElevators = new int[busiestFloorCount];
+        Arrays.fill(assignedElevators, NOT_ASSIGNED);
+        boolean[] isAssigned = new boolean[idleElevators.size()];
+        for (int i = 0; i < idleElevators.size(); i++) {
+            int busiestFloor = indexOf(ParkingPolicy.getParkedFloorNumber(idleElevators.get(i)), busiestFloorCount);
+            if (busiestFloor != NOT_ASSIGNED && assignedElevators[busiestFloor] == NOT_ASSIGNED) {
+                assignedElevators[busiestFloor] = i;
+                isAssigned[i] = true;
+            }
+        }
+        for (int busiestFloor = 0; busiestFloor < busiestFloorCount; busiestFloor++) {
+            if (assignedElevators[busiestFloor] == NOT_ASSIGNED) {
+                int nearest = findNearest(busiestFloorNumbers[busiestFloor], idleElevators, isAssigned);
+                assignedElevators[busiestFloor] = nearest;
+                isAssigned[nearest] = true;
+            }
+        }
+        int elevatorIndex = idleElevators.indexOf(elevator);
+        for (int busiestFloor = 0; busiestFloor < busiestFloorCount; busiestFloor++) {
+            if (assignedElevators[busiestFloor] == elevatorIndex) {
+                return busiestFloorNumbers[busiestFloor];
+            }
+        }
+        return STAY;
+    }
+
+    // Insertion of every floor with some demand into the first places, which are at most as many as the idle cars
+    private int findBusiestFloors(int places) {
+        long now = clock.currentTimeMillis();
+        int count = 0;
+        for (int floorNumber : floorNumbers) {
+            int demand = arrivalHistogram.getDemand(floorNumber, now);
+            if (demand == 0 || count == places && demand <= busiestDemands[count - 1]) {
+                continue;
+            }
+            int i = count < places ? count++ : count - 1;
+            while (i > 0 && busiestDemands[i - 1] < demand) {
+                busiestDemands[i] = busiestDemands[i - 1];
+                busiestFloorNumbers[i] = busiestFloorNumbers[i - 1];
+                i--;
+            }
+            busiestDemands[i] = demand;
+            busiestFloorNumbers[i] = floorNumber;
+        }
+        return count;
+    }
+
+    private int indexOf(int floorNumber, int busiestFloorCount) {
+        for (int i = 0; i < busiestFloorCount; i++) {
+            if (busiestFloorNumbers[i] == floorNumber) {
+                return i;
+            }
+        }
+        return NOT_ASSIGNED;
+    }
+
+    // There are never more of the busiest floors than idle cars, so one is always left
+    private static int findNearest(int floorNumber, List<Elevator> idleElevators, boolean[] isAssigned) {
+        int nearest = NOT_ASSIGNED;
+        int nearestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < idleElevators.size(); i++) {
+            int distance = Math.abs(ParkingPolicy.getParkedFloorNumber(idleElevators.get(i)) - floorNumber);
+            if (!isAssigned[i] && distance < nearestDistance) {
+                nearest = i;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+}
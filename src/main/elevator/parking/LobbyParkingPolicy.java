@@ -0,0 +1,21 @@
+package main.elevator.parking;
+
+import main.building.Building;
+import main.elevator.Elevator;
+
+import java.util.List;
+
+// Sends every idle car down to the lobby of its zone, where most passengers arrive in the morning
+public class LobbyParkingPolicy implements ParkingPolicy {
+
+    private final int lobbyFloorNumber;
+
+    public LobbyParkingPolicy(Building building) {
+        this.lobbyFloorNumber = building.getFloors().get(0).floorNumber;
+    }
+
+    @Override
+    public int selectParkingFloor(Elevator elevator, List<Elevator> idleElevators) {
+        return lobbyFloorNumber;
+    }
+}
@@ -0,0 +1,31 @@
+package main.elevator.parking;
+
+import main.building.Building;
+import main.passenger.ArrivalHistogram;
+import main.simulation.SimulationClock;
+
+import java.util.List;
+
+// Parking policies by name, each group getting its own instance. The arrival histogram is shared by every group of a
+// building and filled by its passenger generator.
+public class ParkingPolicies {
+    // Idle cars wait wherever their last trip ended
+    public static final String NONE = "none";
+    public static final String LOBBY = "lobby";
+    public static final String DEMAND = "demand";
+    public static final List<String> NAMES = List.of(NONE, LOBBY, DEMAND);
+
+    public static final ParkingPolicy STAY_WHERE_IDLE = (elevator, idleElevators) -> ParkingPolicy.STAY;
+
+    private ParkingPolicies() {
+    }
+
+    public static ParkingPolicy byName(String name, Building building, ArrivalHistogram arrivalHistogram, SimulationClock clock) {
+        return switch (name) {
+            case NONE -> STAY_WHERE_IDLE;
+            case LOBBY -> new LobbyParkingPolicy(building);
+            case DEMAND -> new DemandParkingPolicy(building, arrivalHistogram, clock);
+            default -> throw new IllegalArgumentException("Unknown parking policy: " + name + ", expected one of " + NAMES);
+        };
+    }
+}
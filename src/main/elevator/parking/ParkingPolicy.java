@@ -0,0 +1,22 @@
+package main.elevator.parking;
+
+import main.elevator.Elevator;
+
+import java.util.List;
+
+// Decides where an idle elevator waits for its next call. Called on the thread of the group control system, for each
+// idle elevator in turn, so an implementation may keep scratch state between decisions.
+public interface ParkingPolicy {
+    // Returned to leave the elevator where it is
+    int STAY = 0;
+
+    // Idle elevators are those of the group without passengers or calls to answer, the given one included, in the
+    // order of the group. Those on their way to park are idle too, their destination being where they park.
+    int selectParkingFloor(Elevator elevator, List<Elevator> idleElevators);
+
+    // Where an idle elevator stopped, or is about to stop when it is on its way to park
+    static int getParkedFloorNumber(Elevator elevator) {
+        Integer destinationFloorNumber = elevator.getDestinationFloorNumber();
+        return destinationFloorNumber != null ? destinationFloorNumber : elevator.getCurrentFloorNumber();
+    }
+}
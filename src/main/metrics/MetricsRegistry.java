@@ -0,0 +1,100 @@
+package main.metrics;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+// Metrics are registered as callbacks reading values the simulation already keeps in volatile fields or atomics, so
+// recording costs nothing extra and a scrape never takes a lock the simulation threads use.
+public class MetricsRegistry {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double[] TIMER_QUANTILES = {0.5, 0.9, 0.99};
+
+    private enum Type {
+        COUNTER, GAUGE, SUMMARY
+    }
+
+    private record Family(String name, String help, Type type, List<Sample> samples) {
+    }
+
+    private record Sample(String labels, Object source) {
+    }
+
+    // Sorted by name, so the output is stable between scrapes
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    public void counter(String name, String help, Map<String, String> labels, LongSupplier value) {
+        register(name, help, Type.COUNTER, labels, value);
+    }
+
+    public void gauge(String name, String help, Map<String, String> labels, DoubleSupplier value) {
+        register(name, help, Type.GAUGE, labels, value);
+    }
+
+    // Exposed as a summary in seconds, the histogram has to record nanoseconds
+    public void timer(String name, String help, Map<String, String> labels, LatencyHistogram nanos) {
+        register(name, help, Type.SUMMARY, labels, nanos);
+    }
+
+    private void register(String name, String help, Type type, Map<String, String> labels, Object source) {
+        Family family = families.computeIfAbsent(name, n -> new Family(n, help, type, new CopyOnWriteArrayList<>()));
+        if (family.type != type) {
+            throw new IllegalArgumentException(String.format("Metric %s is already registered as a %s", name, family.type));
+        }
+        family.samples.add(new Sample(formatLabels(labels), source));
+    }
+
+    // Prometheus text exposition format, version 0.0.4
+    public String scrape() {
+        StringBuilder output = new StringBuilder();
+        for (Family family : families.values()) {
+            output.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            output.append("# TYPE ").append(family.name).append(' ').append(family.type.name().toLowerCase(Locale.ROOT)).append('\n');
+            for (Sample sample : family.samples) {
+                switch (family.type) {
+                    case COUNTER -> appendLine(output, family.name, sample.labels, ((LongSupplier) sample.source).getAsLong());
+                    case GAUGE -> appendLine(output, family.name, sample.labels, ((DoubleSupplier) sample.source).getAsDouble());
+                    case SUMMARY -> appendSummary(output, family.name, sample.labels, (LatencyHistogram) sample.source);
+                }
+            }
+        }
+        return output.toString();
+    }
+
+    private void appendSummary(StringBuilder output, String name, String labels, LatencyHistogram histogram) {
+        for (double quantile : TIMER_QUANTILES) {
+            String quantileLabels = joinLabels(labels, "quantile=\"" + quantile + "\"");
+            appendLine(output, name, quantileLabels, histogram.getValueAtPercentile(quantile * 100) / NANOS_PER_SECOND);
+        }
+        appendLine(output, name + "_sum", labels, histogram.getTotalSum() / NANOS_PER_SECOND);
+        appendLine(output, name + "_count", labels, histogram.getTotalCount());
+    }
+
+    private void appendLine(StringBuilder output, String name, String labels, Object value) {
+        output.append(name);
+        if (!labels.isEmpty()) {
+            output.append('{').append(labels).append('}');
+        }
+        output.append(' ').append(value).append('\n');
+    }
+
+    private static String joinLabels(String labels, String label) {
+        return labels.isEmpty() ? label : labels + "," + label;
+    }
+
+    private static String formatLabels(Map<String, String> labels) {
+        StringBuilder formattedLabels = new StringBuilder();
+        labels.forEach((key, value) -> {
+            if (!formattedLabels.isEmpty()) {
+                formattedLabels.append(',');
+            }
+            formattedLabels.append(key).append("=\"").append(value.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        });
+        return formattedLabels.toString();
+    }
+}
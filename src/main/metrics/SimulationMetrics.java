@@ -0,0 +1,48 @@
+package main.metrics;
+
+import main.building.Building;
+import main.building.Floor;
+import main.elevator.Elevator;
+import main.elevator.ElevatorGroupControlSystem;
+import main.passenger.AgentPassengerGenerator;
+import main.passenger.PassengerGenerator;
+import main.passenger.TripStatistics;
+
+import java.util.List;
+import java.util.Map;
+
+// Registers the metrics of one simulated building. Every value is read from a volatile field or an atomic counter.
+public class SimulationMetrics {
+
+    private SimulationMetrics() {
+    }
+
+    public static void register(MetricsRegistry registry, Building building, ElevatorGroupControlSystem groupControlSystem,
+                                PassengerGenerator passengerGenerator) {
+        for (Floor floor : building.getFloors()) {
+            registry.gauge("elevator_floor_waiting_passengers", "Passengers waiting for an elevator on the floor",
+                    Map.of("floor", String.valueOf(floor.floorNumber)), floor::getWaitingPassengerCount);
+        }
+
+        List<Elevator> elevators = groupControlSystem.getElevators();
+        for (int i = 0; i < elevators.size(); i++) {
+            Elevator elevator = elevators.get(i);
+            Map<String, String> labels = Map.of("car", String.valueOf(i + 1));
+            registry.gauge("elevator_car_passengers", "Passengers in the car", labels, elevator::getPassengerCount);
+            registry.gauge("elevator_car_capacity", "Passengers the car can carry", labels, elevator::getElevatorCapacity);
+            registry.counter("elevator_car_floors_travelled_total", "Floors the car has moved past", labels, elevator::getFloorsTravelled);
+            registry.counter("elevator_car_stops_total", "Stops the car has made to load and unload", labels, elevator::getStopsMade);
+        }
+
+        registry.timer("elevator_dispatch_decision_seconds", "Time the group control system spends per round of decisions",
+                Map.of(), groupControlSystem.getDecisionLatencies());
+
+        TripStatistics tripStatistics = groupControlSystem.getTripStatistics();
+        registry.counter("elevator_passengers_generated_total", "Passengers generated", Map.of(), passengerGenerator::getGeneratedPassengerCount);
+        registry.counter("elevator_passengers_delivered_total", "Passengers delivered to their destination floor", Map.of(), tripStatistics::getDeliveredPassengers);
+        if (passengerGenerator instanceof AgentPassengerGenerator agentGenerator) {
+            registry.gauge("elevator_passenger_agents_active", "Passenger agent threads that have not finished their journey",
+                    Map.of(), agentGenerator::getActiveAgentCount);
+        }
+    }
+}
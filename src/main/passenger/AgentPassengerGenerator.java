@@ -0,0 +1,43 @@
+package main.passenger;
+
+import main.building.Building;
+import main.building.Floor;
+import main.customLogger.CustomLogger;
+import main.passenger.traffic.TrafficModel;
+import main.simulation.SimulationClock;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+// Generates passengers the same way as PassengerGenerator, but each one is a PassengerAgent on its own virtual thread.
+// A blocked agent only holds on to its stack, so hundreds of thousands of them can wait for elevators at once.
+public class AgentPassengerGenerator extends PassengerGenerator {
+    private final ThreadFactory agentThreads = Thread.ofVirtual().name("passenger-", 1).factory();
+    private final LongAdder startedAgents = new LongAdder();
+    private final LongAdder finishedAgents = new LongAdder();
+
+    public AgentPassengerGenerator(Building building, CustomLogger logger) {
+        super(building, logger);
+    }
+
+    public AgentPassengerGenerator(Building building, CustomLogger logger, SplittableRandom random, SimulationClock clock, TrafficModel trafficModel) {
+        super(building, logger, random, clock, trafficModel);
+    }
+
+    @Override
+    protected void spawnPassenger(Floor floor, int destinationFloorNumber, long spawnTimeMillis) {
+        PassengerAgent agent = new PassengerAgent(floor, destinationFloorNumber, spawnTimeMillis, finishedAgents::increment);
+        startedAgents.increment();
+        agentThreads.newThread(agent).start();
+    }
+
+    // Agents that have been started and have not left their elevator yet
+    public long getActiveAgentCount() {
+        return startedAgents.sum() - finishedAgents.sum();
+    }
+
+    public long getFinishedAgentCount() {
+        return finishedAgents.sum();
+    }
+}
@@ -0,0 +1,57 @@
+package main.passenger;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Passenger arrivals per floor, counted in time buckets of a ring covering one day, so each bucket is overwritten by
+// the same time of the next day. The demand at a floor is what arrived there recently, plus what arrived there in the
+// coming minutes of the day before, which foresees the daily peaks of a run lasting several days.
+public class ArrivalHistogram {
+    public static final long BUCKET_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final int BUCKETS_PER_DAY = (int) (TimeUnit.DAYS.toMillis(1) / BUCKET_MILLIS);
+    // Including the bucket in progress
+    private static final int RECENT_BUCKETS = 3;
+    private static final int FORECAST_BUCKETS = 3;
+    private static final long NO_BUCKET = -1;
+
+    // Indexed by slot of the ring and floor number
+    private final int[][] arrivals;
+    // Bucket since the start of the clock that each slot counts the arrivals of, or NO_BUCKET
+    private final long[] buckets = new long[BUCKETS_PER_DAY];
+
+    public ArrivalHistogram(int floorCount) {
+        this.arrivals = new int[BUCKETS_PER_DAY][floorCount + 1];
+        Arrays.fill(buckets, NO_BUCKET);
+    }
+
+    // Called by the passenger generator, while the group control systems read the demand
+    public synchronized void record(int floorNumber, long timeMillis) {
+        long bucket = timeMillis / BUCKET_MILLIS;
+        int slot = (int) (bucket % BUCKETS_PER_DAY);
+        if (buckets[slot] != bucket) {
+            buckets[slot] = bucket;
+            Arrays.fill(arrivals[slot], 0);
+        }
+        arrivals[slot][floorNumber]++;
+    }
+
+    public synchronized int getDemand(int floorNumber, long timeMillis) {
+        long bucket = timeMillis / BUCKET_MILLIS;
+        int demand = 0;
+        for (int i = 0; i < RECENT_BUCKETS; i++) {
+            demand += getArrivals(bucket - i, floorNumber);
+        }
+        for (int i = 1; i <= FORECAST_BUCKETS; i++) {
+            demand += getArrivals(bucket + i - BUCKETS_PER_DAY, floorNumber);
+        }
+        return demand;
+    }
+
+    private int getArrivals(long bucket, int floorNumber) {
+        if (bucket < 0) {
+            return 0;
+        }
+        int slot = (int) (bucket % BUCKETS_PER_DAY);
+        return buckets[slot] == bucket ? arrivals[slot][floorNumber] : 0;
+    }
+}
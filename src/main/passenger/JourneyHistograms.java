@@ -0,0 +1,55 @@
+package main.passenger;
+
+import main.metrics.LatencyHistogram;
+
+import java.util.Locale;
+
+// Wait, ride and journey time distributions of one group of passengers, like everyone who started from the same floor.
+// Waits are recorded on boarding, rides and journeys on alighting, so the counts differ while passengers are on board.
+public class JourneyHistograms {
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+    private final LatencyHistogram rideTimes = new LatencyHistogram();
+    private final LatencyHistogram journeyTimes = new LatencyHistogram();
+
+    void recordBoarding(Passenger passenger) {
+        waitTimes.record(passenger.getWaitTimeMillis());
+    }
+
+    void recordAlighting(Passenger passenger) {
+        rideTimes.record(passenger.getRideTimeMillis());
+        if (passenger.isOnFinalLeg()) {
+            journeyTimes.record(passenger.getJourneyTimeMillis());
+        }
+    }
+
+    void add(JourneyHistograms other) {
+        waitTimes.add(other.waitTimes);
+        rideTimes.add(other.rideTimes);
+        journeyTimes.add(other.journeyTimes);
+    }
+
+    public LatencyHistogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    public LatencyHistogram getRideTimes() {
+        return rideTimes;
+    }
+
+    public LatencyHistogram getJourneyTimes() {
+        return journeyTimes;
+    }
+
+    // For example: "wait 420/900/1500/2015 ms, ride ..., journey ... (p50/p90/p99/max, 3600 delivered)"
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "wait %s, ride %s, journey %s (p50/p90/p99/max, %s delivered)",
+                summarize(waitTimes), summarize(rideTimes), summarize(journeyTimes), journeyTimes.getTotalCount());
+    }
+
+    private static String summarize(LatencyHistogram histogram) {
+        return String.format(Locale.ROOT, "%d/%d/%d/%d ms",
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99), histogram.getMaxValue());
+    }
+}
@@ -1,10 +1,122 @@
 package main.passenger;
 
+import main.Direction;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Timestamps are taken from the simulation clock. Wait time lasts from spawning until boarding, ride time from boarding
+// until alighting at the destination floor, and journey time covers both. In a zoned building a journey may take
+// several legs, one per car, changing cars at a transfer floor. Origin and destination are those of the current leg,
+// each leg is a passenger of its own, and the wait of a later leg starts when the previous one ends.
+// Under destination dispatch the passenger enters the destination at the floor and is told which car to board.
 public class Passenger {
+    // Boards whichever car comes first, as with conventional hall buttons
+    public static final int ANY_ELEVATOR = 0;
+    // Registered at a destination keypad, and waits until the group has picked a car
+    public static final int AWAITING_ASSIGNMENT = -1;
+
+    public final Integer originFloorNumber;
     public final Integer destinationFloorNumber;
+    public final Integer finalDestinationFloorNumber;
+    public final long spawnTimeMillis;
+    // Spawn time on the first leg, arrival at the transfer floor on the later ones
+    private final long legStartTimeMillis;
+    private long boardingTimeMillis;
+    private long alightingTimeMillis;
+    // Number of the car within its group, set by the group's thread and read by the cars'
+    private volatile int assignedElevatorNumber = ANY_ELEVATOR;
+
+    public Passenger(int originFloorNumber, int destinationFloorNumber, long spawnTimeMillis) {
+        this(originFloorNumber, destinationFloorNumber, destinationFloorNumber, spawnTimeMillis, spawnTimeMillis);
+    }
 
-    public Passenger(int destinationFloorNumber) {
+    // First leg of a journey that goes on from the destination floor in another car
+    public Passenger(int originFloorNumber, int destinationFloorNumber, int finalDestinationFloorNumber, long spawnTimeMillis) {
+        this(originFloorNumber, destinationFloorNumber, finalDestinationFloorNumber, spawnTimeMillis, spawnTimeMillis);
+    }
+
+    private Passenger(int originFloorNumber, int destinationFloorNumber, int finalDestinationFloorNumber,
+                      long spawnTimeMillis, long legStartTimeMillis) {
+        this.originFloorNumber = originFloorNumber;
         this.destinationFloorNumber = destinationFloorNumber;
+        this.finalDestinationFloorNumber = finalDestinationFloorNumber;
+        this.spawnTimeMillis = spawnTimeMillis;
+        this.legStartTimeMillis = legStartTimeMillis;
+    }
+
+    // The next leg of the journey, from the floor this one has just ended at
+    public Passenger transfer(int nextDestinationFloorNumber) {
+        return new Passenger(destinationFloorNumber, nextDestinationFloorNumber, finalDestinationFloorNumber,
+                spawnTimeMillis, alightingTimeMillis);
+    }
+
+    public boolean isOnFinalLeg() {
+        return destinationFloorNumber.equals(finalDestinationFloorNumber);
+    }
+
+    public void assignElevator(int elevatorNumber) {
+        this.assignedElevatorNumber = elevatorNumber;
+    }
+
+    public int getAssignedElevatorNumber() {
+        return assignedElevatorNumber;
+    }
+
+    public boolean mayBoard(int elevatorNumber) {
+        int assignedElevatorNumber = this.assignedElevatorNumber;
+        return assignedElevatorNumber == ANY_ELEVATOR || assignedElevatorNumber == elevatorNumber;
+    }
+
+    public void board(long boardingTimeMillis) {
+        this.boardingTimeMillis = boardingTimeMillis;
+    }
+
+    public void alight(long alightingTimeMillis) {
+        this.alightingTimeMillis = alightingTimeMillis;
+    }
+
+    // Boarding time is 0 for a passenger still waiting
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(originFloorNumber);
+        out.writeInt(destinationFloorNumber);
+        out.writeInt(finalDestinationFloorNumber);
+        out.writeLong(spawnTimeMillis);
+        out.writeLong(legStartTimeMillis);
+        out.writeLong(boardingTimeMillis);
+        out.writeInt(assignedElevatorNumber);
+    }
+
+    public static Passenger readFrom(DataInput in) throws IOException {
+        Passenger passenger = new Passenger(in.readInt(), in.readInt(), in.readInt(), in.readLong(), in.readLong());
+        passenger.board(in.readLong());
+        passenger.assignElevator(in.readInt());
+        return passenger;
+    }
+
+    public Direction getDirection() {
+        return destinationFloorNumber > originFloorNumber ? Direction.UP : Direction.DOWN;
+    }
+
+    public long getBoardingTimeMillis() {
+        return boardingTimeMillis;
+    }
+
+    public long getAlightingTimeMillis() {
+        return alightingTimeMillis;
+    }
+
+    public long getWaitTimeMillis() {
+        return boardingTimeMillis - legStartTimeMillis;
+    }
+
+    public long getRideTimeMillis() {
+        return alightingTimeMillis - boardingTimeMillis;
+    }
+
+    public long getJourneyTimeMillis() {
+        return alightingTimeMillis - spawnTimeMillis;
     }
 
     @Override
@@ -0,0 +1,86 @@
+package main.passenger;
+
+import main.building.Floor;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// A passenger acting on its own thread, meant to be a virtual one: it arrives at its floor, calls an elevator, waits
+// until a car picks it up and rides until the car lets it out. The elevator still moves it between the queues, and
+// wakes it on boarding and alighting. Waiting uses a ReentrantLock, as a virtual thread blocked in a synchronized
+// block would stay pinned to its carrier thread.
+public class PassengerAgent extends Passenger implements Runnable {
+    private final Floor floor;
+    // Run on the agent's thread once it has left the elevator
+    private final Runnable onJourneyFinished;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition journeyChanged = lock.newCondition();
+    private boolean isBoarded = false;
+    private boolean isAlighted = false;
+
+    public PassengerAgent(Floor floor, int destinationFloorNumber, long spawnTimeMillis, Runnable onJourneyFinished) {
+        super(floor.floorNumber, destinationFloorNumber, spawnTimeMillis);
+        this.floor = floor;
+        this.onJourneyFinished = onJourneyFinished;
+    }
+
+    @Override
+    public void run() {
+        floor.callElevator(this);
+        try {
+            awaitBoarding();
+            awaitAlighting();
+        } catch (InterruptedException e) {
+            // The simulation is shutting down, the passenger gives up on the journey
+            Thread.currentThread().interrupt();
+            return;
+        }
+        onJourneyFinished.run();
+    }
+
+    public void awaitBoarding() throws InterruptedException {
+        lock.lock();
+        try {
+            while (!isBoarded) {
+                journeyChanged.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void awaitAlighting() throws InterruptedException {
+        lock.lock();
+        try {
+            while (!isAlighted) {
+                journeyChanged.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void board(long boardingTimeMillis) {
+        super.board(boardingTimeMillis);
+        lock.lock();
+        try {
+            isBoarded = true;
+            journeyChanged.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void alight(long alightingTimeMillis) {
+        super.alight(alightingTimeMillis);
+        lock.lock();
+        try {
+            isAlighted = true;
+            journeyChanged.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -4,97 +4,178 @@ import main.Stoppable;
 import main.building.Building;
 import main.building.Floor;
 import main.customLogger.CustomLogger;
+import main.customLogger.LogComponent;
+import main.passenger.trace.TraceWriter;
+import main.passenger.traffic.ResidentialTraffic;
+import main.passenger.traffic.TrafficModel;
+import main.passenger.traffic.Trip;
+import main.simulation.SimulationClock;
 
-import java.util.ArrayList;
-import java.util.Random;
-import java.util.stream.Collectors;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
+// Generates passengers as the traffic model dictates. The model gets the time since the generator was created, so
+// time-of-day profiles start with the simulation.
 public class PassengerGenerator implements Stoppable {
-    private static final long GENERATION_INTERVAL = 200;
+    public static final long GENERATION_INTERVAL = 200;
 
     private volatile boolean shouldRun = true;
 
     private final Building building;
     private final CustomLogger logger;
-    private final Random random = new Random();
+    // Replaced when the state is saved, see writeState()
+    private SplittableRandom random;
+    private final SimulationClock clock;
+    private final TrafficModel trafficModel;
+    private long startTimeMillis;
+    private final AtomicLong generatedPassengers = new AtomicLong();
+    private volatile TraceWriter traceWriter;
+    private volatile ArrivalHistogram arrivalHistogram;
+    private int counter = 0;
 
     public PassengerGenerator(Building building, CustomLogger logger) {
+        this(building, logger, new SplittableRandom(), SimulationClock.SYSTEM);
+    }
+
+    public PassengerGenerator(Building building, CustomLogger logger, SplittableRandom random, SimulationClock clock) {
+        this(building, logger, random, clock, new ResidentialTraffic(building.getFloorCount(), GENERATION_INTERVAL));
+    }
+
+    public PassengerGenerator(Building building, CustomLogger logger, SplittableRandom random, SimulationClock clock, TrafficModel trafficModel) {
         this.building = building;
         this.logger = logger;
+        this.random = random;
+        this.clock = clock;
+        this.trafficModel = trafficModel;
+        this.startTimeMillis = clock.currentTimeMillis();
     }
 
     @Override
     public void run() {
         logger.logPassengers("Started");
-        int counter = 0;
         while (shouldRun) {
-            generateResidentialPassenger();
-            executeGenerationInterval();
-            counter++;
-            if (counter > 10) {
-                counter = 0;
-                long waitingPassengers = building.getFloors().stream()
-                        .map(floor -> floor.getWaitingPassengers().size())
-                        .collect(Collectors.summarizingInt(Integer::intValue)).getSum();
-                logger.logPassengers("Waiting passengers: " + waitingPassengers);
+            long delayMillis = nextArrivalDelayMillis();
+            if (delayMillis == TrafficModel.NO_MORE_ARRIVALS) {
+                logger.logPassengers("No more arrivals");
+                break;
             }
+            executeGenerationInterval(delayMillis);
+            generatePassenger();
         }
         logger.logPassengers("Stopped");
     }
 
-    private int getRandomFloorNumberExcept(Integer floorNumberToExclude) {
-        ArrayList<Integer> options = building.getFloors().stream()
-                .filter(floor -> !floorNumberToExclude.equals(floor.floorNumber))
-                .map(floor -> floor.floorNumber)
-                .collect(Collectors.toCollection(ArrayList::new));
-        return options.get(random.nextInt(options.size()));
+    public void generatePassenger() {
+        Trip trip = trafficModel.nextTrip(getElapsedTimeMillis(), random);
+        createPassenger(trip.originFloorNumber(), trip.destinationFloorNumber());
+        counter++;
+        if (counter > 10) {
+            counter = 0;
+            if (!logger.isEnabled(LogComponent.PASSENGER)) {
+                return;
+            }
+            logger.logPassengers("Waiting passengers: %s", getWaitingPassengerCount());
+        }
     }
 
-    // Residential passengers only move between 1st floor and the floor they reside.
-    // There's 50% chance they start at 1st floor.
-    private void generateResidentialPassenger() {
-        int startingFloorNumber;
-        int destinationFloorNumber;
-
-        boolean coinFlip = random.nextBoolean();
-        if (coinFlip) {
-            startingFloorNumber = 1;
-            destinationFloorNumber = getRandomFloorNumberExcept(startingFloorNumber);
-        } else {
-            startingFloorNumber = getRandomFloorNumberExcept(1);
-            destinationFloorNumber = 1;
-        }
-        createPassenger(startingFloorNumber, destinationFloorNumber);
+    // Time until the next passenger is due, drawn from the traffic model
+    public long nextArrivalDelayMillis() {
+        return trafficModel.nextArrivalDelayMillis(getElapsedTimeMillis(), random);
     }
 
-    // Office workers can go between random floors. There's 2 in 3 chance they start or finish at 1st floor, and 1 in 3
-    // chance they start and finish on random floors.
-    private void generateOfficeWorkerPassenger() {
-        // TODO: Implement this method
+    private long getElapsedTimeMillis() {
+        return clock.currentTimeMillis() - startTimeMillis;
     }
 
     public void createPassenger(int startingFloorNumber) {
-        createPassenger(startingFloorNumber, getRandomFloorNumberExcept(startingFloorNumber));
+        createPassenger(startingFloorNumber, TrafficModel.randomFloorNumberExcept(building.getFloorCount(), startingFloorNumber, random));
     }
 
     public void createPassenger(int startingFloorNumber, int destinationFloorNumber) {
-        Floor floor = building.getFloorByNumber(startingFloorNumber);
-        Passenger passenger = new Passenger(destinationFloorNumber);
-        synchronized (building.getFloors()) {
-            floor.addWaitingPassenger(passenger);
-            floor.getButton().press();
+        long now = clock.currentTimeMillis();
+        traceArrival(now - startTimeMillis, startingFloorNumber, destinationFloorNumber);
+        ArrivalHistogram arrivalHistogram = this.arrivalHistogram;
+        if (arrivalHistogram != null) {
+            arrivalHistogram.record(startingFloorNumber, now);
+        }
+        spawnPassenger(startingFloorNumber, destinationFloorNumber, now);
+        generatedPassengers.incrementAndGet();
+        logger.logPassengers("Generated passenger at floor %s, dest: %s", startingFloorNumber, destinationFloorNumber);
+    }
+
+    // Every passenger created from now on is written to the trace, which stays owned by the caller
+    public void recordTrace(TraceWriter traceWriter) {
+        this.traceWriter = traceWriter;
+    }
+
+    // Every passenger created from now on is counted at their floor, for the parking policies to foresee demand
+    public void recordArrivals(ArrivalHistogram arrivalHistogram) {
+        this.arrivalHistogram = arrivalHistogram;
+    }
+
+    // A trace that fails to write is dropped, the simulation goes on without it
+    private void traceArrival(long timeMillis, int startingFloorNumber, int destinationFloorNumber) {
+        TraceWriter traceWriter = this.traceWriter;
+        if (traceWriter == null) {
+            return;
         }
-        logger.logPassengers("Generated passenger at floor " + startingFloorNumber + ", dest: " + destinationFloorNumber);
+        try {
+            traceWriter.write(timeMillis, startingFloorNumber, destinationFloorNumber);
+        } catch (IOException e) {
+            logger.logError(e);
+            this.traceWriter = null;
+        }
+    }
+
+    // Overridden to place passengers elsewhere than on the floors of the generator's building, see ZonedTower
+    protected void spawnPassenger(int startingFloorNumber, int destinationFloorNumber, long spawnTimeMillis) {
+        spawnPassenger(building.getFloorByNumber(startingFloorNumber), destinationFloorNumber, spawnTimeMillis);
+    }
+
+    protected int getWaitingPassengerCount() {
+        return building.getFloors().stream().mapToInt(Floor::getWaitingPassengerCount).sum();
     }
 
-    private void executeGenerationInterval() {
+    // Generated passengers are inert, the elevators move them from queue to queue
+    protected void spawnPassenger(Floor floor, int destinationFloorNumber, long spawnTimeMillis) {
+        floor.callElevator(new Passenger(floor.floorNumber, destinationFloorNumber, spawnTimeMillis));
+    }
+
+    private void executeGenerationInterval(long delayMillis) {
         try {
-            Thread.sleep(GENERATION_INTERVAL);
+            Thread.sleep(delayMillis);
         } catch (InterruptedException e) {
             logger.logError(e);
         }
     }
 
+    // SplittableRandom doesn't expose its state, so both this generator and the one restored from the state switch to a
+    // new one seeded from this one. They go on to draw the same passengers as long as their traffic models are the same.
+    public void writeState(DataOutput out) throws IOException {
+        long seed = random.nextLong();
+        random = new SplittableRandom(seed);
+        out.writeLong(seed);
+        out.writeLong(startTimeMillis);
+        out.writeLong(generatedPassengers.get());
+        out.writeInt(counter);
+        trafficModel.writeState(out);
+    }
+
+    public void readState(DataInput in) throws IOException {
+        random = new SplittableRandom(in.readLong());
+        startTimeMillis = in.readLong();
+        generatedPassengers.set(in.readLong());
+        counter = in.readInt();
+        trafficModel.readState(in);
+    }
+
+    public long getGeneratedPassengerCount() {
+        return generatedPassengers.get();
+    }
+
     @Override
     public void stop() {
         shouldRun = false;
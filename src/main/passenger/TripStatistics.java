@@ -0,0 +1,145 @@
+package main.passenger;
+
+import main.metrics.LatencyHistogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Shared by every elevator of a bank, so recording is lock-free. Besides the totals, times are broken down by the
+// floor passengers started from and by the elevator that carried them, and waits by when passengers spawned.
+public class TripStatistics {
+    public static final long SPAWN_TIME_SLOT_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
+    private final LongAdder boardedPassengers = new LongAdder();
+    private final LongAdder totalWaitTimeMillis = new LongAdder();
+    private final LongAdder deliveredPassengers = new LongAdder();
+    // Differs from the delivered passengers by the legs ending at a transfer floor
+    private final LongAdder finishedRides = new LongAdder();
+    private final LongAdder totalTripTimeMillis = new LongAdder();
+
+    private final JourneyHistograms allPassengers = new JourneyHistograms();
+    // Sorted, so reports list floors and elevators in order
+    private final Map<Integer, JourneyHistograms> byOriginFloor = new ConcurrentSkipListMap<>();
+    private final Map<Integer, JourneyHistograms> byElevator = new ConcurrentSkipListMap<>();
+    // Only waits, keyed by the slot of the simulation clock passengers spawned in, see getSpawnTimeSlot()
+    private final Map<Integer, LatencyHistogram> waitTimesBySpawnTimeSlot = new ConcurrentSkipListMap<>();
+
+    public void recordBoarding(Passenger passenger, int elevatorNumber) {
+        boardedPassengers.increment();
+        totalWaitTimeMillis.add(passenger.getWaitTimeMillis());
+        allPassengers.recordBoarding(passenger);
+        histogramsOf(byOriginFloor, passenger.originFloorNumber).recordBoarding(passenger);
+        histogramsOf(byElevator, elevatorNumber).recordBoarding(passenger);
+        waitTimesOf(getSpawnTimeSlot(passenger.spawnTimeMillis)).record(passenger.getWaitTimeMillis());
+    }
+
+    // Only a passenger getting out at the end of their journey counts as delivered. The ride of a leg ending at a
+    // transfer floor is recorded like any other.
+    public void recordAlighting(Passenger passenger, int elevatorNumber) {
+        if (passenger.isOnFinalLeg()) {
+            deliveredPassengers.increment();
+        }
+        finishedRides.increment();
+        totalTripTimeMillis.add(passenger.getRideTimeMillis());
+        allPassengers.recordAlighting(passenger);
+        histogramsOf(byOriginFloor, passenger.originFloorNumber).recordAlighting(passenger);
+        histogramsOf(byElevator, elevatorNumber).recordAlighting(passenger);
+    }
+
+    // Adds the totals and the distribution of all passengers of a finished run, for statistics across several
+    // buildings. The breakdowns by floor and elevator are left out, as the numbers mean different floors and elevators
+    // in different buildings, while the waits by spawn time are added slot by slot.
+    public void add(TripStatistics other) {
+        boardedPassengers.add(other.boardedPassengers.sum());
+        totalWaitTimeMillis.add(other.totalWaitTimeMillis.sum());
+        deliveredPassengers.add(other.deliveredPassengers.sum());
+        finishedRides.add(other.finishedRides.sum());
+        totalTripTimeMillis.add(other.totalTripTimeMillis.sum());
+        allPassengers.add(other.allPassengers);
+        other.waitTimesBySpawnTimeSlot.forEach((slot, waitTimes) -> waitTimesOf(slot).add(waitTimes));
+    }
+
+    public static int getSpawnTimeSlot(long spawnTimeMillis) {
+        return (int) (spawnTimeMillis / SPAWN_TIME_SLOT_MILLIS);
+    }
+
+    private LatencyHistogram waitTimesOf(Integer slot) {
+        LatencyHistogram existingWaitTimes = waitTimesBySpawnTimeSlot.get(slot);
+        return existingWaitTimes != null ? existingWaitTimes : waitTimesBySpawnTimeSlot.computeIfAbsent(slot, k -> new LatencyHistogram());
+    }
+
+    // Takes the key boxed already, as floor numbers above 127 would be boxed into a new Integer on every lookup
+    private static JourneyHistograms histogramsOf(Map<Integer, JourneyHistograms> histograms, Integer key) {
+        JourneyHistograms existingHistograms = histograms.get(key);
+        return existingHistograms != null ? existingHistograms : histograms.computeIfAbsent(key, k -> new JourneyHistograms());
+    }
+
+    public long getDeliveredPassengers() {
+        return deliveredPassengers.sum();
+    }
+
+    public double getAverageWaitTimeMillis() {
+        return average(totalWaitTimeMillis.sum(), boardedPassengers.sum());
+    }
+
+    public double getAverageTripTimeMillis() {
+        return average(totalTripTimeMillis.sum(), finishedRides.sum());
+    }
+
+    public long getWaitTimeMillisAtPercentile(double percentile) {
+        return allPassengers.getWaitTimes().getValueAtPercentile(percentile);
+    }
+
+    public long getTripTimeMillisAtPercentile(double percentile) {
+        return allPassengers.getRideTimes().getValueAtPercentile(percentile);
+    }
+
+    // From spawning to getting out at the final destination, over every leg of the journey
+    public double getAverageJourneyTimeMillis() {
+        LatencyHistogram journeyTimes = allPassengers.getJourneyTimes();
+        return average(journeyTimes.getTotalSum(), journeyTimes.getTotalCount());
+    }
+
+    public long getJourneyTimeMillisAtPercentile(double percentile) {
+        return allPassengers.getJourneyTimes().getValueAtPercentile(percentile);
+    }
+
+    public JourneyHistograms getAllPassengers() {
+        return allPassengers;
+    }
+
+    public Map<Integer, JourneyHistograms> getByOriginFloor() {
+        return byOriginFloor;
+    }
+
+    public Map<Integer, JourneyHistograms> getByElevator() {
+        return byElevator;
+    }
+
+    public Map<Integer, LatencyHistogram> getWaitTimesBySpawnTimeSlot() {
+        return waitTimesBySpawnTimeSlot;
+    }
+
+    // Can be called at any time, also while the simulation is still running
+    public String getReport() {
+        StringBuilder report = new StringBuilder(toString());
+        report.append(System.lineSeparator()).append("All passengers: ").append(allPassengers);
+        byOriginFloor.forEach((floorNumber, histograms) ->
+                report.append(System.lineSeparator()).append("From floor ").append(floorNumber).append(": ").append(histograms));
+        byElevator.forEach((elevatorNumber, histograms) ->
+                report.append(System.lineSeparator()).append("Elevator ").append(elevatorNumber).append(": ").append(histograms));
+        return report.toString();
+    }
+
+    private double average(long total, long count) {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Delivered passengers: %s, average wait: %.0f ms, average trip: %.0f ms",
+                getDeliveredPassengers(), getAverageWaitTimeMillis(), getAverageTripTimeMillis());
+    }
+}
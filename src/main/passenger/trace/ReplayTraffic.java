@@ -0,0 +1,76 @@
+package main.passenger.trace;
+
+import main.passenger.traffic.TrafficModel;
+import main.passenger.traffic.Trip;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+
+// Feeds a recorded trace back into the building instead of drawing random passengers, so runs of different dispatch
+// strategies see exactly the same demand. The random generator is ignored. Records are read one at a time as the
+// simulation reaches them. Closing the replay closes the trace reader it was given.
+public class ReplayTraffic implements TrafficModel, AutoCloseable {
+    private final TraceReader traceReader;
+    // Read by nextArrivalDelayMillis() and handed out by the nextTrip() that follows
+    private Trip nextTrip;
+
+    public ReplayTraffic(TraceReader traceReader, int floorCount) throws IOException {
+        if (traceReader.getFloorCount() != floorCount) {
+            traceReader.close();
+            throw new IllegalArgumentException("Trace was recorded in a building with " + traceReader.getFloorCount()
+                    + " floors, not " + floorCount);
+        }
+        this.traceReader = traceReader;
+    }
+
+    @Override
+    public long nextArrivalDelayMillis(long timeMillis, SplittableRandom random) {
+        try {
+            if (!traceReader.next()) {
+                nextTrip = null;
+                return NO_MORE_ARRIVALS;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        nextTrip = new Trip(traceReader.getStartingFloorNumber(), traceReader.getDestinationFloorNumber());
+        return Math.max(0, traceReader.getTimeMillis() - timeMillis);
+    }
+
+    @Override
+    public Trip nextTrip(long timeMillis, SplittableRandom random) {
+        if (nextTrip == null) {
+            throw new IllegalStateException("No arrival is due, the trace has ended or nextArrivalDelayMillis() was not called");
+        }
+        Trip trip = nextTrip;
+        nextTrip = null;
+        return trip;
+    }
+
+    // Where the trace has been read up to, and the arrival read ahead of its time, so a restored run picks up the trace
+    // where the snapshot was taken instead of at its beginning
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeLong(traceReader.getPosition());
+        out.writeLong(traceReader.getTimeMillis());
+        out.writeBoolean(nextTrip != null);
+        if (nextTrip != null) {
+            out.writeInt(nextTrip.originFloorNumber());
+            out.writeInt(nextTrip.destinationFloorNumber());
+        }
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        traceReader.seek(in.readLong(), in.readLong());
+        nextTrip = in.readBoolean() ? new Trip(in.readInt(), in.readInt()) : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        traceReader.close();
+    }
+}
@@ -0,0 +1,41 @@
+package main.passenger.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// Layout of a trace file: the magic number, the format version and the floor count of the building, followed by one
+// record per passenger. A record holds the milliseconds since the previous passenger (since the start of the
+// simulation for the first one), the starting floor and the destination floor. Every number is an unsigned varint:
+// 7 bits per byte, lowest first, with the high bit set on every byte but the last.
+final class TraceFormat {
+    static final int MAGIC = 0x454C5452; // "ELTR"
+    static final byte VERSION = 1;
+    static final int MAX_VARINT_SIZE = 10;
+    static final int MAX_RECORD_SIZE = 3 * MAX_VARINT_SIZE;
+
+    private static final int PAYLOAD_BITS = 0x7F;
+    private static final int CONTINUATION_BIT = 0x80;
+
+    private TraceFormat() {
+    }
+
+    static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~PAYLOAD_BITS) != 0) {
+            buffer.put((byte) ((value & PAYLOAD_BITS) | CONTINUATION_BIT));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long getVarLong(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & PAYLOAD_BITS) << shift;
+            if ((b & CONTINUATION_BIT) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in trace");
+    }
+}
@@ -0,0 +1,112 @@
+package main.passenger.trace;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Streams the records of a trace file through a memory-mapped window that slides along the file, so traces larger
+// than the heap, or than the 2 GB a single mapping can cover, are read without copying them into memory. The window
+// moves on whenever less than a whole record is left in it. Not thread-safe.
+public class TraceReader implements AutoCloseable {
+    public static final long DEFAULT_WINDOW_SIZE = 256L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long windowSize;
+    private final int floorCount;
+    private MappedByteBuffer window;
+    private long windowStart = 0;
+
+    private long timeMillis = 0;
+    private int startingFloorNumber;
+    private int destinationFloorNumber;
+
+    public TraceReader(Path path) throws IOException {
+        this(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    public TraceReader(Path path, long windowSize) throws IOException {
+        if (windowSize < TraceFormat.MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Window must hold at least one record, got: " + windowSize);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowSize = windowSize;
+        mapWindowAt(0);
+        if (fileSize < Integer.BYTES + 1 || window.getInt() != TraceFormat.MAGIC) {
+            channel.close();
+            throw new IOException("Not a passenger trace: " + path);
+        }
+        byte version = window.get();
+        if (version != TraceFormat.VERSION) {
+            channel.close();
+            throw new IOException("Unsupported trace version " + version + " in " + path);
+        }
+        this.floorCount = (int) TraceFormat.getVarLong(window);
+    }
+
+    // Moves to the next record, returns false at the end of the trace
+    public boolean next() throws IOException {
+        long position = getPosition();
+        if (position >= fileSize) {
+            return false;
+        }
+        if (window.remaining() < TraceFormat.MAX_RECORD_SIZE && windowStart + window.limit() < fileSize) {
+            mapWindowAt(position);
+        }
+        // The window reaches the end of the file whenever less than a whole record is left in it, so running out of
+        // window means the file ends in the middle of the record
+        try {
+            timeMillis += TraceFormat.getVarLong(window);
+            startingFloorNumber = (int) TraceFormat.getVarLong(window);
+            destinationFloorNumber = (int) TraceFormat.getVarLong(window);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated trace, the last record is cut off at byte " + fileSize, e);
+        }
+        return true;
+    }
+
+    // Byte offset of the record after the current one, which seek() comes back to
+    public long getPosition() {
+        return windowStart + window.position();
+    }
+
+    // Goes back or forth to a position taken from getPosition(), with the time of the record read before it
+    public void seek(long position, long timeMillis) throws IOException {
+        if (position < 0 || position > fileSize) {
+            throw new IllegalArgumentException("Position " + position + " is outside the trace of " + fileSize + " bytes");
+        }
+        mapWindowAt(position);
+        this.timeMillis = timeMillis;
+    }
+
+    private void mapWindowAt(long position) throws IOException {
+        windowStart = position;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, fileSize - position));
+    }
+
+    public int getFloorCount() {
+        return floorCount;
+    }
+
+    // Milliseconds since the start of the simulation
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public int getStartingFloorNumber() {
+        return startingFloorNumber;
+    }
+
+    public int getDestinationFloorNumber() {
+        return destinationFloorNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
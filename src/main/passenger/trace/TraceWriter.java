@@ -0,0 +1,70 @@
+package main.passenger.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Writes passenger arrivals to a trace file in the TraceFormat. Records are collected in a direct buffer and written
+// to the channel whenever it fills up, so most passengers cost a few bytes in memory and no system call. Synchronized,
+// so a shutdown hook can close it while the generator thread is writing.
+public class TraceWriter implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long previousTimeMillis = 0;
+    private long recordCount = 0;
+    private boolean isClosed = false;
+
+    public TraceWriter(Path path, int floorCount) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        buffer.putInt(TraceFormat.MAGIC);
+        buffer.put(TraceFormat.VERSION);
+        TraceFormat.putVarLong(buffer, floorCount);
+    }
+
+    // Times are milliseconds since the start of the simulation and may not go backwards
+    public synchronized void write(long timeMillis, int startingFloorNumber, int destinationFloorNumber) throws IOException {
+        if (isClosed) {
+            throw new IOException("Trace is closed");
+        }
+        if (timeMillis < previousTimeMillis) {
+            throw new IllegalArgumentException("Passengers must be traced in time order: " + timeMillis + " < " + previousTimeMillis);
+        }
+        if (buffer.remaining() < TraceFormat.MAX_RECORD_SIZE) {
+            flushBuffer();
+        }
+        TraceFormat.putVarLong(buffer, timeMillis - previousTimeMillis);
+        TraceFormat.putVarLong(buffer, startingFloorNumber);
+        TraceFormat.putVarLong(buffer, destinationFloorNumber);
+        previousTimeMillis = timeMillis;
+        recordCount++;
+    }
+
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        try {
+            flushBuffer();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package main.passenger.traffic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Poisson arrivals whose rate and trip mix change from one period to the next. The periods follow each other from the
+// start of the simulation and the last one lasts until its end, whatever its duration.
+public class PoissonTraffic implements TrafficModel {
+    private final int floorCount;
+    private final TrafficPeriod[] periods;
+    // Start of each period, in milliseconds since the start of the simulation
+    private final long[] periodStartsMillis;
+
+    public PoissonTraffic(int floorCount, List<TrafficPeriod> periods) {
+        if (periods.isEmpty()) {
+            throw new IllegalArgumentException("At least one traffic period is needed");
+        }
+        this.floorCount = floorCount;
+        this.periods = periods.toArray(TrafficPeriod[]::new);
+        this.periodStartsMillis = new long[this.periods.length];
+        for (int i = 1; i < this.periods.length; i++) {
+            periodStartsMillis[i] = periodStartsMillis[i - 1] + this.periods[i - 1].durationMillis();
+        }
+    }
+
+    // Draws an exponential gap at the rate of the current period. A gap running past the end of the period is dropped
+    // and drawn again from there at the next rate, which is exact as the exponential distribution is memoryless.
+    @Override
+    public long nextArrivalDelayMillis(long timeMillis, SplittableRandom random) {
+        double arrivalTimeMillis = timeMillis;
+        int periodIndex = getPeriodIndex(timeMillis);
+        while (true) {
+            double ratePerMilli = periods[periodIndex].arrivalsPerMinute() / TimeUnit.MINUTES.toMillis(1);
+            double gapMillis = -Math.log(1 - random.nextDouble()) / ratePerMilli;
+            boolean isLastPeriod = periodIndex == periods.length - 1;
+            if (isLastPeriod || arrivalTimeMillis + gapMillis < periodStartsMillis[periodIndex + 1]) {
+                return Math.round(arrivalTimeMillis + gapMillis) - timeMillis;
+            }
+            arrivalTimeMillis = periodStartsMillis[++periodIndex];
+        }
+    }
+
+    @Override
+    public Trip nextTrip(long timeMillis, SplittableRandom random) {
+        return periods[getPeriodIndex(timeMillis)].nextTrip(floorCount, random);
+    }
+
+    // Every period busier than the one before it starts a peak
+    @Override
+    public List<Long> getPeakStartsMillis() {
+        List<Long> peakStartsMillis = new ArrayList<>();
+        for (int i = 1; i < periods.length; i++) {
+            if (periods[i].arrivalsPerMinute() > periods[i - 1].arrivalsPerMinute()) {
+                peakStartsMillis.add(periodStartsMillis[i]);
+            }
+        }
+        return peakStartsMillis;
+    }
+
+    private int getPeriodIndex(long timeMillis) {
+        int periodIndex = periods.length - 1;
+        while (periodIndex > 0 && timeMillis < periodStartsMillis[periodIndex]) {
+            periodIndex--;
+        }
+        return periodIndex;
+    }
+}
@@ -0,0 +1,30 @@
+package main.passenger.traffic;
+
+import java.util.SplittableRandom;
+
+// Residential passengers only move between 1st floor and the floor they reside. There's 50% chance they start at 1st
+// floor. They arrive at a fixed interval, which keeps runs comparable to the original generator.
+public class ResidentialTraffic implements TrafficModel {
+    private static final int LOBBY_FLOOR_NUMBER = 1;
+
+    private final int floorCount;
+    private final long generationIntervalMillis;
+
+    public ResidentialTraffic(int floorCount, long generationIntervalMillis) {
+        this.floorCount = floorCount;
+        this.generationIntervalMillis = generationIntervalMillis;
+    }
+
+    @Override
+    public long nextArrivalDelayMillis(long timeMillis, SplittableRandom random) {
+        return generationIntervalMillis;
+    }
+
+    @Override
+    public Trip nextTrip(long timeMillis, SplittableRandom random) {
+        int residenceFloorNumber = TrafficModel.randomFloorNumberExcept(floorCount, LOBBY_FLOOR_NUMBER, random);
+        return random.nextBoolean()
+                ? new Trip(LOBBY_FLOOR_NUMBER, residenceFloorNumber)
+                : new Trip(residenceFloorNumber, LOBBY_FLOOR_NUMBER);
+    }
+}
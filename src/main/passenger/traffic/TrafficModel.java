@@ -0,0 +1,36 @@
+package main.passenger.traffic;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Decides when passengers arrive and where they travel. Times are milliseconds since the simulation started, and every
+// random draw comes from the generator's seeded SplittableRandom, so a run only depends on its seed.
+public interface TrafficModel {
+    // Returned as the delay once a model has no passengers left to generate
+    long NO_MORE_ARRIVALS = Long.MAX_VALUE;
+
+    long nextArrivalDelayMillis(long timeMillis, SplittableRandom random);
+
+    Trip nextTrip(long timeMillis, SplittableRandom random);
+
+    // Times the arrival rate rises to a peak, for reporting how the elevators cope with the first passengers of a peak
+    default List<Long> getPeakStartsMillis() {
+        return List.of();
+    }
+
+    // Saved with the passenger generator in simulation snapshots, by models that keep more than the random generator
+    default void writeState(DataOutput out) throws IOException {
+    }
+
+    default void readState(DataInput in) throws IOException {
+    }
+
+    // Draws one of the other floors without building a list of them: floors above the excluded one are shifted down
+    static int randomFloorNumberExcept(int floorCount, int floorNumberToExclude, SplittableRandom random) {
+        int floorNumber = 1 + random.nextInt(floorCount - 1);
+        return floorNumber >= floorNumberToExclude ? floorNumber + 1 : floorNumber;
+    }
+}
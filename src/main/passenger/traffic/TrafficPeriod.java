@@ -0,0 +1,39 @@
+package main.passenger.traffic;
+
+import java.util.SplittableRandom;
+
+// A stretch of the day with a constant arrival rate and mix of trips. Incoming passengers go from 1st floor up,
+// outgoing ones down to 1st floor, and the rest travel between two random floors above it, so the lobby sees exactly
+// the given shares. A building too low for inter-floor trips sends the rest down to 1st floor.
+public record TrafficPeriod(long durationMillis, double arrivalsPerMinute, double incomingShare, double outgoingShare) {
+    private static final int LOBBY_FLOOR_NUMBER = 1;
+
+    public TrafficPeriod {
+        if (arrivalsPerMinute <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be positive, got: " + arrivalsPerMinute);
+        }
+        if (incomingShare < 0 || outgoingShare < 0 || incomingShare + outgoingShare > 1) {
+            throw new IllegalArgumentException("Shares must be between 0 and 1 in total, got: " + incomingShare + ", " + outgoingShare);
+        }
+    }
+
+    Trip nextTrip(int floorCount, SplittableRandom random) {
+        double draw = random.nextDouble();
+        if (draw < incomingShare) {
+            return new Trip(LOBBY_FLOOR_NUMBER, TrafficModel.randomFloorNumberExcept(floorCount, LOBBY_FLOOR_NUMBER, random));
+        }
+        if (draw < incomingShare + outgoingShare) {
+            return new Trip(TrafficModel.randomFloorNumberExcept(floorCount, LOBBY_FLOOR_NUMBER, random), LOBBY_FLOOR_NUMBER);
+        }
+        if (floorCount < 3) {
+            return new Trip(floorCount, LOBBY_FLOOR_NUMBER);
+        }
+        // Both from floors 2 up, the destination skips the origin like randomFloorNumberExcept() does
+        int originFloorNumber = 2 + random.nextInt(floorCount - 1);
+        int destinationFloorNumber = 2 + random.nextInt(floorCount - 2);
+        if (destinationFloorNumber >= originFloorNumber) {
+            destinationFloorNumber++;
+        }
+        return new Trip(originFloorNumber, destinationFloorNumber);
+    }
+}
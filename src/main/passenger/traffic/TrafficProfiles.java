@@ -0,0 +1,88 @@
+package main.passenger.traffic;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Traffic models for the usual patterns of a building, by name. The shares of incoming, outgoing and inter-floor trips
+// during the peaks follow the rules of thumb of elevator traffic design.
+public class TrafficProfiles {
+    public static final String RESIDENTIAL = "residential";
+    public static final String OFFICE = "office";
+    public static final String UP_PEAK = "upPeak";
+    public static final String DOWN_PEAK = "downPeak";
+    public static final String LUNCH = "lunch";
+    public static final String OFFICE_DAY = "officeDay";
+    public static final List<String> NAMES = List.of(RESIDENTIAL, OFFICE, UP_PEAK, DOWN_PEAK, LUNCH, OFFICE_DAY);
+
+    private static final long UNTIL_THE_END = Long.MAX_VALUE;
+
+    private TrafficProfiles() {
+    }
+
+    public static TrafficModel byName(String name, int floorCount, double arrivalsPerMinute) {
+        return switch (name) {
+            case RESIDENTIAL -> residential(floorCount, arrivalsPerMinute);
+            case OFFICE -> officeWorkers(floorCount, arrivalsPerMinute);
+            case UP_PEAK -> upPeak(floorCount, arrivalsPerMinute);
+            case DOWN_PEAK -> downPeak(floorCount, arrivalsPerMinute);
+            case LUNCH -> lunch(floorCount, arrivalsPerMinute);
+            case OFFICE_DAY -> officeDay(floorCount, arrivalsPerMinute);
+            default -> throw new IllegalArgumentException("Unknown traffic model: " + name + ", expected one of " + NAMES);
+        };
+    }
+
+    public static TrafficModel residential(int floorCount, double arrivalsPerMinute) {
+        return new ResidentialTraffic(floorCount, Math.max(1, Math.round(TimeUnit.MINUTES.toMillis(1) / arrivalsPerMinute)));
+    }
+
+    // Office workers can go between random floors. There's 2 in 3 chance they start or finish at 1st floor, and 1 in 3
+    // chance they start and finish on random floors.
+    public static TrafficModel officeWorkers(int floorCount, double arrivalsPerMinute) {
+        return new PoissonTraffic(floorCount, List.of(officeWorkerPeriod(UNTIL_THE_END, arrivalsPerMinute)));
+    }
+
+    // Morning arrival, nearly everyone comes in from 1st floor
+    public static TrafficModel upPeak(int floorCount, double arrivalsPerMinute) {
+        return new PoissonTraffic(floorCount, List.of(upPeakPeriod(UNTIL_THE_END, arrivalsPerMinute)));
+    }
+
+    // Evening departure, nearly everyone leaves through 1st floor
+    public static TrafficModel downPeak(int floorCount, double arrivalsPerMinute) {
+        return new PoissonTraffic(floorCount, List.of(downPeakPeriod(UNTIL_THE_END, arrivalsPerMinute)));
+    }
+
+    // People leave for lunch and come back at the same time, with some visits between floors
+    public static TrafficModel lunch(int floorCount, double arrivalsPerMinute) {
+        return new PoissonTraffic(floorCount, List.of(lunchPeriod(UNTIL_THE_END, arrivalsPerMinute)));
+    }
+
+    // A working day starting at 8:00, with the given rate at the morning and evening peaks and lower rates in between.
+    // The night after the down peak lasts until the end of the simulation.
+    public static TrafficModel officeDay(int floorCount, double peakArrivalsPerMinute) {
+        long hour = TimeUnit.HOURS.toMillis(1);
+        return new PoissonTraffic(floorCount, List.of(
+                upPeakPeriod(hour, peakArrivalsPerMinute),
+                officeWorkerPeriod(3 * hour, peakArrivalsPerMinute / 4),
+                lunchPeriod(hour, peakArrivalsPerMinute * 3 / 4),
+                officeWorkerPeriod(3 * hour, peakArrivalsPerMinute / 4),
+                downPeakPeriod(hour, peakArrivalsPerMinute),
+                officeWorkerPeriod(UNTIL_THE_END, peakArrivalsPerMinute / 20)
+        ));
+    }
+
+    private static TrafficPeriod officeWorkerPeriod(long durationMillis, double arrivalsPerMinute) {
+        return new TrafficPeriod(durationMillis, arrivalsPerMinute, 1.0 / 3, 1.0 / 3);
+    }
+
+    private static TrafficPeriod upPeakPeriod(long durationMillis, double arrivalsPerMinute) {
+        return new TrafficPeriod(durationMillis, arrivalsPerMinute, 0.85, 0.05);
+    }
+
+    private static TrafficPeriod downPeakPeriod(long durationMillis, double arrivalsPerMinute) {
+        return new TrafficPeriod(durationMillis, arrivalsPerMinute, 0.05, 0.85);
+    }
+
+    private static TrafficPeriod lunchPeriod(long durationMillis, double arrivalsPerMinute) {
+        return new TrafficPeriod(durationMillis, arrivalsPerMinute, 0.4, 0.4);
+    }
+}
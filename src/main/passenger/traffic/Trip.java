@@ -0,0 +1,4 @@
+package main.passenger.traffic;
+
+public record Trip(int originFloorNumber, int destinationFloorNumber) {
+}
@@ -0,0 +1,243 @@
+package main.simulation;
+
+import main.elevator.Elevator;
+import main.elevator.ElevatorGroupControlSystem;
+import main.passenger.PassengerGenerator;
+import main.passenger.traffic.TrafficModel;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// Drives the elevators, their group control system and the passenger generator from a single thread on a virtual
+// clock, so simulated time passes as fast as the events can be processed instead of sleeping between them. A zoned
+// building has one group per bank, all driven by the same engine and clock.
+public class DiscreteEventSimulation {
+
+    private static final int SNAPSHOT_MAGIC = 0x454C534E; // "ELSN"
+    private static final byte SNAPSHOT_VERSION = 5;
+    private static final long NOT_SCHEDULED = -1;
+
+    private final EventScheduler scheduler;
+    private final VirtualClock clock;
+
+    private final List<ElevatorGroupControlSystem> groupControlSystems;
+    // Elevators of every group, one group after the other
+    private final List<Elevator> elevators = new ArrayList<>();
+    // Index of the first elevator of each group in elevators, and past the last one of the last group
+    private final int[] firstElevatorIndexes;
+    private final PassengerGenerator passengerGenerator;
+
+    // Due time of each pending event, and the order it was scheduled in, so a snapshot can schedule them all again
+    // in the same order. Every kind of event is pending at most once, or once per elevator or group.
+    private final long[] elevatorStepTimes;
+    private final long[] elevatorStepOrders;
+    private final long[] callHandlingTimes;
+    private final long[] callHandlingOrders;
+    private long arrivalTimeMillis = NOT_SCHEDULED;
+    private long arrivalOrder;
+    private long nextOrder = 0;
+    private boolean isStarted = false;
+
+    private enum EventKind { ELEVATOR_STEP, ELEVATOR_CALL_HANDLING, PASSENGER_ARRIVAL }
+
+    // The index is that of the elevator or the group, depending on the kind
+    private record PendingEvent(long timeMillis, long order, EventKind kind, int index) {
+    }
+
+    public DiscreteEventSimulation(ElevatorGroupControlSystem groupControlSystem, PassengerGenerator passengerGenerator, VirtualClock clock) {
+        this(List.of(groupControlSystem), passengerGenerator, clock);
+    }
+
+    public DiscreteEventSimulation(List<ElevatorGroupControlSystem> groupControlSystems, PassengerGenerator passengerGenerator,
+                                   VirtualClock clock) {
+        this.scheduler = new EventScheduler(clock);
+        this.clock = clock;
+        this.groupControlSystems = List.copyOf(groupControlSystems);
+        this.passengerGenerator = passengerGenerator;
+        this.firstElevatorIndexes = new int[groupControlSystems.size() + 1];
+        for (int i = 0; i < groupControlSystems.size(); i++) {
+            firstElevatorIndexes[i] = elevators.size();
+            elevators.addAll(groupControlSystems.get(i).getElevators());
+        }
+        firstElevatorIndexes[groupControlSystems.size()] = elevators.size();
+        this.elevatorStepTimes = new long[elevators.size()];
+        this.elevatorStepOrders = new long[elevators.size()];
+        this.callHandlingTimes = new long[groupControlSystems.size()];
+        this.callHandlingOrders = new long[groupControlSystems.size()];
+        Arrays.fill(elevatorStepTimes, NOT_SCHEDULED);
+        Arrays.fill(callHandlingTimes, NOT_SCHEDULED);
+        for (int i = 0; i < groupControlSystems.size(); i++) {
+            int group = i;
+            groupControlSystems.get(i).getChangeSignal().setListener(() -> scheduleElevatorCallHandling(group));
+        }
+    }
+
+    // Runs for the given simulated time from where the simulation stands, an empty building on the first run
+    public void run(long durationMillis) {
+        if (!isStarted) {
+            isStarted = true;
+            for (int i = 0; i < elevators.size(); i++) {
+                scheduleElevatorStepAt(i, clock.currentTimeMillis());
+            }
+            scheduleNextPassenger();
+        }
+        scheduler.runUntil(clock.currentTimeMillis() + durationMillis);
+    }
+
+    // Button changes and idle elevators signal the group control system, which then runs once at the current time
+    private void scheduleElevatorCallHandling(int group) {
+        if (callHandlingTimes[group] == NOT_SCHEDULED) {
+            scheduleElevatorCallHandlingAt(group, clock.currentTimeMillis());
+        }
+    }
+
+    private void scheduleElevatorCallHandlingAt(int group, long timeMillis) {
+        callHandlingTimes[group] = timeMillis;
+        callHandlingOrders[group] = nextOrder++;
+        scheduler.scheduleAt(timeMillis, () -> handleElevatorCalls(group));
+    }
+
+    private void handleElevatorCalls(int group) {
+        callHandlingTimes[group] = NOT_SCHEDULED;
+        groupControlSystems.get(group).handleElevatorCalls();
+        // Equivalent of Elevator.setDestination() waking the elevator thread up. A moving elevator is stepped as well
+        // when it has a new destination, which it may still be able to stop at on the way.
+        for (int i = firstElevatorIndexes[group]; i < firstElevatorIndexes[group + 1]; i++) {
+            Elevator elevator = elevators.get(i);
+            if (elevator.isNotSleeping() && elevatorStepTimes[i] == NOT_SCHEDULED
+                    || elevatorStepTimes[i] > clock.currentTimeMillis() && elevator.hasUncheckedDestination()) {
+                scheduleElevatorStepAt(i, clock.currentTimeMillis());
+            }
+        }
+    }
+
+    // Only the latest step scheduled for an elevator counts, the ones it replaced are skipped when they come due
+    private void stepElevator(int elevatorIndex, long order) {
+        if (elevatorStepOrders[elevatorIndex] != order) {
+            return;
+        }
+        elevatorStepTimes[elevatorIndex] = NOT_SCHEDULED;
+        long delay = elevators.get(elevatorIndex).step();
+        if (delay != Elevator.SLEEPING) {
+            scheduleElevatorStepAt(elevatorIndex, clock.currentTimeMillis() + delay);
+        }
+    }
+
+    private void scheduleElevatorStepAt(int elevatorIndex, long timeMillis) {
+        long order = nextOrder++;
+        elevatorStepTimes[elevatorIndex] = timeMillis;
+        elevatorStepOrders[elevatorIndex] = order;
+        scheduler.scheduleAt(timeMillis, () -> stepElevator(elevatorIndex, order));
+    }
+
+    // Only the next arrival is ever scheduled, its delay is drawn from the traffic model when the previous one arrives
+    private void scheduleNextPassenger() {
+        long delayMillis = passengerGenerator.nextArrivalDelayMillis();
+        if (delayMillis == TrafficModel.NO_MORE_ARRIVALS) {
+            return;
+        }
+        schedulePassengerArrivalAt(clock.currentTimeMillis() + delayMillis);
+    }
+
+    private void schedulePassengerArrivalAt(long timeMillis) {
+        arrivalTimeMillis = timeMillis;
+        arrivalOrder = nextOrder++;
+        scheduler.scheduleAt(timeMillis, () -> {
+            arrivalTimeMillis = NOT_SCHEDULED;
+            passengerGenerator.generatePassenger();
+            scheduleNextPassenger();
+        });
+    }
+
+    // Saves the simulated time, the building with its waiting passengers and hall calls, every elevator with its riders
+    // and car calls, the dispatcher's assignments, the generator's random state and the pending events. Trip
+    // statistics are left out, so a run restored from a warmed-up snapshot only measures what happens after it.
+    public void writeSnapshot(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeByte(SNAPSHOT_VERSION);
+        out.writeLong(clock.currentTimeMillis());
+        for (ElevatorGroupControlSystem groupControlSystem : groupControlSystems) {
+            groupControlSystem.getBuilding().writeState(out);
+            groupControlSystem.writeState(out);
+        }
+        passengerGenerator.writeState(out);
+
+        List<PendingEvent> pendingEvents = getPendingEvents();
+        out.writeInt(pendingEvents.size());
+        for (PendingEvent event : pendingEvents) {
+            out.writeByte(event.kind().ordinal());
+            out.writeInt(event.index());
+            out.writeLong(event.timeMillis());
+        }
+        out.flush();
+    }
+
+    // Continues from a snapshot instead of an empty building. The simulation must not have run yet, and has to be set
+    // up like the one the snapshot was taken from: same number of floors and elevators, same capacity and traffic model.
+    // The dispatch strategy may differ, which is what what-if runs are for. A replayed trace goes on from where the
+    // snapshot was taken, so it has to be the same trace.
+    public void restoreSnapshot(InputStream inputStream) throws IOException {
+        if (isStarted) {
+            throw new IllegalStateException("Only a simulation that has not run yet can be restored");
+        }
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("Not a simulation snapshot");
+        }
+        byte version = in.readByte();
+        if (version != SNAPSHOT_VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        clock.advanceTo(in.readLong());
+        for (ElevatorGroupControlSystem groupControlSystem : groupControlSystems) {
+            groupControlSystem.getBuilding().readState(in);
+            groupControlSystem.readState(in);
+        }
+        passengerGenerator.readState(in);
+
+        int pendingEventCount = in.readInt();
+        for (int i = 0; i < pendingEventCount; i++) {
+            EventKind kind = EventKind.values()[in.readByte()];
+            int index = in.readInt();
+            long timeMillis = in.readLong();
+            switch (kind) {
+                case ELEVATOR_STEP -> scheduleElevatorStepAt(index, timeMillis);
+                case ELEVATOR_CALL_HANDLING -> scheduleElevatorCallHandlingAt(index, timeMillis);
+                case PASSENGER_ARRIVAL -> schedulePassengerArrivalAt(timeMillis);
+            }
+        }
+        isStarted = true;
+    }
+
+    private List<PendingEvent> getPendingEvents() {
+        List<PendingEvent> pendingEvents = new ArrayList<>();
+        for (int i = 0; i < elevators.size(); i++) {
+            if (elevatorStepTimes[i] != NOT_SCHEDULED) {
+                pendingEvents.add(new PendingEvent(elevatorStepTimes[i], elevatorStepOrders[i], EventKind.ELEVATOR_STEP, i));
+            }
+        }
+        for (int i = 0; i < groupControlSystems.size(); i++) {
+            if (callHandlingTimes[i] != NOT_SCHEDULED) {
+                pendingEvents.add(new PendingEvent(callHandlingTimes[i], callHandlingOrders[i], EventKind.ELEVATOR_CALL_HANDLING, i));
+            }
+        }
+        if (arrivalTimeMillis != NOT_SCHEDULED) {
+            pendingEvents.add(new PendingEvent(arrivalTimeMillis, arrivalOrder, EventKind.PASSENGER_ARRIVAL, 0));
+        }
+        pendingEvents.sort(Comparator.comparingLong(PendingEvent::timeMillis).thenComparingLong(PendingEvent::order));
+        return pendingEvents;
+    }
+
+    public long getSimulatedTimeMillis() {
+        return scheduler.getClock().currentTimeMillis();
+    }
+}
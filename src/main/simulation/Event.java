@@ -0,0 +1,11 @@
+package main.simulation;
+
+// Sequence number keeps events scheduled for the same time in insertion order, so runs are deterministic.
+record Event(long timeMillis, long sequence, Runnable action) implements Comparable<Event> {
+
+    @Override
+    public int compareTo(Event other) {
+        int byTime = Long.compare(timeMillis, other.timeMillis);
+        return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+    }
+}
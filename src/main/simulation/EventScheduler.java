@@ -0,0 +1,42 @@
+package main.simulation;
+
+import java.util.PriorityQueue;
+
+public class EventScheduler {
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private final VirtualClock clock;
+    private long nextSequence = 0;
+
+    public EventScheduler(VirtualClock clock) {
+        this.clock = clock;
+    }
+
+    public void schedule(long delayMillis, Runnable action) {
+        scheduleAt(clock.currentTimeMillis() + delayMillis, action);
+    }
+
+    public void scheduleAt(long timeMillis, Runnable action) {
+        if (timeMillis < clock.currentTimeMillis()) {
+            throw new IllegalArgumentException("Cannot schedule event in the past: " + timeMillis);
+        }
+        events.add(new Event(timeMillis, nextSequence++, action));
+    }
+
+    // Executes events in time order until the queue is empty or the next event is after endTimeMillis
+    public void runUntil(long endTimeMillis) {
+        while (!events.isEmpty() && events.peek().timeMillis() <= endTimeMillis) {
+            Event event = events.poll();
+            clock.advanceTo(event.timeMillis());
+            event.action().run();
+        }
+        clock.advanceTo(Math.max(clock.currentTimeMillis(), endTimeMillis));
+    }
+
+    public int getPendingEventCount() {
+        return events.size();
+    }
+
+    public VirtualClock getClock() {
+        return clock;
+    }
+}
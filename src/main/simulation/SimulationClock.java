@@ -0,0 +1,7 @@
+package main.simulation;
+
+public interface SimulationClock {
+    SimulationClock SYSTEM = System::currentTimeMillis;
+
+    long currentTimeMillis();
+}
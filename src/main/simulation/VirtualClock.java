@@ -0,0 +1,17 @@
+package main.simulation;
+
+public class VirtualClock implements SimulationClock {
+    private long currentTimeMillis = 0;
+
+    @Override
+    public long currentTimeMillis() {
+        return currentTimeMillis;
+    }
+
+    void advanceTo(long timeMillis) {
+        if (timeMillis < currentTimeMillis) {
+            throw new IllegalArgumentException(String.format("Cannot move clock back: %s -> %s", currentTimeMillis, timeMillis));
+        }
+        currentTimeMillis = timeMillis;
+    }
+}
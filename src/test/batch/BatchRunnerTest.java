@@ -0,0 +1,65 @@
+package batch;
+
+import main.batch.BatchRunner;
+import main.batch.Scenario;
+import main.batch.ScenarioMatrix;
+import main.batch.ScenarioResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRunnerTest {
+
+    @Test
+    void parse_expandsEveryCombination() {
+        ScenarioMatrix matrix = ScenarioMatrix.parse(List.of("floors=5,10", "elevators=2", "seeds=1..3", "duration=60"));
+
+        List<Scenario> scenarios = matrix.getScenarios();
+
+        assertEquals(6, scenarios.size());
+        assertEquals(new Scenario(5, 2, 6, 2000, 3.5, 2.5, 1.0, 1.5, "eta", "scan", "none", "none", "residential", 300, 1, 60_000), scenarios.get(0));
+        assertEquals(new Scenario(10, 2, 6, 2000, 3.5, 2.5, 1.0, 1.5, "eta", "scan", "none", "none", "residential", 300, 3, 60_000), scenarios.get(5));
+    }
+
+    @Test
+    void run_appliesTheMotionOfTheCars() {
+        List<Scenario> scenarios = ScenarioMatrix.parse(List.of("floors=20", "maxSpeed=1,4", "acceleration=0.5,1.5",
+                "duration=1800")).getScenarios();
+
+        List<ScenarioResult> results = new BatchRunner(1).runAll(scenarios);
+
+        assertEquals(4, results.size());
+        assertEquals(4.0, scenarios.get(3).maxSpeed());
+        assertEquals(1.5, scenarios.get(3).acceleration());
+        // The slowest cars take the longest trips
+        assertTrue(results.get(0).averageTripTimeMillis() > results.get(3).averageTripTimeMillis());
+    }
+
+    @Test
+    void parse_rejectsUnknownParameters() {
+        assertThrows(IllegalArgumentException.class, () -> ScenarioMatrix.parse(List.of("speed=2")));
+    }
+
+    @Test
+    void runAll_isReproducibleRegardlessOfParallelism() {
+        List<Scenario> scenarios = ScenarioMatrix.parse(List.of("floors=5,10", "seeds=1..4", "duration=600")).getScenarios();
+
+        List<ScenarioResult> sequentialResults = new BatchRunner(1).runAll(scenarios);
+        List<ScenarioResult> parallelResults = new BatchRunner(4).runAll(scenarios);
+
+        assertEquals(sequentialResults, parallelResults);
+        assertTrue(sequentialResults.stream().allMatch(result -> result.deliveredPassengers() > 0));
+    }
+
+    @Test
+    void run_zoningShortensRoundTripsInATallBuilding() {
+        BatchRunner batchRunner = new BatchRunner(1);
+        List<ScenarioResult> results = ScenarioMatrix.parse(List.of("floors=60", "elevators=8", "zoning=none,zoned",
+                "traffic=upPeak", "arrivalRate=10", "duration=1800")).getScenarios().stream().map(batchRunner::run).toList();
+
+        assertTrue(results.get(1).averageRoundTripMillis() < results.get(0).averageRoundTripMillis());
+        assertTrue(results.get(1).averageJourneyTimeMillis() < results.get(0).averageJourneyTimeMillis());
+    }
+}
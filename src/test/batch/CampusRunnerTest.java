@@ -0,0 +1,34 @@
+package batch;
+
+import main.batch.BatchRunner;
+import main.batch.CampusResult;
+import main.batch.CampusRunner;
+import main.batch.Scenario;
+import main.batch.ScenarioMatrix;
+import main.batch.ScenarioResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CampusRunnerTest {
+
+    @Test
+    void run_mergesEveryBuildingRegardlessOfShardCount() {
+        List<Scenario> buildings = ScenarioMatrix.parse(List.of("floors=5,20", "elevators=1,3", "seeds=1..3", "duration=600")).getScenarios();
+        List<ScenarioResult> batchResults = new BatchRunner(1).runAll(buildings);
+
+        CampusResult singleShard = new CampusRunner(1).run(buildings);
+        CampusResult fourShards = new CampusRunner(4).run(buildings);
+
+        assertEquals(batchResults, singleShard.buildingResults());
+        assertEquals(batchResults, fourShards.buildingResults());
+        assertEquals(4, fourShards.shardCount());
+        long delivered = batchResults.stream().mapToLong(ScenarioResult::deliveredPassengers).sum();
+        assertEquals(delivered, singleShard.getDeliveredPassengers());
+        assertEquals(delivered, fourShards.getDeliveredPassengers());
+        assertEquals(singleShard.campusStatistics().getWaitTimeMillisAtPercentile(95),
+                fourShards.campusStatistics().getWaitTimeMillisAtPercentile(95));
+    }
+}
@@ -0,0 +1,36 @@
+package batch;
+
+import main.batch.BatchRunner;
+import main.batch.Optimiser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimiserTest {
+
+    @Test
+    void run_ranksTheCandidatesThatLastedLongestFirst() {
+        Optimiser optimiser = Optimiser.parse(List.of("floors=10", "elevators=2", "capacity=4,8", "doorDwell=1000,3000",
+                "maxSpeed=1.6,4", "dispatch=eta,nearestCar", "traffic=upPeak", "arrivalRate=10", "duration=600", "samples=6",
+                "objective=meanWait"));
+
+        List<Optimiser.Candidate> ranking = optimiser.run(new BatchRunner(4));
+
+        assertEquals(6, ranking.size());
+        // Two are run on three seeds, the best of them on nine
+        assertEquals(9, ranking.get(0).results().size());
+        assertEquals(3, ranking.get(1).results().size());
+        assertEquals(1, ranking.get(2).results().size());
+        assertTrue(ranking.subList(2, 6).stream().allMatch(candidate -> candidate.score() >= ranking.get(2).score()));
+        assertEquals(ranking, optimiser.run(new BatchRunner(1)));
+    }
+
+    @Test
+    void parse_leavesTheSeedsToTheOptimiser() {
+        assertThrows(IllegalArgumentException.class, () -> Optimiser.parse(List.of("seeds=1..10")));
+        assertThrows(IllegalArgumentException.class, () -> Optimiser.parse(List.of("objective=fastest")));
+        assertThrows(IllegalArgumentException.class, () -> Optimiser.parse(List.of("top=0")));
+    }
+}
@@ -0,0 +1,40 @@
+package building;
+
+import main.Direction;
+import main.building.Floor;
+import main.button.HallCalls;
+import main.passenger.Passenger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FloorTest {
+
+    Floor floor = new Floor(3, new HallCalls(5));
+
+    @Test
+    void addWaitingPassenger_queuesByDirection() {
+        Passenger upBound = new Passenger(3, 5, 0);
+        Passenger downBound = new Passenger(3, 1, 0);
+        floor.addWaitingPassenger(upBound);
+        floor.addWaitingPassenger(downBound);
+
+        assertEquals(2, floor.getWaitingPassengerCount());
+        assertSame(downBound, floor.pollWaitingPassenger(Direction.DOWN));
+        assertNull(floor.pollWaitingPassenger(Direction.DOWN));
+        assertTrue(floor.hasWaitingPassengers(Direction.UP));
+        assertEquals(1, floor.getWaitingPassengerCount());
+    }
+
+    @Test
+    void pollWaitingPassenger_isFirstInFirstOut() {
+        Passenger first = new Passenger(3, 4, 0);
+        Passenger second = new Passenger(3, 5, 1);
+        floor.addWaitingPassenger(first);
+        floor.addWaitingPassenger(second);
+
+        assertSame(first, floor.pollWaitingPassenger(Direction.UP));
+        assertSame(second, floor.pollWaitingPassenger(Direction.UP));
+        assertEquals(0, floor.getWaitingPassengerCount());
+    }
+}
@@ -0,0 +1,63 @@
+package button;
+
+import main.button.PressedFloors;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PressedFloorsTest {
+
+    PressedFloors pressedFloors = new PressedFloors(200);
+
+    @Test
+    void set_reportsOnlyChanges() {
+        assertTrue(pressedFloors.set(5));
+        assertFalse(pressedFloors.set(5));
+        assertTrue(pressedFloors.isSet(5));
+
+        assertTrue(pressedFloors.clear(5));
+        assertFalse(pressedFloors.clear(5));
+        assertFalse(pressedFloors.isSet(5));
+    }
+
+    @Test
+    void nextSetFloor_findsFloorsAcrossWords() {
+        pressedFloors.set(63);
+        pressedFloors.set(64);
+        pressedFloors.set(200);
+
+        assertEquals(63, pressedFloors.nextSetFloor(1));
+        assertEquals(63, pressedFloors.nextSetFloor(63));
+        assertEquals(64, pressedFloors.nextSetFloor(64));
+        assertEquals(200, pressedFloors.nextSetFloor(65));
+        assertEquals(PressedFloors.NONE, pressedFloors.nextSetFloor(201));
+    }
+
+    @Test
+    void previousSetFloor_findsFloorsAcrossWords() {
+        pressedFloors.set(1);
+        pressedFloors.set(64);
+        pressedFloors.set(128);
+
+        assertEquals(128, pressedFloors.previousSetFloor(200));
+        assertEquals(64, pressedFloors.previousSetFloor(127));
+        assertEquals(1, pressedFloors.previousSetFloor(63));
+        assertEquals(PressedFloors.NONE, pressedFloors.previousSetFloor(0));
+    }
+
+    @Test
+    void lowestAndHighestSetFloor() {
+        assertTrue(pressedFloors.isEmpty());
+        assertEquals(PressedFloors.NONE, pressedFloors.lowestSetFloor());
+        assertEquals(PressedFloors.NONE, pressedFloors.highestSetFloor());
+
+        pressedFloors.set(70);
+        pressedFloors.set(3);
+        pressedFloors.set(199);
+
+        assertEquals(3, pressedFloors.lowestSetFloor());
+        assertEquals(199, pressedFloors.highestSetFloor());
+        assertEquals(3, pressedFloors.count());
+        assertEquals("[3, 70, 199]", pressedFloors.toString());
+    }
+}
@@ -0,0 +1,108 @@
+package customLogger;
+
+import main.customLogger.CustomLogger;
+import main.customLogger.LogComponent;
+import main.customLogger.LogLevel;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomLoggerTest {
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    CustomLogger createLogger(int bufferCapacity) {
+        CustomLogger logger = new CustomLogger(new PrintStream(output, true), bufferCapacity);
+        logger.setAnsiColors(false);
+        return logger;
+    }
+
+    @Test
+    void log_formatsMessagesOnTheWriterThread() {
+        CustomLogger logger = createLogger(64);
+
+        logger.logElevator("Moving %s, %s/%s", "UP", 2, 5);
+        logger.logECS("Started");
+        logger.flush();
+
+        String[] lines = output.toString().split(System.lineSeparator());
+        assertArrayEquals(new String[]{"Elevator  | Moving UP, 2/5", "ECS       | Started"}, lines);
+    }
+
+    @Test
+    void log_snapshotsMutableArguments() {
+        CustomLogger logger = createLogger(64);
+        List<Integer> passengers = new ArrayList<>(List.of(1, 2));
+
+        logger.logPassengers("Passengers: %s", passengers);
+        passengers.clear();
+        logger.flush();
+
+        assertTrue(output.toString().contains("Passengers: [1, 2]"));
+    }
+
+    @Test
+    void setLevel_filtersPerComponent() {
+        CustomLogger logger = createLogger(64);
+        logger.setLevel(LogComponent.ELEVATOR, LogLevel.OFF);
+
+        logger.logElevator("hidden");
+        logger.logMain("shown");
+        logger.flush();
+
+        assertFalse(logger.isEnabled(LogComponent.ELEVATOR));
+        assertFalse(output.toString().contains("hidden"));
+        assertTrue(output.toString().contains("shown"));
+    }
+
+    @Test
+    void log_dropsMessagesInsteadOfBlockingWhenFull() {
+        CustomLogger logger = createLogger(4);
+
+        int loggedMessages = 100_000;
+        for (int i = 0; i < loggedMessages; i++) {
+            logger.logMain("message %s", i);
+        }
+        logger.flush();
+
+        long writtenMessages = output.toString().lines().filter(line -> line.contains("| message ")).count();
+        assertTrue(logger.getDroppedMessageCount() > 0);
+        assertEquals(loggedMessages, writtenMessages + logger.getDroppedMessageCount());
+    }
+
+    @Test
+    void close_writesWhatIsLeftAndStopsTheWriter() {
+        CustomLogger logger = createLogger(64);
+
+        logger.logMain("last words");
+        logger.close();
+        logger.logMain("too late");
+        logger.flush();
+
+        assertTrue(output.toString().contains("last words"));
+        assertFalse(output.toString().contains("too late"));
+    }
+
+    @Test
+    void log_startsNoWriterWhileTurnedOff() {
+        long writersBefore = countWriterThreads();
+        CustomLogger logger = createLogger(64);
+        logger.setLevel(LogLevel.OFF);
+
+        logger.logMain("hidden");
+        logger.flush();
+        logger.close();
+
+        assertEquals(writersBefore, countWriterThreads());
+        assertEquals("", output.toString());
+    }
+
+    private static long countWriterThreads() {
+        return Thread.getAllStackTraces().keySet().stream().filter(thread -> thread.getName().equals("CustomLogger")).count();
+    }
+}
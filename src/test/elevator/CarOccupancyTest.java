@@ -0,0 +1,61 @@
+package elevator;
+
+import main.building.Building;
+import main.building.Zone;
+import main.elevator.CarOccupancy;
+import main.passenger.Passenger;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CarOccupancyTest {
+
+    CarOccupancy occupancy = new CarOccupancy(new Building(10));
+
+    @Test
+    void drainTo_movesOnlyThePassengersForTheFloor() {
+        Passenger first = new Passenger(1, 5, 0);
+        Passenger second = new Passenger(2, 5, 0);
+        occupancy.add(first);
+        occupancy.add(new Passenger(1, 8, 0));
+        occupancy.add(second);
+        List<Passenger> buffer = new ArrayList<>();
+
+        assertEquals(2, occupancy.drainTo(5, buffer));
+
+        assertEquals(List.of(first, second), buffer);
+        assertEquals(1, occupancy.size());
+        assertEquals(0, occupancy.count(5));
+        assertEquals(1, occupancy.count(8));
+        assertEquals(0, occupancy.drainTo(3, buffer));
+    }
+
+    @Test
+    void toList_isACopyOrderedByDestination() {
+        occupancy.add(new Passenger(1, 9, 0));
+        occupancy.add(new Passenger(1, 4, 0));
+
+        List<Passenger> passengers = occupancy.toList();
+        occupancy.clear();
+
+        assertEquals(List.of(4, 9), passengers.stream().map(passenger -> passenger.destinationFloorNumber).toList());
+        assertTrue(occupancy.isEmpty());
+    }
+
+    @Test
+    void add_onlyTakesPassengersForTheFloorsOfTheZone() {
+        // The lobby and floors 40 to 49 of a 60-floor tower
+        CarOccupancy zoneOccupancy = new CarOccupancy(new Building(60, Zone.of("high", 1, 40, 49)));
+
+        zoneOccupancy.add(new Passenger(1, 45, 0));
+        zoneOccupancy.add(new Passenger(45, 1, 0));
+
+        assertEquals(1, zoneOccupancy.count(45));
+        assertEquals(0, zoneOccupancy.count(20));
+        assertEquals(0, zoneOccupancy.drainTo(20, new ArrayList<>()));
+        assertThrows(IllegalArgumentException.class, () -> zoneOccupancy.add(new Passenger(1, 20, 0)));
+    }
+}
@@ -2,7 +2,8 @@ package elevator;
 
 import main.Direction;
 import main.building.Building;
-import main.button.Button;
+import main.button.HallCalls;
+import main.button.PressedFloors;
 import main.customLogger.CustomLogger;
 import main.elevator.*;
 import main.passenger.PassengerGenerator;
@@ -17,32 +18,30 @@ class DestinationFinderTest {
     CustomLogger logger = new CustomLogger();
 
     DestinationFinder destinationFinder = new DestinationFinder();
-    ButtonReader buttonReader = new ButtonReader();
-    PassengerManager passengerManager = new PassengerManager(logger);
 
     @Test
     void isMoreDestinationsOnTheWay_findsDestinationsAbove() {
         Elevator elevator = createElevator(1);
-        Set<Integer> destinations = new TreeSet<>(Arrays.asList(2, 3));
+        HallCalls destinations = hallCalls(2, 3);
 
-        assertTrue(destinationFinder.isMoreDestinationsOnTheWay(elevator, destinations));
+        assertTrue(destinationFinder.isMoreDestinationsOnTheWay(elevator, elevator.getCarCalls(), destinations));
     }
 
     @Test
     void isMoreDestinationsOnTheWay_findsDestinationsBelow() {
         Elevator elevator = createElevator(5);
         elevator.setMovementDirection(Direction.DOWN);
-        Set<Integer> destinations = new TreeSet<>(Arrays.asList(2, 3));
+        HallCalls destinations = hallCalls(2, 3);
 
-        assertTrue(destinationFinder.isMoreDestinationsOnTheWay(elevator, destinations));
+        assertTrue(destinationFinder.isMoreDestinationsOnTheWay(elevator, elevator.getCarCalls(), destinations));
     }
 
     @Test
     void isMoreDestinationsOnTheWay_returnsFalseIfNoValidDestinations() {
         Elevator elevator = createElevator(3); // Default is direction UP
 
-        assertFalse(destinationFinder.isMoreDestinationsOnTheWay(elevator, new TreeSet<>()));
-        assertFalse(destinationFinder.isMoreDestinationsOnTheWay(elevator, new TreeSet<>(Arrays.asList(1, 2))));
+        assertFalse(destinationFinder.isMoreDestinationsOnTheWay(elevator, elevator.getCarCalls(), noHallCalls()));
+        assertFalse(destinationFinder.isMoreDestinationsOnTheWay(elevator, elevator.getCarCalls(), hallCalls(1, 2)));
     }
 
     @Test
@@ -50,14 +49,11 @@ class DestinationFinderTest {
         //TODO all cases (lower, higher, same floor) for both parts of lookUp
         Building building = createBuilding();
 
-        Elevator elevator = createElevatorWithPassenger(3, 3, building);
-
-        Set<ElevatorButton> pressedElevatorButtons = new TreeSet<>(Button.buttonComparator);
-        pressedElevatorButtons.addAll(buttonReader.detectPressedElevatorButtons(elevator));
+        Elevator elevator = createElevator(3, building);
+        elevator.getElevatorButton(3).press();
 
-        // Passing empty set, to make sure that result is based on ElevatorButtons
-        Set<Integer> destinationFloorNumbers = new TreeSet<>();
-        assertEquals(3, destinationFinder.lookUp(elevator, pressedElevatorButtons, destinationFloorNumbers).orElseThrow());
+        // Passing no hall calls, to make sure that result is based on ElevatorButtons
+        assertEquals(3, destinationFinder.lookUp(elevator, elevator.getCarCalls(), noHallCalls()));
     }
 
     @Test
@@ -65,13 +61,10 @@ class DestinationFinderTest {
         Building building = createBuildingWithPassengerOnFloor(4);
 
         Elevator elevator = createElevator(1, building);
-        Set<ElevatorButton> pressedElevatorButtons = buttonReader.detectPressedElevatorButtons(elevator);
-        Set<Integer> destinationFloorNumbers = destinationFinder.getDestinationFloorNumbers(
-                pressedElevatorButtons,
-                buttonReader.detectPressedFloorButtons(building)
-        );
+        PressedFloors carCalls = elevator.getCarCalls();
+        HallCalls hallCalls = building.getHallCalls();
 
-        assertEquals(4, destinationFinder.lookUp(elevator, pressedElevatorButtons, destinationFloorNumbers).orElseThrow());
+        assertEquals(4, destinationFinder.lookUp(elevator, carCalls, hallCalls));
     }
 
     @Test
@@ -79,29 +72,48 @@ class DestinationFinderTest {
         Building building = createBuildingWithPassengerOnFloor(1);
 
         Elevator elevator = createElevator(3, building);
-        Set<ElevatorButton> pressedElevatorButtons = buttonReader.detectPressedElevatorButtons(elevator);
-        Set<Integer> destinationFloorNumbers = destinationFinder.getDestinationFloorNumbers(
-                pressedElevatorButtons,
-                buttonReader.detectPressedFloorButtons(building)
-        );
+        PressedFloors carCalls = elevator.getCarCalls();
+        HallCalls hallCalls = building.getHallCalls();
+
+        assertEquals(PressedFloors.NONE, destinationFinder.lookUp(elevator, carCalls, hallCalls));
+    }
+
+    @Test
+    void lookUp_skipsCallsForTheOppositeDirection() {
+        Elevator elevator = createElevator(1);
 
-        assertEquals(Optional.empty(), destinationFinder.lookUp(elevator, pressedElevatorButtons, destinationFloorNumbers));
+        assertEquals(4, destinationFinder.lookUp(elevator, elevator.getCarCalls(), hallCalls(4, 3)));
     }
 
+    @Test
+    void lookUp_turnsAroundAtHighestDownCall() {
+        Elevator elevator = createElevator(1);
+        HallCalls hallCalls = noHallCalls();
+        hallCalls.get(Direction.DOWN).set(3);
+        hallCalls.get(Direction.DOWN).set(5);
+
+        assertEquals(5, destinationFinder.lookUp(elevator, elevator.getCarCalls(), hallCalls));
+        assertEquals(Direction.DOWN, destinationFinder.getServiceDirection(Direction.UP, 5, elevator.getCarCalls(), hallCalls, hallCalls));
+    }
+
+    @Test
+    void getServiceDirection_keepsDirectionWhileSweepContinues() {
+        Elevator elevator = createElevator(1);
+        elevator.getElevatorButton(5).press();
+        HallCalls hallCalls = hallCalls(1, 3);
+
+        assertEquals(Direction.UP, destinationFinder.getServiceDirection(Direction.UP, 3, elevator.getCarCalls(), hallCalls, hallCalls));
+    }
 
     @Test
     void lookBelow_findsDestinationOnFloorBelow() {
         Building building = createBuildingWithPassengerOnFloor(1);
 
         Elevator elevator = createElevator(3, building);
-        Set<ElevatorButton> pressedElevatorButtons = buttonReader.detectPressedElevatorButtons(elevator);
-        Set<Integer> destinationFloorNumbers = destinationFinder.getDestinationFloorNumbers(
-                pressedElevatorButtons,
-                buttonReader.detectPressedFloorButtons(building)
-        );
+        PressedFloors carCalls = elevator.getCarCalls();
+        HallCalls hallCalls = building.getHallCalls();
 
-        assertTrue(destinationFinder.lookBelow(elevator, destinationFloorNumbers).isPresent());
-        assertEquals(1, destinationFinder.lookBelow(elevator, destinationFloorNumbers).get());
+        assertEquals(1, destinationFinder.lookBelow(elevator, carCalls, hallCalls));
     }
 
     @Test
@@ -109,13 +121,10 @@ class DestinationFinderTest {
         Building building = createBuildingWithPassengerOnFloor(5);
 
         Elevator elevator = createElevator(3, building);
-        Set<ElevatorButton> pressedElevatorButtons = buttonReader.detectPressedElevatorButtons(elevator);
-        Set<Integer> destinationFloorNumbers = destinationFinder.getDestinationFloorNumbers(
-                pressedElevatorButtons,
-                buttonReader.detectPressedFloorButtons(building)
-        );
+        PressedFloors carCalls = elevator.getCarCalls();
+        HallCalls hallCalls = building.getHallCalls();
 
-        assertFalse(destinationFinder.lookBelow(elevator, destinationFloorNumbers).isPresent());
+        assertEquals(PressedFloors.NONE, destinationFinder.lookBelow(elevator, carCalls, hallCalls));
     }
 
     @Test
@@ -123,14 +132,21 @@ class DestinationFinderTest {
         Building building = createBuildingWithPassengerOnFloor(5);
 
         Elevator elevator = createElevator(5, building);
-        Set<ElevatorButton> pressedElevatorButtons = buttonReader.detectPressedElevatorButtons(elevator);
-        Set<Integer> destinationFloorNumbers = destinationFinder.getDestinationFloorNumbers(
-                pressedElevatorButtons,
-                buttonReader.detectPressedFloorButtons(building)
-        );
+        PressedFloors carCalls = elevator.getCarCalls();
+        HallCalls hallCalls = building.getHallCalls();
+
+        assertEquals(5, destinationFinder.lookBelow(elevator, carCalls, hallCalls));
+    }
 
-        assertTrue(destinationFinder.lookBelow(elevator, destinationFloorNumbers).isPresent());
-        assertEquals(5, destinationFinder.lookBelow(elevator, destinationFloorNumbers).get());
+    HallCalls hallCalls(int upCallFloorNumber, int downCallFloorNumber) {
+        HallCalls hallCalls = noHallCalls();
+        hallCalls.get(Direction.UP).set(upCallFloorNumber);
+        hallCalls.get(Direction.DOWN).set(downCallFloorNumber);
+        return hallCalls;
+    }
+
+    HallCalls noHallCalls() {
+        return new HallCalls(5);
     }
 
     Building createBuildingWithPassengerOnFloor(Integer floorNumber) {
@@ -149,14 +165,6 @@ class DestinationFinderTest {
         return new Elevator(6, createBuilding(), initialFloorNumber, logger);
     }
 
-    Elevator createElevatorWithPassenger(Integer elevatorFloorNumber, Integer passengerDestination, Building building) {
-        Elevator newElevator = new Elevator(6, building, elevatorFloorNumber, logger);
-        PassengerGenerator passengerGenerator = new PassengerGenerator(building, logger);
-        passengerGenerator.createPassenger(elevatorFloorNumber, passengerDestination);
-        passengerManager.loadPassengers(building.getFloorByNumber(elevatorFloorNumber), newElevator);
-        return newElevator;
-    }
-
     Elevator createElevator(Integer initialFloorNumber, Building building) {
         return new Elevator(6, building, initialFloorNumber, logger);
     }
@@ -0,0 +1,82 @@
+package elevator;
+
+import main.Direction;
+import main.building.Building;
+import main.customLogger.CustomLogger;
+import main.customLogger.LogLevel;
+import main.elevator.Destination;
+import main.elevator.DestinationMailbox;
+import main.elevator.Elevator;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DestinationMailboxTest {
+
+    private static final int ROUNDS = 20_000;
+
+    // Every post is made right after the waiting thread has taken the previous one, so it races with the park
+    @Test
+    void awaitNewerThan_neverMissesAPost() throws InterruptedException {
+        DestinationMailbox mailbox = new DestinationMailbox();
+        AtomicInteger takenFloorNumber = new AtomicInteger();
+        Thread waitingThread = Thread.ofPlatform().start(() -> {
+            Destination seen = null;
+            try {
+                while (takenFloorNumber.get() < ROUNDS) {
+                    seen = mailbox.awaitNewerThan(seen);
+                    takenFloorNumber.set(seen.floorNumber());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        for (int floorNumber = 1; floorNumber <= ROUNDS; floorNumber++) {
+            mailbox.post(new Destination(floorNumber, Direction.UP));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (takenFloorNumber.get() < floorNumber) {
+                assertTrue(System.nanoTime() < deadline, "Post " + floorNumber + " never woke the waiting thread");
+                Thread.onSpinWait();
+            }
+        }
+        waitingThread.join();
+    }
+
+    // The control thread re-targets the elevator to the floor it is at as soon as it reports being idle, so each
+    // destination arrives while the elevator is on its way to sleep
+    @Test
+    void setDestination_wakesAnElevatorGoingIdle() throws InterruptedException {
+        CustomLogger logger = new CustomLogger();
+        logger.setLevel(LogLevel.OFF);
+        Elevator elevator = new Elevator(6, new Building(5), 3, logger);
+        Semaphore idle = new Semaphore(0);
+        elevator.addIdleListener(idle::release);
+        Thread controlThread = Thread.ofPlatform().start(() -> {
+            try {
+                for (int i = 0; i < ROUNDS; i++) {
+                    idle.acquire();
+                    elevator.setDestination(3, i % 2 == 0 ? Direction.UP : Direction.DOWN);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread elevatorThread = Thread.ofPlatform().start(elevator);
+
+        controlThread.join(TimeUnit.SECONDS.toMillis(30));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (elevator.getStopsMade() < ROUNDS && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        assertEquals(ROUNDS, elevator.getStopsMade());
+        elevator.stop();
+        elevatorThread.join(5_000);
+        assertFalse(elevatorThread.isAlive());
+    }
+}
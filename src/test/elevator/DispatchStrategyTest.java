@@ -0,0 +1,131 @@
+package elevator;
+
+import main.Direction;
+import main.building.Building;
+import main.customLogger.CustomLogger;
+import main.elevator.Elevator;
+import main.elevator.HallCallAssignments;
+import main.elevator.ElevatorGroupControlSystem;
+import main.elevator.dispatch.DestinationDispatchStrategy;
+import main.elevator.dispatch.EstimatedTimeOfArrivalDispatchStrategy;
+import main.elevator.dispatch.NearestCarDispatchStrategy;
+import main.passenger.Passenger;
+import main.simulation.SimulationClock;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DispatchStrategyTest {
+
+    CustomLogger logger = new CustomLogger();
+    Building building = new Building(10);
+    HallCallAssignments hallCallAssignments = new HallCallAssignments();
+
+    @Test
+    void nearestCar_selectsClosestElevator() {
+        Elevator lowElevator = createElevator(2);
+        Elevator highElevator = createElevator(9);
+
+        NearestCarDispatchStrategy strategy = new NearestCarDispatchStrategy();
+
+        assertSame(lowElevator, strategy.selectElevator(4, Direction.UP, List.of(lowElevator, highElevator), hallCallAssignments));
+        assertSame(highElevator, strategy.selectElevator(7, Direction.UP, List.of(lowElevator, highElevator), hallCallAssignments));
+    }
+
+    @Test
+    void estimatedTimeOfArrival_avoidsElevatorMovingAway() {
+        // Closer to floor 4, but busy taking a passenger up to floor 10
+        Elevator busyElevator = createElevator(5);
+        busyElevator.setMovementDirection(Direction.UP);
+        busyElevator.getElevatorButtons().stream()
+                .filter(button -> button.getFloorNumber() == 10)
+                .findFirst().orElseThrow().press();
+        busyElevator.setDestination(10, Direction.UP);
+
+        Elevator idleElevator = createElevator(1);
+
+        EstimatedTimeOfArrivalDispatchStrategy strategy = new EstimatedTimeOfArrivalDispatchStrategy();
+
+        assertSame(idleElevator, strategy.selectElevator(4, Direction.UP, List.of(busyElevator, idleElevator), hallCallAssignments));
+    }
+
+    @Test
+    void hallCallAssignments_countTheCallsOfEachElevator() {
+        Elevator first = createElevator(1);
+        Elevator second = createElevator(5);
+
+        hallCallAssignments.assign(3, Direction.UP, first);
+        hallCallAssignments.assign(3, Direction.DOWN, first);
+        hallCallAssignments.assign(3, Direction.DOWN, second);
+        hallCallAssignments.release(3, Direction.UP);
+        hallCallAssignments.release(8, Direction.UP);
+
+        assertEquals(0, hallCallAssignments.countAssignedTo(first));
+        assertEquals(1, hallCallAssignments.countAssignedTo(second));
+    }
+
+    @Test
+    void estimatedTimeOfArrival_countsAssignedHallCallsAsStops() {
+        Elevator elevator = createElevator(1);
+        long withoutStops = new EstimatedTimeOfArrivalDispatchStrategy().estimateArrivalTime(elevator, 5, Direction.UP, hallCallAssignments);
+
+        hallCallAssignments.assign(3, Direction.UP, elevator);
+        long withStop = new EstimatedTimeOfArrivalDispatchStrategy().estimateArrivalTime(elevator, 5, Direction.UP, hallCallAssignments);
+
+        assertTrue(withStop > withoutStops);
+    }
+
+    @Test
+    void estimatedTimeOfArrival_prefersElevatorGoingTheCallersWay() {
+        // The second one is closer to floor 6, but going down, so it can only take a passenger going up after turning
+        Elevator upBoundElevator = createMovingElevator(3, Direction.UP, 8);
+        Elevator downBoundElevator = createMovingElevator(7, Direction.DOWN, 2);
+        EstimatedTimeOfArrivalDispatchStrategy strategy = new EstimatedTimeOfArrivalDispatchStrategy();
+
+        assertSame(upBoundElevator, strategy.selectElevator(6, Direction.UP, List.of(upBoundElevator, downBoundElevator), hallCallAssignments));
+        assertSame(downBoundElevator, strategy.selectElevator(6, Direction.DOWN, List.of(upBoundElevator, downBoundElevator), hallCallAssignments));
+    }
+
+    @Test
+    void destination_groupsPassengersGoingToTheSameFloor() {
+        Elevator firstElevator = createElevator(1);
+        Elevator secondElevator = createElevator(1);
+        List<Elevator> elevators = List.of(secondElevator, firstElevator);
+        List<List<Passenger>> pendingPassengers = List.of(List.of(), List.of(new Passenger(1, 8, 0)));
+        DestinationDispatchStrategy strategy = new DestinationDispatchStrategy();
+
+        assertSame(firstElevator, strategy.selectElevator(new Passenger(1, 8, 0), elevators, pendingPassengers));
+        assertSame(secondElevator, strategy.selectElevator(new Passenger(1, 3, 0), elevators, pendingPassengers));
+    }
+
+    @Test
+    void destination_passengersOnlyBoardTheCarTheyWereAssigned() {
+        ElevatorGroupControlSystem groupControlSystem = ElevatorGroupControlSystem.create(building, 2, 6,
+                new DestinationDispatchStrategy(), SimulationClock.SYSTEM, logger);
+        Passenger passenger = new Passenger(1, 8, 0);
+        building.getFloorByNumber(1).callElevator(passenger);
+
+        assertEquals(Passenger.AWAITING_ASSIGNMENT, passenger.getAssignedElevatorNumber());
+        assertNull(building.getFloorByNumber(1).pollWaitingPassenger(Direction.UP, 1));
+
+        groupControlSystem.handleElevatorCalls();
+
+        int otherElevatorNumber = 3 - passenger.getAssignedElevatorNumber();
+        assertNull(building.getFloorByNumber(1).pollWaitingPassenger(Direction.UP, otherElevatorNumber));
+        assertSame(passenger, building.getFloorByNumber(1).pollWaitingPassenger(Direction.UP, passenger.getAssignedElevatorNumber()));
+    }
+
+    Elevator createMovingElevator(int floorNumber, Direction direction, int carCallFloorNumber) {
+        Elevator elevator = createElevator(floorNumber);
+        elevator.setMovementDirection(direction);
+        elevator.getElevatorButton(carCallFloorNumber).press();
+        elevator.setDestination(carCallFloorNumber, direction);
+        return elevator;
+    }
+
+    Elevator createElevator(int floorNumber) {
+        return new Elevator(6, building, floorNumber, logger);
+    }
+}
@@ -0,0 +1,61 @@
+package elevator;
+
+import main.elevator.DoorTiming;
+import main.elevator.Elevator;
+import main.elevator.Kinematics;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KinematicsTest {
+
+    Kinematics standard = Kinematics.standard(50);
+
+    @Test
+    void constantSpeed_takesTheSameTimeForEveryFloor() {
+        Kinematics kinematics = Kinematics.constantSpeed(20, Elevator.TIME_TO_MOVE_BETWEEN_FLOORS);
+
+        assertEquals(500, kinematics.travelTimeMillis(1, 2));
+        assertEquals(9500, kinematics.travelTimeMillis(20, 1));
+        assertEquals(0, kinematics.doorTimeMillis(10));
+        assertEquals(0, kinematics.stopTimeMillis());
+    }
+
+    @Test
+    void travelTimeMillis_growsWithTheDistance() {
+        for (int floor = 2; floor < 50; floor++) {
+            assertTrue(standard.travelTimeMillis(1, floor + 1) > standard.travelTimeMillis(1, floor));
+        }
+        assertEquals(0, standard.travelTimeMillis(7, 7));
+    }
+
+    @Test
+    void travelTimeMillis_makesExpressRunsFasterPerFloor() {
+        long oneFloor = standard.travelTimeMillis(1, 2);
+        long fortyFloors = standard.travelTimeMillis(1, 41);
+
+        assertTrue(fortyFloors < 40 * oneFloor / 2);
+        // Cruising at 2.5 m/s over 140 m, plus the ramps
+        assertTrue(fortyFloors > 56_000);
+    }
+
+    @Test
+    void lastFloorPassed_stopsAtFloorsTheCarCanStillBrakeFor() {
+        long brakingForFloor5 = standard.latestBrakingTimeMillis(1, 5);
+
+        assertEquals(1, standard.lastFloorPassed(1, 20, 0));
+        assertEquals(4, standard.lastFloorPassed(1, 20, brakingForFloor5));
+        assertEquals(5, standard.lastFloorPassed(1, 20, brakingForFloor5 + 1));
+        assertEquals(19, standard.lastFloorPassed(1, 20, standard.travelTimeMillis(1, 20)));
+        assertEquals(16, standard.lastFloorPassed(20, 1, standard.latestBrakingTimeMillis(20, 15)));
+    }
+
+    @Test
+    void doorTimeMillis_scalesWithThePassengersMoved() {
+        DoorTiming doors = DoorTiming.STANDARD;
+        long minimum = doors.openingMillis() + doors.minimumDwellMillis() + doors.closingMillis();
+
+        assertEquals(minimum, standard.doorTimeMillis(1));
+        assertEquals(minimum + 10 * doors.dwellPerPassengerMillis() - doors.minimumDwellMillis(), standard.doorTimeMillis(10));
+    }
+}
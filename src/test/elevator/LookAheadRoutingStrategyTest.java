@@ -0,0 +1,66 @@
+package elevator;
+
+import main.Direction;
+import main.building.Building;
+import main.building.Floor;
+import main.button.PressedFloors;
+import main.customLogger.CustomLogger;
+import main.elevator.DestinationFinder;
+import main.elevator.Elevator;
+import main.elevator.LookAheadRoutingStrategy;
+import main.passenger.Passenger;
+import main.simulation.SimulationClock;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LookAheadRoutingStrategyTest {
+
+    private static final long NOW = 120_000;
+
+    CustomLogger logger = new CustomLogger();
+    Building building = new Building(20);
+    SimulationClock clock = () -> NOW;
+    LookAheadRoutingStrategy routingStrategy = new LookAheadRoutingStrategy(building, clock);
+
+    @Test
+    void selectDestination_carriesOnLikeTheSweepWhenNothingIsBehind() {
+        Elevator elevator = new Elevator(6, building, 10, logger);
+        callElevator(14, Direction.UP, 1, NOW);
+        callElevator(12, Direction.UP, 1, 0);
+
+        int destination = routingStrategy.selectDestination(elevator, elevator.getCarCalls(), building.getHallCalls());
+
+        assertEquals(new DestinationFinder().lookUp(elevator, elevator.getCarCalls(), building.getHallCalls()), destination);
+        assertEquals(Direction.UP, elevator.getMovementDirection());
+    }
+
+    @Test
+    void selectDestination_turnsAroundForPassengersWhoWaitedLonger() {
+        Elevator elevator = new Elevator(6, building, 10, logger);
+        callElevator(11, Direction.UP, 1, NOW);
+        callElevator(5, Direction.DOWN, 5, 0);
+
+        int destination = routingStrategy.selectDestination(elevator, elevator.getCarCalls(), building.getHallCalls());
+
+        assertEquals(5, destination);
+        assertEquals(Direction.DOWN, elevator.getMovementDirection());
+        assertEquals(Direction.DOWN, routingStrategy.getServiceDirection(elevator, destination, elevator.getCarCalls(),
+                building.getHallCalls(), building.getHallCalls()));
+    }
+
+    @Test
+    void selectDestination_returnsNoneWithoutCalls() {
+        Elevator elevator = new Elevator(6, building, 10, logger);
+
+        assertEquals(PressedFloors.NONE, routingStrategy.selectDestination(elevator, elevator.getCarCalls(), building.getHallCalls()));
+    }
+
+    private void callElevator(int floorNumber, Direction direction, int passengerCount, long spawnTimeMillis) {
+        Floor floor = building.getFloorByNumber(floorNumber);
+        int destination = direction == Direction.UP ? 20 : 1;
+        for (int i = 0; i < passengerCount; i++) {
+            floor.callElevator(new Passenger(floorNumber, destination, spawnTimeMillis));
+        }
+    }
+}
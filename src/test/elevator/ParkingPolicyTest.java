@@ -0,0 +1,95 @@
+package elevator;
+
+import main.building.Building;
+import main.customLogger.CustomLogger;
+import main.customLogger.LogLevel;
+import main.elevator.Elevator;
+import main.elevator.ElevatorGroupControlSystem;
+import main.elevator.dispatch.EstimatedTimeOfArrivalDispatchStrategy;
+import main.elevator.parking.DemandParkingPolicy;
+import main.elevator.parking.ParkingPolicies;
+import main.passenger.ArrivalHistogram;
+import main.passenger.PassengerGenerator;
+import main.passenger.traffic.TrafficModel;
+import main.passenger.traffic.Trip;
+import main.simulation.DiscreteEventSimulation;
+import main.simulation.VirtualClock;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParkingPolicyTest {
+
+    CustomLogger logger = new CustomLogger();
+    VirtualClock clock = new VirtualClock();
+    Building building = new Building(10);
+    ArrivalHistogram arrivalHistogram = new ArrivalHistogram(10);
+    // Starts at floors 1, 4 and 7
+    ElevatorGroupControlSystem groupControlSystem = ElevatorGroupControlSystem.create(building, 3, 6,
+            new EstimatedTimeOfArrivalDispatchStrategy(), clock, logger);
+
+    ParkingPolicyTest() {
+        logger.setLevel(LogLevel.OFF);
+    }
+
+    @Test
+    void lobby_sendsEveryIdleCarDown() {
+        groupControlSystem.setParkingPolicy(ParkingPolicies.byName(ParkingPolicies.LOBBY, building, arrivalHistogram, clock));
+
+        simulate(60_000);
+
+        assertTrue(groupControlSystem.getElevators().stream().allMatch(elevator -> elevator.getCurrentFloorNumber() == 1));
+    }
+
+    @Test
+    void demand_spreadsIdleCarsOverTheBusiestFloors() {
+        groupControlSystem.setParkingPolicy(new DemandParkingPolicy(building, arrivalHistogram, clock));
+        recordArrivals(9, 0, 3);
+        recordArrivals(5, 0, 2);
+
+        simulate(60_000);
+
+        List<Integer> floorNumbers = groupControlSystem.getElevators().stream().map(Elevator::getCurrentFloorNumber).toList();
+        // The nearest cars go, the one at floor 1 has no busy floor left to go to
+        assertEquals(List.of(1, 5, 9), floorNumbers.stream().sorted().toList());
+    }
+
+    @Test
+    void demand_foreseesTheArrivalsOfTheDayBefore() {
+        long day = TimeUnit.DAYS.toMillis(1);
+        recordArrivals(8, day + ArrivalHistogram.BUCKET_MILLIS, 1);
+        recordArrivals(3, 2 * day - ArrivalHistogram.BUCKET_MILLIS, 1);
+
+        // Recent arrivals at floor 3, and arrivals at floor 8 due in five minutes from the day before
+        assertEquals(1, arrivalHistogram.getDemand(3, 2 * day));
+        assertEquals(1, arrivalHistogram.getDemand(8, 2 * day));
+        assertEquals(0, arrivalHistogram.getDemand(8, 2 * day + TimeUnit.HOURS.toMillis(1)));
+    }
+
+    private void recordArrivals(int floorNumber, long timeMillis, int count) {
+        for (int i = 0; i < count; i++) {
+            arrivalHistogram.record(floorNumber, timeMillis);
+        }
+    }
+
+    // No passengers, the elevators only move to park
+    private void simulate(long durationMillis) {
+        PassengerGenerator passengerGenerator = new PassengerGenerator(building, logger, new SplittableRandom(1), clock,
+                new TrafficModel() {
+                    @Override
+                    public long nextArrivalDelayMillis(long timeMillis, SplittableRandom random) {
+                        return NO_MORE_ARRIVALS;
+                    }
+
+                    @Override
+                    public Trip nextTrip(long timeMillis, SplittableRandom random) {
+                        throw new UnsupportedOperationException();
+                    }
+                });
+        new DiscreteEventSimulation(groupControlSystem, passengerGenerator, clock).run(durationMillis);
+    }
+}
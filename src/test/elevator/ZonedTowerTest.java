@@ -0,0 +1,75 @@
+package elevator;
+
+import main.customLogger.CustomLogger;
+import main.customLogger.LogLevel;
+import main.elevator.DestinationFinder;
+import main.elevator.Kinematics;
+import main.elevator.ZonedTower;
+import main.elevator.Zonings;
+import main.elevator.dispatch.EstimatedTimeOfArrivalDispatchStrategy;
+import main.passenger.PassengerGenerator;
+import main.passenger.TripStatistics;
+import main.passenger.traffic.TrafficModel;
+import main.passenger.traffic.Trip;
+import main.simulation.DiscreteEventSimulation;
+import main.simulation.VirtualClock;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZonedTowerTest {
+
+    private static final int FLOOR_COUNT = 20;
+
+    CustomLogger logger = new CustomLogger();
+    VirtualClock clock = new VirtualClock();
+    ZonedTower tower = new ZonedTower(FLOOR_COUNT, Zonings.byName(Zonings.SKY_LOBBY, FLOOR_COUNT, 4), 6,
+            EstimatedTimeOfArrivalDispatchStrategy::new, building -> new DestinationFinder(), Kinematics.standard(FLOOR_COUNT),
+            clock, logger);
+    // Only the passengers created by the tests
+    PassengerGenerator passengerGenerator = tower.createPassengerGenerator(logger, new SplittableRandom(1), clock, new TrafficModel() {
+        @Override
+        public long nextArrivalDelayMillis(long timeMillis, SplittableRandom random) {
+            return NO_MORE_ARRIVALS;
+        }
+
+        @Override
+        public Trip nextTrip(long timeMillis, SplittableRandom random) {
+            throw new UnsupportedOperationException();
+        }
+    });
+    DiscreteEventSimulation simulation = new DiscreteEventSimulation(tower.getGroupControlSystems(), passengerGenerator, clock);
+
+    ZonedTowerTest() {
+        logger.setLevel(LogLevel.OFF);
+    }
+
+    @Test
+    void passengersAboveTheSkyLobbyChangeCarsOnTheWay() {
+        // Down to the ground floor, the shuttle to the sky lobby, and up to the destination
+        passengerGenerator.createPassenger(3, 18);
+
+        simulation.run(600_000);
+
+        TripStatistics tripStatistics = tower.getTripStatistics();
+        assertEquals(1, tripStatistics.getDeliveredPassengers());
+        assertEquals(3, tripStatistics.getAllPassengers().getWaitTimes().getTotalCount());
+        assertTrue(tripStatistics.getAverageJourneyTimeMillis() >= 3 * tripStatistics.getAverageTripTimeMillis());
+    }
+
+    @Test
+    void passengersWithinAZoneRideOneCar() {
+        passengerGenerator.createPassenger(12, 18);
+        passengerGenerator.createPassenger(1, 11);
+
+        simulation.run(600_000);
+
+        TripStatistics tripStatistics = tower.getTripStatistics();
+        assertEquals(2, tripStatistics.getDeliveredPassengers());
+        assertEquals(2, tripStatistics.getAllPassengers().getWaitTimes().getTotalCount());
+        assertEquals(tripStatistics.getAverageWaitTimeMillis() + tripStatistics.getAverageTripTimeMillis(),
+                tripStatistics.getAverageJourneyTimeMillis(), 1);
+    }
+}
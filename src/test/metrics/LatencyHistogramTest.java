@@ -0,0 +1,39 @@
+package metrics;
+
+import main.metrics.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    void getValueAtPercentile_isExactForSmallValues() {
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(100, histogram.getTotalCount());
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(99, histogram.getValueAtPercentile(99));
+        assertEquals(100, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void getValueAtPercentile_staysWithinOnePercentForLargeValues() {
+        for (long value = 1; value <= 1_000_000; value += 7) {
+            histogram.record(value);
+        }
+
+        long p95 = histogram.getValueAtPercentile(95);
+        assertEquals(950_000, p95, 950_000 * 0.01);
+        assertEquals(histogram.getMaxValue(), histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void getValueAtPercentile_isZeroWhenEmpty() {
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+}
@@ -0,0 +1,58 @@
+package metrics;
+
+import main.metrics.LatencyHistogram;
+import main.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    void scrape_groupsSamplesUnderOneHeader() {
+        registry.gauge("queue_depth", "Waiting passengers", Map.of("floor", "1"), () -> 3);
+        registry.gauge("queue_depth", "Waiting passengers", Map.of("floor", "2"), () -> 0);
+
+        String expected = """
+                # HELP queue_depth Waiting passengers
+                # TYPE queue_depth gauge
+                queue_depth{floor="1"} 3.0
+                queue_depth{floor="2"} 0.0
+                """;
+        assertEquals(expected, registry.scrape());
+    }
+
+    @Test
+    void scrape_readsCurrentValues() {
+        long[] stops = {0};
+        registry.counter("stops_total", "Stops", Map.of(), () -> stops[0]);
+
+        stops[0] = 7;
+
+        assertTrue(registry.scrape().contains("stops_total 7\n"));
+    }
+
+    @Test
+    void scrape_exposesTimersAsSummariesInSeconds() {
+        LatencyHistogram nanos = new LatencyHistogram();
+        nanos.record(2_000_000_000L);
+        registry.timer("decision_seconds", "Decision time", Map.of(), nanos);
+
+        String output = registry.scrape();
+
+        assertTrue(output.contains("# TYPE decision_seconds summary\n"));
+        assertTrue(output.contains("decision_seconds_sum 2.0\n"));
+        assertTrue(output.contains("decision_seconds_count 1\n"));
+    }
+
+    @Test
+    void register_rejectsTypeMismatch() {
+        registry.counter("stops_total", "Stops", Map.of(), () -> 0);
+
+        assertThrows(IllegalArgumentException.class, () -> registry.gauge("stops_total", "Stops", Map.of(), () -> 0));
+    }
+}
@@ -0,0 +1,58 @@
+package passenger;
+
+import main.Direction;
+import main.building.Building;
+import main.building.Floor;
+import main.passenger.Passenger;
+import main.passenger.PassengerAgent;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PassengerAgentTest {
+
+    Building building = new Building(5);
+    Floor floor = building.getFloorByNumber(3);
+
+    @Test
+    void run_waitsOnItsFloorUntilItHasRiddenToItsDestination() throws InterruptedException {
+        CountDownLatch journeyFinished = new CountDownLatch(1);
+        PassengerAgent agent = new PassengerAgent(floor, 5, 0, journeyFinished::countDown);
+
+        Thread thread = Thread.ofVirtual().start(agent);
+        Passenger queuedPassenger = pollWhenQueued();
+
+        assertSame(agent, queuedPassenger);
+        assertTrue(floor.getButton(Direction.UP).isPressed());
+        queuedPassenger.board(1_000);
+        assertFalse(journeyFinished.await(50, TimeUnit.MILLISECONDS));
+        queuedPassenger.alight(2_000);
+        assertTrue(journeyFinished.await(5, TimeUnit.SECONDS));
+        thread.join();
+        assertEquals(2_000, agent.getJourneyTimeMillis());
+    }
+
+    @Test
+    void run_givesUpWhenInterrupted() throws InterruptedException {
+        CountDownLatch journeyFinished = new CountDownLatch(1);
+        Thread thread = Thread.ofVirtual().start(new PassengerAgent(floor, 1, 0, journeyFinished::countDown));
+        pollWhenQueued();
+
+        thread.interrupt();
+        thread.join(5_000);
+
+        assertFalse(thread.isAlive());
+        assertEquals(1, journeyFinished.getCount());
+    }
+
+    private Passenger pollWhenQueued() throws InterruptedException {
+        while (floor.getWaitingPassengerCount() == 0) {
+            Thread.sleep(1);
+        }
+        Passenger passenger = floor.pollWaitingPassenger(Direction.UP);
+        return passenger != null ? passenger : floor.pollWaitingPassenger(Direction.DOWN);
+    }
+}
@@ -0,0 +1,118 @@
+package passenger;
+
+import main.building.Building;
+import main.customLogger.CustomLogger;
+import main.customLogger.LogLevel;
+import main.elevator.ElevatorGroupControlSystem;
+import main.elevator.dispatch.EstimatedTimeOfArrivalDispatchStrategy;
+import main.passenger.PassengerGenerator;
+import main.passenger.TripStatistics;
+import main.passenger.trace.ReplayTraffic;
+import main.passenger.trace.TraceReader;
+import main.passenger.trace.TraceWriter;
+import main.passenger.traffic.TrafficModel;
+import main.passenger.traffic.TrafficProfiles;
+import main.simulation.DiscreteEventSimulation;
+import main.simulation.VirtualClock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceTest {
+
+    private static final int FLOOR_COUNT = 10;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reader_streamsBackWhatWasWritten() throws IOException {
+        Path trace = directory.resolve("arrivals.trace");
+        SplittableRandom random = new SplittableRandom(1);
+        long[] times = new long[10_000];
+        try (TraceWriter traceWriter = new TraceWriter(trace, FLOOR_COUNT)) {
+            for (int i = 0; i < times.length; i++) {
+                // Gaps from a single byte up to several varint bytes
+                times[i] = (i == 0 ? 0 : times[i - 1]) + random.nextLong(1L << (i % 40));
+                traceWriter.write(times[i], 1 + i % FLOOR_COUNT, FLOOR_COUNT - i % FLOOR_COUNT);
+            }
+        }
+
+        // A window barely larger than a record makes records straddle window boundaries
+        try (TraceReader traceReader = new TraceReader(trace, 37)) {
+            assertEquals(FLOOR_COUNT, traceReader.getFloorCount());
+            for (int i = 0; i < times.length; i++) {
+                assertTrue(traceReader.next());
+                assertEquals(times[i], traceReader.getTimeMillis());
+                assertEquals(1 + i % FLOOR_COUNT, traceReader.getStartingFloorNumber());
+                assertEquals(FLOOR_COUNT - i % FLOOR_COUNT, traceReader.getDestinationFloorNumber());
+            }
+            assertFalse(traceReader.next());
+        }
+    }
+
+    @Test
+    void replay_reproducesTheRecordedRun() throws IOException {
+        Path trace = directory.resolve("office.trace");
+        TripStatistics recorded;
+        try (TraceWriter traceWriter = new TraceWriter(trace, FLOOR_COUNT)) {
+            recorded = simulate(TrafficProfiles.officeWorkers(FLOOR_COUNT, 60), traceWriter);
+        }
+
+        TripStatistics replayed;
+        try (ReplayTraffic replayTraffic = new ReplayTraffic(new TraceReader(trace), FLOOR_COUNT)) {
+            replayed = simulate(replayTraffic, null);
+        }
+
+        assertTrue(recorded.getDeliveredPassengers() > 0);
+        assertEquals(recorded.getDeliveredPassengers(), replayed.getDeliveredPassengers());
+        assertEquals(recorded.getAverageWaitTimeMillis(), replayed.getAverageWaitTimeMillis());
+        assertEquals(recorded.getAverageTripTimeMillis(), replayed.getAverageTripTimeMillis());
+    }
+
+    @Test
+    void replay_rejectsTracesOfOtherBuildings() throws IOException {
+        Path trace = directory.resolve("small.trace");
+        new TraceWriter(trace, 5).close();
+
+        // The replay closes the reader it rejects
+        assertThrows(IllegalArgumentException.class, () -> new ReplayTraffic(new TraceReader(trace), FLOOR_COUNT));
+    }
+
+    @Test
+    void reader_rejectsATruncatedLastRecord() throws IOException {
+        Path trace = directory.resolve("truncated.trace");
+        try (TraceWriter traceWriter = new TraceWriter(trace, FLOOR_COUNT)) {
+            traceWriter.write(1_000, 1, 5);
+            traceWriter.write(1L << 40, 5, 1);
+        }
+        Files.write(trace, Arrays.copyOf(Files.readAllBytes(trace), (int) Files.size(trace) - 2));
+
+        try (TraceReader traceReader = new TraceReader(trace)) {
+            assertTrue(traceReader.next());
+            assertThrows(IOException.class, traceReader::next);
+        }
+    }
+
+    private static TripStatistics simulate(TrafficModel trafficModel, TraceWriter traceWriter) {
+        CustomLogger logger = new CustomLogger();
+        logger.setLevel(LogLevel.OFF);
+        VirtualClock clock = new VirtualClock();
+        Building building = new Building(FLOOR_COUNT);
+        ElevatorGroupControlSystem groupControlSystem = ElevatorGroupControlSystem.create(building, 2, 6,
+                new EstimatedTimeOfArrivalDispatchStrategy(), clock, logger);
+        PassengerGenerator passengerGenerator = new PassengerGenerator(building, logger, new SplittableRandom(3), clock, trafficModel);
+        if (traceWriter != null) {
+            passengerGenerator.recordTrace(traceWriter);
+        }
+        new DiscreteEventSimulation(groupControlSystem, passengerGenerator, clock).run(600_000);
+        return groupControlSystem.getTripStatistics();
+    }
+}
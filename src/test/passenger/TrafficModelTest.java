@@ -0,0 +1,103 @@
+package passenger;
+
+import main.passenger.traffic.PoissonTraffic;
+import main.passenger.traffic.TrafficModel;
+import main.passenger.traffic.TrafficPeriod;
+import main.passenger.traffic.TrafficProfiles;
+import main.passenger.traffic.Trip;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrafficModelTest {
+
+    private static final int FLOOR_COUNT = 10;
+    private static final int TRIPS = 10_000;
+
+    SplittableRandom random = new SplittableRandom(1);
+
+    @Test
+    void randomFloorNumberExcept_drawsEveryOtherFloor() {
+        Set<Integer> floorNumbers = new TreeSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            floorNumbers.add(TrafficModel.randomFloorNumberExcept(5, 3, random));
+        }
+
+        assertEquals(Set.of(1, 2, 4, 5), floorNumbers);
+    }
+
+    @Test
+    void poissonTraffic_followsTheRateOfEachPeriod() {
+        long tenMinutes = TimeUnit.MINUTES.toMillis(10);
+        TrafficModel trafficModel = new PoissonTraffic(FLOOR_COUNT, List.of(
+                new TrafficPeriod(tenMinutes, 60, 1, 0),
+                new TrafficPeriod(tenMinutes, 120, 1, 0)
+        ));
+        int firstPeriodArrivals = 0;
+        int secondPeriodArrivals = 0;
+        for (long time = trafficModel.nextArrivalDelayMillis(0, random); time < 2 * tenMinutes;
+             time += trafficModel.nextArrivalDelayMillis(time, random)) {
+            if (time < tenMinutes) {
+                firstPeriodArrivals++;
+            } else {
+                secondPeriodArrivals++;
+            }
+        }
+
+        assertEquals(600, firstPeriodArrivals, 75);
+        assertEquals(1_200, secondPeriodArrivals, 110);
+    }
+
+    @Test
+    void upPeak_bringsMostPassengersInFromFirstFloor() {
+        List<Trip> trips = drawTrips(TrafficProfiles.upPeak(FLOOR_COUNT, 60));
+
+        long incomingTrips = trips.stream().filter(trip -> trip.originFloorNumber() == 1).count();
+
+        assertEquals(0.85, (double) incomingTrips / TRIPS, 0.03);
+    }
+
+    @Test
+    void officeWorkers_startOrFinishAtFirstFloorTwiceInThree() {
+        List<Trip> trips = drawTrips(TrafficProfiles.officeWorkers(FLOOR_COUNT, 60));
+
+        long lobbyTrips = trips.stream().filter(trip -> trip.originFloorNumber() == 1 || trip.destinationFloorNumber() == 1).count();
+
+        assertTrue(trips.stream().noneMatch(trip -> trip.originFloorNumber() == trip.destinationFloorNumber()));
+        // Inter-floor trips stay above 1st floor
+        assertEquals(2.0 / 3, (double) lobbyTrips / TRIPS, 0.03);
+    }
+
+    @Test
+    void sameSeed_drawsTheSameTraffic() {
+        TrafficModel trafficModel = TrafficProfiles.officeDay(FLOOR_COUNT, 60);
+
+        assertEquals(drawTrips(trafficModel, new SplittableRandom(7)), drawTrips(trafficModel, new SplittableRandom(7)));
+    }
+
+    @Test
+    void byName_rejectsUnknownModels() {
+        assertThrows(IllegalArgumentException.class, () -> TrafficProfiles.byName("weekend", FLOOR_COUNT, 60));
+    }
+
+    private List<Trip> drawTrips(TrafficModel trafficModel) {
+        return drawTrips(trafficModel, random);
+    }
+
+    private static List<Trip> drawTrips(TrafficModel trafficModel, SplittableRandom random) {
+        List<Trip> trips = new ArrayList<>();
+        long time = 0;
+        for (int i = 0; i < TRIPS; i++) {
+            time += trafficModel.nextArrivalDelayMillis(time, random);
+            trips.add(trafficModel.nextTrip(time, random));
+        }
+        return trips;
+    }
+}
@@ -0,0 +1,43 @@
+package passenger;
+
+import main.passenger.Passenger;
+import main.passenger.TripStatistics;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TripStatisticsTest {
+
+    TripStatistics tripStatistics = new TripStatistics();
+
+    @Test
+    void record_breaksTimesDownByFloorAndElevator() {
+        travel(new Passenger(1, 5, 0), 1_000, 3_000, 1);
+        travel(new Passenger(3, 1, 0), 100, 1_100, 2);
+
+        assertEquals(2, tripStatistics.getDeliveredPassengers());
+        assertEquals(550, tripStatistics.getAverageWaitTimeMillis());
+        assertEquals(1_000, tripStatistics.getByOriginFloor().get(1).getWaitTimes().getMaxValue());
+        assertEquals(100, tripStatistics.getByOriginFloor().get(3).getWaitTimes().getMaxValue());
+        assertEquals(3_000, tripStatistics.getByElevator().get(1).getJourneyTimes().getMaxValue());
+        assertEquals(1_000, tripStatistics.getByElevator().get(2).getRideTimes().getMaxValue());
+        assertEquals(3_000, tripStatistics.getAllPassengers().getJourneyTimes().getMaxValue());
+    }
+
+    @Test
+    void getReport_listsEveryFloorAndElevator() {
+        travel(new Passenger(2, 1, 0), 500, 1_500, 1);
+
+        String report = tripStatistics.getReport();
+
+        assertTrue(report.contains("From floor 2: wait 500/500/500/500 ms"));
+        assertTrue(report.contains("Elevator 1: "));
+    }
+
+    private void travel(Passenger passenger, long boardingTimeMillis, long alightingTimeMillis, int elevatorNumber) {
+        passenger.board(boardingTimeMillis);
+        tripStatistics.recordBoarding(passenger, elevatorNumber);
+        passenger.alight(alightingTimeMillis);
+        tripStatistics.recordAlighting(passenger, elevatorNumber);
+    }
+}
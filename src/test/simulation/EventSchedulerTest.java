@@ -0,0 +1,63 @@
+package simulation;
+
+import main.simulation.EventScheduler;
+import main.simulation.VirtualClock;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventSchedulerTest {
+
+    VirtualClock clock = new VirtualClock();
+    EventScheduler scheduler = new EventScheduler(clock);
+
+    @Test
+    void runUntil_executesEventsInTimeOrder() {
+        List<Long> executionTimes = new ArrayList<>();
+        scheduler.schedule(300, () -> executionTimes.add(clock.currentTimeMillis()));
+        scheduler.schedule(100, () -> executionTimes.add(clock.currentTimeMillis()));
+        scheduler.schedule(200, () -> executionTimes.add(clock.currentTimeMillis()));
+
+        scheduler.runUntil(1000);
+
+        assertEquals(List.of(100L, 200L, 300L), executionTimes);
+        assertEquals(1000, clock.currentTimeMillis());
+    }
+
+    @Test
+    void runUntil_keepsInsertionOrderForSimultaneousEvents() {
+        List<String> executed = new ArrayList<>();
+        scheduler.schedule(100, () -> executed.add("first"));
+        scheduler.schedule(100, () -> executed.add("second"));
+        scheduler.schedule(100, () -> executed.add("third"));
+
+        scheduler.runUntil(100);
+
+        assertEquals(List.of("first", "second", "third"), executed);
+    }
+
+    @Test
+    void runUntil_leavesLaterEventsPending() {
+        List<Long> executionTimes = new ArrayList<>();
+        scheduler.schedule(100, () -> scheduler.schedule(500, () -> executionTimes.add(clock.currentTimeMillis())));
+
+        scheduler.runUntil(400);
+
+        assertTrue(executionTimes.isEmpty());
+        assertEquals(1, scheduler.getPendingEventCount());
+
+        scheduler.runUntil(600);
+
+        assertEquals(List.of(600L), executionTimes);
+    }
+
+    @Test
+    void schedule_rejectsEventsInThePast() {
+        scheduler.runUntil(100);
+
+        assertThrows(IllegalArgumentException.class, () -> scheduler.scheduleAt(50, () -> {}));
+    }
+}
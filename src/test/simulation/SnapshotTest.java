@@ -0,0 +1,189 @@
+package simulation;
+
+import main.building.Building;
+import main.building.Floor;
+import main.customLogger.CustomLogger;
+import main.customLogger.LogLevel;
+import main.elevator.Elevator;
+import main.elevator.ElevatorGroupControlSystem;
+import main.elevator.dispatch.DestinationDispatchStrategy;
+import main.elevator.dispatch.DispatchStrategy;
+import main.elevator.dispatch.EstimatedTimeOfArrivalDispatchStrategy;
+import main.elevator.dispatch.NearestCarDispatchStrategy;
+import main.passenger.PassengerGenerator;
+import main.passenger.trace.ReplayTraffic;
+import main.passenger.trace.TraceReader;
+import main.passenger.trace.TraceWriter;
+import main.passenger.traffic.TrafficModel;
+import main.passenger.traffic.TrafficProfiles;
+import main.simulation.DiscreteEventSimulation;
+import main.simulation.VirtualClock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotTest {
+
+    private static final int FLOOR_COUNT = 12;
+    private static final long WARM_UP_MILLIS = 1_800_000;
+    private static final long MEASURED_MILLIS = 1_800_000;
+
+    CustomLogger logger = new CustomLogger();
+    @TempDir
+    Path directory;
+
+    SnapshotTest() {
+        logger.setLevel(LogLevel.OFF);
+    }
+
+    // A run restored from a snapshot has to go on exactly like the run the snapshot was taken from
+    @Test
+    void restoreSnapshot_continuesLikeTheOriginalRun() throws IOException {
+        Run original = new Run(new EstimatedTimeOfArrivalDispatchStrategy());
+        original.simulation.run(WARM_UP_MILLIS);
+        byte[] snapshot = original.snapshot();
+        long deliveredBeforeSnapshot = original.groupControlSystem.getTripStatistics().getDeliveredPassengers();
+        original.simulation.run(MEASURED_MILLIS);
+
+        Run restored = new Run(new EstimatedTimeOfArrivalDispatchStrategy());
+        restored.simulation.restoreSnapshot(new ByteArrayInputStream(snapshot));
+        restored.simulation.run(MEASURED_MILLIS);
+
+        assertTrue(deliveredBeforeSnapshot > 0);
+        assertEquals(original.simulation.getSimulatedTimeMillis(), restored.simulation.getSimulatedTimeMillis());
+        assertEquals(original.passengerGenerator.getGeneratedPassengerCount(), restored.passengerGenerator.getGeneratedPassengerCount());
+        assertEquals(original.groupControlSystem.getTripStatistics().getDeliveredPassengers() - deliveredBeforeSnapshot,
+                restored.groupControlSystem.getTripStatistics().getDeliveredPassengers());
+        for (int i = 0; i < original.elevators().size(); i++) {
+            Elevator originalElevator = original.elevators().get(i);
+            Elevator restoredElevator = restored.elevators().get(i);
+            assertEquals(originalElevator.getCurrentFloorNumber(), restoredElevator.getCurrentFloorNumber());
+            assertEquals(originalElevator.getStopsMade(), restoredElevator.getStopsMade());
+            assertEquals(originalElevator.getPassengers().toString(), restoredElevator.getPassengers().toString());
+        }
+    }
+
+    @Test
+    void restoreSnapshot_forksWhatIfRunsWithOtherStrategies() throws IOException {
+        Run original = new Run(new EstimatedTimeOfArrivalDispatchStrategy());
+        original.simulation.run(WARM_UP_MILLIS);
+        byte[] snapshot = original.snapshot();
+
+        Run whatIf = new Run(new NearestCarDispatchStrategy());
+        whatIf.simulation.restoreSnapshot(new ByteArrayInputStream(snapshot));
+        whatIf.simulation.run(MEASURED_MILLIS);
+
+        assertEquals(WARM_UP_MILLIS + MEASURED_MILLIS, whatIf.simulation.getSimulatedTimeMillis());
+        assertTrue(whatIf.groupControlSystem.getTripStatistics().getDeliveredPassengers() > 0);
+    }
+
+    @Test
+    void restoreSnapshot_forksIntoDestinationDispatchAndBack() throws IOException {
+        Run original = new Run(new EstimatedTimeOfArrivalDispatchStrategy());
+        original.simulation.run(WARM_UP_MILLIS);
+
+        Run destinationDispatch = new Run(new DestinationDispatchStrategy());
+        destinationDispatch.simulation.restoreSnapshot(new ByteArrayInputStream(original.snapshot()));
+        destinationDispatch.simulation.run(MEASURED_MILLIS);
+        Run conventional = new Run(new EstimatedTimeOfArrivalDispatchStrategy());
+        conventional.simulation.restoreSnapshot(new ByteArrayInputStream(destinationDispatch.snapshot()));
+        conventional.simulation.run(MEASURED_MILLIS);
+
+        assertTrue(destinationDispatch.groupControlSystem.getTripStatistics().getDeliveredPassengers() > 0);
+        assertTrue(conventional.groupControlSystem.getTripStatistics().getDeliveredPassengers() > 0);
+        // Nobody is left waiting for a car of the other strategy
+        assertTrue(conventional.waitingPassengers() < 20);
+    }
+
+    // The restored run reads the trace on from where the snapshot was taken, not from its beginning
+    @Test
+    void restoreSnapshot_continuesReplayingTheTrace() throws IOException {
+        Path trace = directory.resolve("office.trace");
+        try (TraceWriter traceWriter = new TraceWriter(trace, FLOOR_COUNT)) {
+            Run recorded = new Run(new EstimatedTimeOfArrivalDispatchStrategy());
+            recorded.passengerGenerator.recordTrace(traceWriter);
+            recorded.simulation.run(WARM_UP_MILLIS + MEASURED_MILLIS);
+        }
+
+        try (TraceReader originalTrace = new TraceReader(trace); TraceReader restoredTrace = new TraceReader(trace)) {
+            Run original = new Run(new EstimatedTimeOfArrivalDispatchStrategy(), new ReplayTraffic(originalTrace, FLOOR_COUNT));
+            original.simulation.run(WARM_UP_MILLIS);
+            byte[] snapshot = original.snapshot();
+            long generatedBeforeSnapshot = original.passengerGenerator.getGeneratedPassengerCount();
+            long deliveredBeforeSnapshot = original.groupControlSystem.getTripStatistics().getDeliveredPassengers();
+            original.simulation.run(MEASURED_MILLIS);
+
+            Run restored = new Run(new EstimatedTimeOfArrivalDispatchStrategy(), new ReplayTraffic(restoredTrace, FLOOR_COUNT));
+            restored.simulation.restoreSnapshot(new ByteArrayInputStream(snapshot));
+            restored.simulation.run(MEASURED_MILLIS);
+
+            assertTrue(generatedBeforeSnapshot > 0);
+            assertTrue(original.passengerGenerator.getGeneratedPassengerCount() > generatedBeforeSnapshot);
+            assertEquals(original.passengerGenerator.getGeneratedPassengerCount(), restored.passengerGenerator.getGeneratedPassengerCount());
+            assertEquals(original.groupControlSystem.getTripStatistics().getDeliveredPassengers() - deliveredBeforeSnapshot,
+                    restored.groupControlSystem.getTripStatistics().getDeliveredPassengers());
+        }
+    }
+
+    @Test
+    void restoreSnapshot_rejectsStartedRunsAndOtherBuildings() throws IOException {
+        Run original = new Run(new EstimatedTimeOfArrivalDispatchStrategy());
+        original.simulation.run(60_000);
+        byte[] snapshot = original.snapshot();
+
+        Run started = new Run(new EstimatedTimeOfArrivalDispatchStrategy());
+        started.simulation.run(1);
+
+        assertThrows(IllegalStateException.class, () -> started.simulation.restoreSnapshot(new ByteArrayInputStream(snapshot)));
+        assertThrows(IOException.class, () -> new Run(new EstimatedTimeOfArrivalDispatchStrategy(), FLOOR_COUNT + 1)
+                .simulation.restoreSnapshot(new ByteArrayInputStream(snapshot)));
+    }
+
+    private class Run {
+        final ElevatorGroupControlSystem groupControlSystem;
+        final PassengerGenerator passengerGenerator;
+        final DiscreteEventSimulation simulation;
+
+        Run(DispatchStrategy dispatchStrategy) {
+            this(dispatchStrategy, FLOOR_COUNT);
+        }
+
+        Run(DispatchStrategy dispatchStrategy, int floorCount) {
+            this(dispatchStrategy, floorCount, TrafficProfiles.officeWorkers(floorCount, 90));
+        }
+
+        Run(DispatchStrategy dispatchStrategy, TrafficModel trafficModel) {
+            this(dispatchStrategy, FLOOR_COUNT, trafficModel);
+        }
+
+        Run(DispatchStrategy dispatchStrategy, int floorCount, TrafficModel trafficModel) {
+            VirtualClock clock = new VirtualClock();
+            Building building = new Building(floorCount);
+            groupControlSystem = ElevatorGroupControlSystem.create(building, 3, 6, dispatchStrategy, clock, logger);
+            passengerGenerator = new PassengerGenerator(building, logger, new SplittableRandom(5), clock, trafficModel);
+            simulation = new DiscreteEventSimulation(groupControlSystem, passengerGenerator, clock);
+        }
+
+        byte[] snapshot() throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            simulation.writeSnapshot(out);
+            return out.toByteArray();
+        }
+
+        List<Elevator> elevators() {
+            return groupControlSystem.getElevators();
+        }
+
+        int waitingPassengers() {
+            return groupControlSystem.getBuilding().getFloors().stream().mapToInt(Floor::getWaitingPassengerCount).sum();
+        }
+    }
+}